@@ -0,0 +1,155 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell.
+ */
+package lexicon;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import simplenlg.features.Feature;
+import simplenlg.features.NumberAgreement;
+import simplenlg.features.Tense;
+import simplenlg.framework.LexicalCategory;
+import simplenlg.framework.NLGFactory;
+import simplenlg.framework.WordElement;
+import simplenlg.lexicon.CompiledLexicon;
+import simplenlg.lexicon.LexiconCompiler;
+import simplenlg.lexicon.XMLLexicon;
+import simplenlg.phrasespec.NPPhraseSpec;
+import simplenlg.phrasespec.SPhraseSpec;
+
+/**
+ * This class tests that a lexicon compiled to the binary format and loaded
+ * back gives the same words and realisations as the XML lexicon.
+ */
+public class CompiledLexiconRoundTrip extends Setup {
+
+	public CompiledLexiconRoundTrip(String name) {
+		super(name);
+	}
+
+	private byte[] compile(XMLLexicon lexicon) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		LexiconCompiler.compile(lexicon, out);
+		return out.toByteArray();
+	}
+
+	private CompiledLexicon load(byte[] bytes) throws IOException {
+		return new CompiledLexicon(ByteBuffer.wrap(bytes));
+	}
+
+	@Test
+	public void testSameWords() throws IOException {
+		CompiledLexicon compiled = load(compile(this.xmlLexicon));
+		Assert.assertEquals(this.xmlLexicon.getLanguage(), compiled.getLanguage());
+
+		List<WordElement> expected = this.xmlLexicon.getWords(LexicalCategory.ANY, null);
+		List<WordElement> actual = compiled.getWords(LexicalCategory.ANY, null);
+		Assert.assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			WordElement word = expected.get(i);
+			Assert.assertEquals(word, actual.get(i));
+			Assert.assertEquals(word.getCategory(), actual.get(i).getCategory());
+			Assert.assertSame(compiled, actual.get(i).getLexicon());
+			Assert.assertEquals(
+					this.xmlLexicon.getWords(word.getBaseForm(), LexicalCategory.ANY),
+					compiled.getWords(word.getBaseForm(), LexicalCategory.ANY));
+		}
+	}
+
+	@Test
+	public void testWordsDifferingByCategory() throws IOException {
+		// "labour" is both a noun and a verb with the same features
+		XMLLexicon english = new simplenlg.lexicon.english.XMLLexicon();
+		CompiledLexicon compiled = load(compile(english));
+		Assert.assertEquals(english.getWords(LexicalCategory.ANY, null).size(),
+				compiled.getWords(LexicalCategory.ANY, null).size());
+		Assert.assertEquals(2, english.getWords("labour", LexicalCategory.ANY).size());
+		Assert.assertEquals(2, compiled.getWords("labour", LexicalCategory.ANY).size());
+	}
+
+	@Test
+	public void testSameVariantsAndInternedKeys() throws IOException {
+		CompiledLexicon compiled = load(compile(this.xmlLexicon));
+		for (String variant : new String[] { "meninos", "receitas", "bonitas", "eles" }) {
+			Assert.assertEquals(variant,
+					this.xmlLexicon.getWordsFromVariant(variant, LexicalCategory.ANY),
+					compiled.getWordsFromVariant(variant, LexicalCategory.ANY));
+		}
+
+		WordElement pronoun = compiled.getWord("eles", LexicalCategory.PRONOUN);
+		Assert.assertEquals(NumberAgreement.PLURAL, pronoun.getFeature(Feature.NUMBER));
+		for (Map.Entry<String, Object> feature : pronoun.getAllFeatures().entrySet()) {
+			Assert.assertSame(feature.getKey().intern(), feature.getKey());
+		}
+	}
+
+	@Test
+	public void testSameRealisation() throws IOException {
+		NLGFactory compiledFactory = new NLGFactory(load(compile(this.xmlLexicon)));
+		Assert.assertEquals(realise(this.phraseFactory), realise(compiledFactory));
+	}
+
+	private String realise(NLGFactory factory) {
+		NPPhraseSpec subject = factory.createNounPhrase("o", "menino");
+		subject.setFeature(Feature.NUMBER, NumberAgreement.PLURAL);
+		NPPhraseSpec object = factory.createNounPhrase("a", "receita");
+		object.setFeature(Feature.NUMBER, NumberAgreement.PLURAL);
+		SPhraseSpec clause = factory.createClause(subject, "trazer", object);
+		clause.setFeature(Feature.TENSE, Tense.PAST);
+		return this.realiser.realiseSentence(clause);
+	}
+
+	@Test
+	public void testOtherVersionRejected() throws IOException {
+		byte[] bytes = compile(this.xmlLexicon);
+		// the version follows the four-byte magic number
+		bytes[5]++;
+		try {
+			load(bytes);
+			Assert.fail("a file of another version was loaded");
+		} catch (IOException ex) {
+			Assert.assertTrue(ex.getMessage().contains("version"));
+		}
+	}
+
+	@Test
+	public void testOtherClassRejected() throws IOException {
+		byte[] bytes = compile(this.xmlLexicon);
+		// a class of the same length which is not an enum
+		byte[] enumName = "simplenlg.features.Gender".getBytes("UTF-8");
+		byte[] otherName = "java.util.IdentityHashMap".getBytes("UTF-8");
+		String text = new String(bytes, "ISO-8859-1");
+		int position = text.indexOf(new String(enumName, "ISO-8859-1"));
+		Assert.assertTrue(position >= 0);
+		System.arraycopy(otherName, 0, bytes, position, otherName.length);
+		try {
+			load(bytes);
+			Assert.fail("a constant of a class which is not an enum was loaded");
+		} catch (IOException ex) {
+			Assert.assertTrue(ex.getMessage(), ex.getMessage().contains("not an enum class java.util.IdentityHashMap"));
+		}
+	}
+}
@@ -0,0 +1,110 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell.
+ */
+package lexicon;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import simplenlg.features.Feature;
+import simplenlg.features.LexicalFeature;
+import simplenlg.features.NumberAgreement;
+import simplenlg.features.Person;
+import simplenlg.features.portuguese.PortugueseLexicalFeature;
+import simplenlg.features.portuguese.PronounType;
+import simplenlg.framework.InflectedWordElement;
+import simplenlg.framework.LexicalCategory;
+import simplenlg.framework.WordElement;
+
+/**
+ * This class tests the queries of words by category and features.
+ */
+public class FeatureQuery extends Setup {
+
+	public FeatureQuery(String name) {
+		super(name);
+	}
+
+	private Map<String, Object> thirdPersonPlural() {
+		Map<String, Object> features = new HashMap<String, Object>();
+		features.put(PortugueseLexicalFeature.PRONOUN_TYPE, PronounType.PERSONAL);
+		features.put(Feature.PERSON, Person.THIRD);
+		features.put(Feature.NUMBER, NumberAgreement.PLURAL);
+		return features;
+	}
+
+	@Test
+	public void testRepeatedQuery() {
+		List<WordElement> first = this.xmlLexicon.getWords(LexicalCategory.PRONOUN, thirdPersonPlural());
+		Assert.assertFalse(first.isEmpty());
+		for (WordElement word : first) {
+			Assert.assertEquals(Person.THIRD, word.getFeature(Feature.PERSON));
+			Assert.assertEquals(NumberAgreement.PLURAL, word.getFeature(Feature.NUMBER));
+		}
+
+		// a changed result list does not change the next answer
+		first.clear();
+		Assert.assertFalse(this.xmlLexicon.getWords(LexicalCategory.PRONOUN, thirdPersonPlural()).isEmpty());
+	}
+
+	@Test
+	public void testDefaultValues() {
+		// FALSE also matches the words without the feature
+		Map<String, Object> features = thirdPersonPlural();
+		List<WordElement> expected = this.xmlLexicon.getWords(LexicalCategory.PRONOUN, features);
+		features.put("never_set_feature", Boolean.FALSE);
+		Assert.assertEquals(expected, this.xmlLexicon.getWords(LexicalCategory.PRONOUN, features));
+		features.put("never_set_feature", Boolean.TRUE);
+		Assert.assertTrue(this.xmlLexicon.getWords(LexicalCategory.PRONOUN, features).isEmpty());
+	}
+
+	@Test
+	public void testUnknownWordNotIncluded() {
+		// a null value matches the words without the feature
+		Map<String, Object> features = new HashMap<String, Object>();
+		features.put(Feature.NUMBER, null);
+		List<WordElement> before = this.xmlLexicon.getWords(LexicalCategory.NOUN, features);
+
+		WordElement word = this.xmlLexicon.lookupWord("palavrainexistente", LexicalCategory.NOUN);
+		List<WordElement> after = this.xmlLexicon.getWords(LexicalCategory.NOUN, features);
+		Assert.assertEquals(before, after);
+		Assert.assertFalse(after.contains(word));
+	}
+
+	@Test
+	public void testQueryKeepsInflectedFeatures() {
+		WordElement word = this.xmlLexicon.lookupWord("casa", LexicalCategory.NOUN);
+		Object gender = word.getFeature(LexicalFeature.GENDER);
+		InflectedWordElement before = new InflectedWordElement(word);
+
+		// queries only read the features of the words
+		this.xmlLexicon.getWords(LexicalCategory.NOUN, new HashMap<String, Object>());
+		Assert.assertEquals(gender, new InflectedWordElement(word).getFeature(LexicalFeature.GENDER));
+
+		// a change made through the map of the features is still seen
+		word.getAllFeatures().put("test_feature", "changed");
+		Assert.assertEquals("changed", new InflectedWordElement(word).getFeature("test_feature"));
+		Assert.assertNull(before.getFeature("test_feature"));
+		word.removeFeature("test_feature");
+	}
+}
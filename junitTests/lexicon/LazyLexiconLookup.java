@@ -0,0 +1,114 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell.
+ */
+package lexicon;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import simplenlg.features.Feature;
+import simplenlg.features.NumberAgreement;
+import simplenlg.features.Person;
+import simplenlg.features.Tense;
+import simplenlg.framework.LexicalCategory;
+import simplenlg.framework.NLGFactory;
+import simplenlg.framework.WordElement;
+import simplenlg.lexicon.LazyLexicon;
+import simplenlg.lexicon.LexiconCompiler;
+import simplenlg.phrasespec.SPhraseSpec;
+
+/**
+ * This class tests that a lazy lexicon answers lookups as the XML lexicon it
+ * was compiled from, while keeping only a bounded number of words in memory.
+ */
+public class LazyLexiconLookup extends Setup {
+
+	private static final int CACHE_SIZE = 50;
+
+	public LazyLexiconLookup(String name) {
+		super(name);
+	}
+
+	private LazyLexicon open() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		LexiconCompiler.compile(this.xmlLexicon, out);
+		return new LazyLexicon(ByteBuffer.wrap(out.toByteArray()), CACHE_SIZE);
+	}
+
+	@Test
+	public void testSameLookups() throws IOException {
+		LazyLexicon lazy = open();
+		Assert.assertEquals(0, lazy.getCachedWordCount());
+
+		List<WordElement> words = this.xmlLexicon.getWords(LexicalCategory.ANY, null);
+		Assert.assertEquals(words.size(), lazy.getWordCount());
+		for (WordElement word : words) {
+			String base = word.getBaseForm();
+			Assert.assertEquals(base, this.xmlLexicon.getWords(base, LexicalCategory.ANY),
+					lazy.getWords(base, LexicalCategory.ANY));
+			Assert.assertEquals(base, this.xmlLexicon.getWords(base, (LexicalCategory) word.getCategory()),
+					lazy.getWords(base, (LexicalCategory) word.getCategory()));
+			Assert.assertTrue(lazy.getCachedWordCount() <= CACHE_SIZE);
+		}
+		for (String variant : new String[] { "meninos", "receitas", "bonitas", "eles" }) {
+			Assert.assertEquals(variant,
+					this.xmlLexicon.getWordsFromVariant(variant, LexicalCategory.ANY),
+					lazy.getWordsFromVariant(variant, LexicalCategory.ANY));
+		}
+		Assert.assertTrue(lazy.getWords("palavrainexistente", LexicalCategory.ANY).isEmpty());
+		Assert.assertTrue(lazy.getWordsByID("palavrainexistente").isEmpty());
+	}
+
+	@Test
+	public void testFeatureQuery() throws IOException {
+		LazyLexicon lazy = open();
+		Map<String, Object> features = new HashMap<String, Object>();
+		features.put(Feature.PERSON, Person.THIRD);
+		features.put(Feature.NUMBER, NumberAgreement.PLURAL);
+		List<WordElement> words = lazy.getWords(LexicalCategory.PRONOUN, features);
+		Assert.assertEquals(this.xmlLexicon.getWords(LexicalCategory.PRONOUN, features), words);
+
+		// only the words found are read
+		Assert.assertEquals(words.size(), lazy.getCachedWordCount());
+		features.put(Feature.NUMBER, null);
+		Assert.assertEquals(this.xmlLexicon.getWords(LexicalCategory.ANY, features),
+				lazy.getWords(LexicalCategory.ANY, features));
+	}
+
+	@Test
+	public void testSameRealisation() throws IOException {
+		NLGFactory lazyFactory = new NLGFactory(open());
+		Assert.assertEquals(realise(this.phraseFactory), realise(lazyFactory));
+	}
+
+	private String realise(NLGFactory factory) {
+		SPhraseSpec clause = factory.createClause(
+				factory.createNounPhrase("o", "menino"), "trazer",
+				factory.createNounPhrase("a", "receita"));
+		clause.setFeature(Feature.TENSE, Tense.FUTURE);
+		return this.realiser.realiseSentence(clause);
+	}
+}
@@ -0,0 +1,205 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell.
+ */
+package lexicon;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import simplenlg.framework.LexicalCategory;
+import simplenlg.framework.WordElement;
+import simplenlg.lexicon.CachingNIHDBLexicon;
+import simplenlg.lexicon.NIHDBLexicon;
+import simplenlg.lexicon.XMLLexicon;
+
+/**
+ * This class tests the cache of the NIH lexicon. No database is needed: the
+ * cached lexicon answers from the XML lexicon and counts its queries.
+ */
+public class NIHDBLexiconCache extends Setup {
+
+	public NIHDBLexiconCache(String name) {
+		super(name);
+	}
+
+	/**
+	 * An NIH lexicon without a database, answering from an XML lexicon.
+	 */
+	private static class CountingLexicon extends NIHDBLexicon {
+
+		private final XMLLexicon words;
+		int queries = 0;
+		int batches = 0;
+
+		CountingLexicon(XMLLexicon words) {
+			// an empty database in memory
+			super("org.hsqldb.jdbcDriver", "jdbc:hsqldb:mem:nihdblexiconcache", "sa", "");
+			this.words = words;
+		}
+
+		@Override
+		public List<WordElement> getWords(String baseForm, LexicalCategory category) {
+			this.queries++;
+			return this.words.getWords(baseForm, category);
+		}
+
+		@Override
+		public List<WordElement> getWordsFromVariant(String variant, LexicalCategory category) {
+			this.queries++;
+			return this.words.getWordsFromVariant(variant, category);
+		}
+
+		@Override
+		public Map<String, List<WordElement>> getWordsByBase(Collection<String> baseForms) {
+			this.batches++;
+			Map<String, List<WordElement>> result = new HashMap<String, List<WordElement>>();
+			for (String baseForm : baseForms) {
+				result.put(baseForm, this.words.getWords(baseForm, LexicalCategory.ANY));
+			}
+			return result;
+		}
+
+		@Override
+		public Map<String, List<WordElement>> getWordsByTerm(Collection<String> terms) {
+			this.batches++;
+			Map<String, List<WordElement>> result = new HashMap<String, List<WordElement>>();
+			for (String term : terms) {
+				result.put(term, this.words.getWordsFromVariant(term, LexicalCategory.ANY));
+			}
+			return result;
+		}
+	}
+
+	@Test
+	public void testReadThrough() {
+		CountingLexicon nih = new CountingLexicon(this.xmlLexicon);
+		CachingNIHDBLexicon cache = new CachingNIHDBLexicon(nih);
+		Assert.assertEquals(this.xmlLexicon.getWords("menino", LexicalCategory.NOUN),
+				cache.getWords("menino", LexicalCategory.NOUN));
+		Assert.assertEquals(this.xmlLexicon.getWords("menino", LexicalCategory.VERB),
+				cache.getWords("menino", LexicalCategory.VERB));
+		Assert.assertEquals(1, nih.queries);
+		Assert.assertEquals(1, cache.getMissCount());
+		Assert.assertEquals(1, cache.getHitCount());
+
+		// misses are cached too
+		Assert.assertNull(cache.resolveWord("palavrainexistente", LexicalCategory.NOUN));
+		int queries = nih.queries;
+		Assert.assertFalse(cache.hasWord("palavrainexistente", LexicalCategory.NOUN));
+		Assert.assertEquals(queries, nih.queries);
+	}
+
+	@Test
+	public void testPrefetch() {
+		CountingLexicon nih = new CountingLexicon(this.xmlLexicon);
+		CachingNIHDBLexicon cache = new CachingNIHDBLexicon(nih);
+		List<String> vocabulary = Arrays.asList("menino", "meninos", "trazer", "receita", "palavrainexistente");
+		cache.prefetch(vocabulary);
+		Assert.assertEquals(2, nih.batches);
+		Assert.assertEquals(0, cache.getMissCount());
+
+		for (String word : vocabulary) {
+			Assert.assertEquals(word, this.xmlLexicon.resolveWord(word, LexicalCategory.ANY),
+					cache.resolveWord(word, LexicalCategory.ANY));
+		}
+		Assert.assertEquals(0, nih.queries);
+		Assert.assertEquals(1.0, cache.getHitRate(), 0.0);
+
+		// cached words are not fetched again
+		cache.prefetch(vocabulary);
+		Assert.assertEquals(2, nih.batches);
+	}
+
+	@Test
+	public void testBatchedQueries() throws Exception {
+		NIHDBLexicon nih = createDatabase();
+		List<String> keys = Arrays.asList("dog", "Dogs", "children", "E0016997", "cat");
+		Map<String, List<WordElement>> byBase = nih.getWordsByBase(keys);
+		Map<String, List<WordElement>> byTerm = nih.getWordsByTerm(keys);
+		for (String key : keys) {
+			Assert.assertEquals(key, nih.getWords(key, LexicalCategory.ANY), byBase.get(key));
+			Assert.assertEquals(key, nih.getWordsFromVariant(key, LexicalCategory.ANY), byTerm.get(key));
+		}
+		Assert.assertEquals(2, byTerm.get("Dogs").size());
+		Assert.assertEquals("child", byTerm.get("children").get(0).getBaseForm());
+		Assert.assertTrue(byBase.get("cat").isEmpty());
+	}
+
+	/**
+	 * Creates a small lexAccess database in memory.
+	 */
+	private static NIHDBLexicon createDatabase() throws SQLException {
+		String url = "jdbc:hsqldb:mem:nihdblexiconbatch";
+		NIHDBLexicon nih = new NIHDBLexicon("org.hsqldb.jdbcDriver", url, "sa", "");
+		Connection conn = DriverManager.getConnection(url, "sa", "");
+		Statement statement = conn.createStatement();
+		statement.execute("CREATE TABLE LEX_RECORD (eui VARCHAR(10), base VARCHAR(100), "
+				+ "lastAction INT, lexRecord LONGVARCHAR)");
+		statement.execute("CREATE TABLE INFL_VARS (inflVarLc VARCHAR(100), eui VARCHAR(10))");
+		statement.close();
+		insert(conn, "INSERT INTO LEX_RECORD VALUES (?, ?, 0, ?)", "E0023158", "dog",
+				"{base=dog\nentry=E0023158\n\tcat=noun\n\tvariants=reg\n}\n");
+		insert(conn, "INSERT INTO LEX_RECORD VALUES (?, ?, 0, ?)", "E0023159", "dog",
+				"{base=dog\nentry=E0023159\n\tcat=verb\n\tvariants=reg\n\tintran\n}\n");
+		insert(conn, "INSERT INTO LEX_RECORD VALUES (?, ?, 0, ?)", "E0016997", "child",
+				"{base=child\nentry=E0016997\n\tcat=noun\n\tvariants=irreg|child|children|\n}\n");
+		String[][] variants = { { "dog", "E0023158" }, { "dogs", "E0023158" }, { "dog", "E0023159" },
+				{ "dogs", "E0023159" }, { "child", "E0016997" }, { "children", "E0016997" } };
+		for (String[] variant : variants) {
+			insert(conn, "INSERT INTO INFL_VARS VALUES (?, ?)", variant);
+		}
+		conn.close();
+		return nih;
+	}
+
+	private static void insert(Connection conn, String sql, String... values) throws SQLException {
+		PreparedStatement statement = conn.prepareStatement(sql);
+		for (int i = 0; i < values.length; i++) {
+			statement.setString(i + 1, values[i]);
+		}
+		statement.execute();
+		statement.close();
+	}
+
+	@Test
+	public void testEviction() {
+		CountingLexicon nih = new CountingLexicon(this.xmlLexicon);
+		CachingNIHDBLexicon cache = new CachingNIHDBLexicon(nih, 2);
+		cache.getWords("menino");
+		cache.getWords("receita");
+		cache.getWords("palavrainexistente");
+		Assert.assertTrue(cache.getWeight() <= 2);
+		Assert.assertTrue(cache.getEvictionCount() > 0);
+
+		cache.setMaxWeight(0);
+		Assert.assertEquals(0, cache.size());
+		Assert.assertEquals(0, cache.getWeight());
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell.
+ */
+package lexicon;
+
+import java.util.List;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import simplenlg.framework.LexicalCategory;
+import simplenlg.framework.WordElement;
+import simplenlg.lexicon.portuguese.XMLLexicon;
+
+/**
+ * This class tests that the streaming loader gives the same words as
+ * converting the nodes of a DOM tree of the lexicon.
+ */
+public class StreamingLoadParity extends Setup {
+
+	private static final String LEXICON = "/simplenlg/lexicon/portuguese/default-portuguese-lexicon.xml";
+
+	public StreamingLoadParity(String name) {
+		super(name);
+	}
+
+	/** Gives access to the DOM conversion. */
+	private static class DomLexicon extends XMLLexicon {
+
+		DomLexicon() {
+			super();
+		}
+
+		WordElement convert(Node wordNode) {
+			return convertNodeToWord(wordNode);
+		}
+	}
+
+	@Test
+	public void testSameWordsAsDom() throws Exception {
+		DomLexicon domLexicon = new DomLexicon();
+		Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+				.parse(getClass().getResource(LEXICON).toString());
+		NodeList nodes = doc.getDocumentElement().getChildNodes();
+
+		List<WordElement> streamed = this.xmlLexicon.getWords(LexicalCategory.ANY, null);
+		int index = 0;
+		for (int i = 0; i < nodes.getLength(); i++) {
+			if (nodes.item(i).getNodeType() == Node.ELEMENT_NODE) {
+				WordElement expected = domLexicon.convert(nodes.item(i));
+				WordElement actual = streamed.get(index++);
+				Assert.assertEquals(expected, actual);
+				Assert.assertEquals(expected.getCategory(), actual.getCategory());
+			}
+		}
+		Assert.assertEquals(index, streamed.size());
+	}
+}
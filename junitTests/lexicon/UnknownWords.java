@@ -0,0 +1,114 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell.
+ */
+package lexicon;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import simplenlg.framework.LexicalCategory;
+import simplenlg.framework.WordElement;
+import simplenlg.lexicon.UnknownWordOverlay;
+import simplenlg.lexicon.UnknownWordPolicy;
+
+/**
+ * This class tests the handling of words that are not in the lexicon.
+ */
+public class UnknownWords extends Setup {
+
+	public UnknownWords(String name) {
+		super(name);
+	}
+
+	@Test
+	public void testLexiconUnchanged() {
+		int words = this.xmlLexicon.getWords(LexicalCategory.ANY, null).size();
+		this.xmlLexicon.lookupWord("palavrainexistente", LexicalCategory.NOUN);
+		this.xmlLexicon.getWord("outrapalavra");
+		this.xmlLexicon.getWordByID("E9999999");
+		this.xmlLexicon.getWordFromVariant("formainexistente", LexicalCategory.VERB);
+		Assert.assertEquals(words, this.xmlLexicon.getWords(LexicalCategory.ANY, null).size());
+		Assert.assertFalse(this.xmlLexicon.hasWord("palavrainexistente"));
+	}
+
+	@Test
+	public void testOverlay() {
+		UnknownWordOverlay overlay = this.xmlLexicon.getUnknownWords();
+		WordElement first = this.xmlLexicon.lookupWord("palavrainexistente", LexicalCategory.NOUN);
+		WordElement second = this.xmlLexicon.lookupWord("palavrainexistente", LexicalCategory.NOUN);
+		Assert.assertSame(first, second);
+		Assert.assertEquals(LexicalCategory.NOUN, first.getCategory());
+		Assert.assertEquals(1, overlay.size());
+		Assert.assertEquals(1, overlay.getHitCount());
+		Assert.assertEquals(1, overlay.getMissCount());
+		Assert.assertEquals(0.5, overlay.getHitRate(), 0.0);
+
+		// another category is another word
+		WordElement verb = this.xmlLexicon.lookupWord("palavrainexistente", LexicalCategory.VERB);
+		Assert.assertNotSame(first, verb);
+		Assert.assertEquals(2, overlay.size());
+	}
+
+	@Test
+	public void testEviction() {
+		UnknownWordOverlay overlay = this.xmlLexicon.getUnknownWords();
+		overlay.setCapacity(2);
+		WordElement first = this.xmlLexicon.lookupWord("primeira", LexicalCategory.NOUN);
+		this.xmlLexicon.lookupWord("segunda", LexicalCategory.NOUN);
+		// the first word becomes the most recently used
+		this.xmlLexicon.lookupWord("primeira", LexicalCategory.NOUN);
+		this.xmlLexicon.lookupWord("terceira", LexicalCategory.NOUN);
+		Assert.assertEquals(2, overlay.size());
+		Assert.assertEquals(1, overlay.getEvictionCount());
+		Assert.assertSame(first, this.xmlLexicon.lookupWord("primeira", LexicalCategory.NOUN));
+
+		overlay.setCapacity(0);
+		Assert.assertEquals(0, overlay.size());
+		Assert.assertEquals(3, overlay.getEvictionCount());
+	}
+
+	@Test
+	public void testSplitCapacity() {
+		UnknownWordOverlay overlay = this.xmlLexicon.getUnknownWords();
+		overlay.setCapacity(1000);
+		for (int i = 0; i < 3000; i++) {
+			this.xmlLexicon.lookupWord("palavra" + i, LexicalCategory.NOUN);
+		}
+		Assert.assertTrue(overlay.size() <= 1000);
+		Assert.assertEquals(3000 - overlay.size(), overlay.getEvictionCount());
+		this.xmlLexicon.lookupWord("palavra2999", LexicalCategory.NOUN);
+		Assert.assertEquals(1, overlay.getHitCount());
+
+		// the entries and counts are kept when the segments are joined again
+		overlay.setCapacity(2);
+		Assert.assertEquals(2, overlay.size());
+		Assert.assertEquals(2998, overlay.getEvictionCount());
+		Assert.assertEquals(1, overlay.getHitCount());
+	}
+
+	@Test
+	public void testTransient() {
+		this.xmlLexicon.setUnknownWordPolicy(UnknownWordPolicy.TRANSIENT);
+		WordElement first = this.xmlLexicon.lookupWord("palavrainexistente", LexicalCategory.NOUN);
+		WordElement second = this.xmlLexicon.lookupWord("palavrainexistente", LexicalCategory.NOUN);
+		Assert.assertNotSame(first, second);
+		Assert.assertEquals(first, second);
+		Assert.assertEquals(0, this.xmlLexicon.getUnknownWords().size());
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell.
+ */
+package lexicon;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import simplenlg.features.Feature;
+import simplenlg.features.Form;
+import simplenlg.features.LexicalFeature;
+import simplenlg.features.Gender;
+import simplenlg.features.NumberAgreement;
+import simplenlg.features.Person;
+import simplenlg.features.Tense;
+import simplenlg.framework.InflectedWordElement;
+import simplenlg.framework.LexicalCategory;
+import simplenlg.framework.WordElement;
+import simplenlg.lexicon.CompiledLexicon;
+import simplenlg.lexicon.Lexicon;
+import simplenlg.lexicon.LexiconCompiler;
+
+/**
+ * This class tests that the inflected forms of verbs lead back to their verb.
+ */
+public class VerbFormLookup extends Setup {
+
+	public VerbFormLookup(String name) {
+		super(name);
+	}
+
+	@Test
+	public void testRealisedForms() {
+		checkRealisedForms(this.xmlLexicon);
+	}
+
+	@Test
+	public void testCompiledForms() throws IOException {
+		// the forms are stored in the compiled lexicon, not built again
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		LexiconCompiler.compile(this.xmlLexicon, out);
+		checkRealisedForms(new CompiledLexicon(ByteBuffer.wrap(out.toByteArray())));
+	}
+
+	@Test
+	public void testIrregularForm() {
+		WordElement verb = this.xmlLexicon.getWordFromVariant("trouxemos", LexicalCategory.VERB);
+		Assert.assertEquals("trazer", verb.getBaseForm());
+		Assert.assertFalse(this.xmlLexicon.hasWordFromVariant("trouxemos", LexicalCategory.NOUN));
+	}
+
+	/**
+	 * Realises every verb of the XML lexicon in every tense, person and
+	 * number, and as participles, and looks the forms up in a lexicon.
+	 */
+	private void checkRealisedForms(Lexicon lexicon) {
+		for (WordElement verb : this.xmlLexicon.getWords(LexicalCategory.VERB, null)) {
+			for (Tense tense : Tense.values()) {
+				for (Person person : Person.values()) {
+					for (NumberAgreement number : new NumberAgreement[] {
+							NumberAgreement.SINGULAR, NumberAgreement.PLURAL }) {
+						InflectedWordElement inflected = new InflectedWordElement(verb);
+						inflected.setFeature(Feature.TENSE, tense);
+						inflected.setFeature(Feature.PERSON, person);
+						inflected.setFeature(Feature.NUMBER, number);
+						checkForm(lexicon, verb, inflected);
+					}
+				}
+			}
+			InflectedWordElement gerund = new InflectedWordElement(verb);
+			gerund.setFeature(Feature.FORM, Form.GERUND);
+			checkForm(lexicon, verb, gerund);
+			InflectedWordElement participle = new InflectedWordElement(verb);
+			participle.setFeature(Feature.FORM, Form.PAST_PARTICIPLE);
+			participle.setFeature(LexicalFeature.GENDER, Gender.FEMININE);
+			participle.setFeature(Feature.NUMBER, NumberAgreement.PLURAL);
+			checkForm(lexicon, verb, participle);
+		}
+	}
+
+	private static void checkForm(Lexicon lexicon, WordElement verb, InflectedWordElement inflected) {
+		String form = inflected.realiseMorphology().getRealisation();
+		Assert.assertTrue(form, lexicon.getWordsFromVariant(form, LexicalCategory.VERB).contains(verb));
+	}
+}
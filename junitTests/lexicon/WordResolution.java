@@ -0,0 +1,112 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell.
+ */
+package lexicon;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import simplenlg.framework.LexicalCategory;
+import simplenlg.framework.WordElement;
+import simplenlg.lexicon.LazyLexicon;
+import simplenlg.lexicon.Lexicon;
+import simplenlg.lexicon.LexiconCompiler;
+import simplenlg.lexicon.MultipleLexicon;
+
+/**
+ * This class tests that resolving a word in a single pass finds the same word
+ * as looking it up by base form, variant and ID in turn.
+ */
+public class WordResolution extends Setup {
+
+	public WordResolution(String name) {
+		super(name);
+	}
+
+	@Test
+	public void testXMLLexicon() {
+		checkResolution(this.xmlLexicon);
+	}
+
+	@Test
+	public void testLazyLexicon() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		LexiconCompiler.compile(this.xmlLexicon, out);
+		checkResolution(new LazyLexicon(ByteBuffer.wrap(out.toByteArray()),
+				LazyLexicon.DEFAULT_CACHE_SIZE));
+	}
+
+	@Test
+	public void testMultipleLexicon() {
+		checkResolution(new MultipleLexicon(this.xmlLexicon));
+	}
+
+	@Test
+	public void testUnknownWord() {
+		Assert.assertNull(this.xmlLexicon.resolveWord("palavrainexistente", LexicalCategory.NOUN));
+		Assert.assertEquals(0, this.xmlLexicon.getUnknownWords().size());
+		Assert.assertFalse(this.xmlLexicon.hasWord("palavrainexistente"));
+		Assert.assertEquals(0, this.xmlLexicon.getUnknownWords().size());
+	}
+
+	/**
+	 * Compares the resolution of base forms, variants and IDs with the lists
+	 * returned by the lexicon.
+	 */
+	private void checkResolution(Lexicon lexicon) {
+		List<String> keys = new ArrayList<String>();
+		for (WordElement word : this.xmlLexicon.getWords(LexicalCategory.ANY, null)) {
+			keys.add(word.getBaseForm());
+			if (word.getId() != null) {
+				keys.add(word.getId());
+			}
+		}
+		keys.add("meninos");
+		keys.add("receitas");
+		keys.add("eles");
+		keys.add("palavrainexistente");
+
+		LexicalCategory[] categories = { LexicalCategory.ANY, LexicalCategory.NOUN,
+				LexicalCategory.VERB, LexicalCategory.PRONOUN };
+		for (String key : keys) {
+			for (LexicalCategory category : categories) {
+				Assert.assertEquals(key + " " + category, expected(lexicon, key, category),
+						lexicon.resolveWord(key, category));
+			}
+			Assert.assertEquals(key, !lexicon.getWords(key).isEmpty(), lexicon.hasWord(key));
+		}
+	}
+
+	private static WordElement expected(Lexicon lexicon, String key, LexicalCategory category) {
+		List<WordElement> words = lexicon.getWords(key, category);
+		if (words.isEmpty()) {
+			words = lexicon.getWordsFromVariant(key, category);
+		}
+		if (words.isEmpty()) {
+			words = lexicon.getWordsByID(key);
+		}
+		return words.isEmpty() ? null : words.get(0);
+	}
+}
@@ -25,6 +25,7 @@ import org.junit.Test;
 
 import simplenlg.features.Feature;
 import simplenlg.features.NumberAgreement;
+import simplenlg.morphology.portuguese.PluralRules;
 
 /**
  * This class tests pluralisation of nouns.
@@ -159,4 +160,18 @@ public class plural extends Setup {
 				// "juízes", realiser.realise(juiz).getRealisation());
 	}
 	
+	@Test
+	public void testPluraliseAppends() throws Exception {
+		PluralRules rules = PluralRules.createPortugueseRules();
+		StringBuilder text = new StringBuilder("os ");
+		rules.pluralise("leão", text);
+		text.append(" e as ");
+		rules.pluralise(new StringBuilder("luz"), text);
+		Assert.assertEquals("os leões e as luzes", text.toString());
+		// the longest suffix wins, exceptions only apply to whole forms
+		Assert.assertEquals("gases", rules.pluralise("gás"));
+		Assert.assertEquals("que", rules.pluralise("que"));
+		Assert.assertEquals("bloques", rules.pluralise("bloque"));
+	}
+	
 }
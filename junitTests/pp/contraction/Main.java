@@ -21,8 +21,13 @@ package pp.contraction;
 
 import junit.framework.Assert;
 
+import java.io.IOException;
+import java.io.StringReader;
+
 import org.junit.Test;
 
+import simplenlg.morphophonology.portuguese.ContractionRules;
+
 // TODO: Repeat tests with plural when plural of NPs is done.
 /**
  * This class tests vowel elision in PPs such as "da" (de + a).
@@ -159,4 +164,31 @@ public class Main extends Setup {
 		Assert.assertEquals("duma mulher", realiser.realise(dePP).getRealisation());
 	}
 
+	@Test
+	public void testContractionTable() {
+		ContractionRules rules = ContractionRules.createPortugueseRules();
+		Assert.assertEquals("daqui", rules.contract("de", "aqui"));
+		Assert.assertEquals("longe do", rules.contract("longe de", "o"));
+		Assert.assertEquals("próximo ao", rules.contract("próximo a", "o"));
+		Assert.assertEquals("pela", rules.contract("por", "a"));
+		Assert.assertNull(rules.contract("desde", "o"));
+		Assert.assertNull(rules.contract("contra", "a"));
+		// "em" and "por" do not end prepositional complexes
+		Assert.assertNull(rules.contract("perto em", "o"));
+	}
+
+	@Test
+	public void testLoadedContractions() throws IOException {
+		ContractionRules rules = new ContractionRules();
+		rules.addRules(new StringReader("# contractions with the plural\n"
+				+ "\n"
+				+ "...a  os  aos\n"
+				+ "...a  as  às\n"
+				+ "por   os  pelos\n"));
+		Assert.assertEquals("aos", rules.contract("a", "os"));
+		Assert.assertEquals("junto às", rules.contract("junto a", "as"));
+		Assert.assertEquals("pelos", rules.contract("por", "os"));
+		Assert.assertNull(rules.contract("por", "as"));
+		Assert.assertNull(rules.contract("de", "os"));
+	}
 }
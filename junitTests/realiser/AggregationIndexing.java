@@ -0,0 +1,118 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell.
+ */
+
+package realiser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import simplenlg.aggregation.AggregationRule;
+import simplenlg.aggregation.BackwardConjunctionReductionRule;
+import simplenlg.aggregation.ClauseCoordinationRule;
+import simplenlg.aggregation.ForwardConjunctionReductionRule;
+import simplenlg.features.Feature;
+import simplenlg.framework.NLGElement;
+import simplenlg.phrasespec.SPhraseSpec;
+
+/**
+ * This class tests that aggregation rules give the same result whether they
+ * try every pair of clauses or only those given by their index.
+ */
+public class AggregationIndexing extends Setup {
+
+	private static final String[] SUBJECTS = { "o menino", "a menina", "o cão" };
+	private static final String[] VERBS = { "comer", "ver", "trazer" };
+	private static final String[] OBJECTS = { "a maçã", "o bolo", null };
+	private static final String[] MODIFIERS = { "ontem", "hoje", null, null };
+
+	public AggregationIndexing(String name) {
+		super(name);
+	}
+
+	/**
+	 * Creates clauses at random, the same ones for the same seed.
+	 */
+	private List<NLGElement> createClauses(long seed) {
+		Random random = new Random(seed);
+		List<NLGElement> clauses = new ArrayList<NLGElement>();
+		int count = 2 + random.nextInt(12);
+		for (int i = 0; i < count; i++) {
+			SPhraseSpec clause = this.phraseFactory.createClause(
+					SUBJECTS[random.nextInt(SUBJECTS.length)],
+					VERBS[random.nextInt(VERBS.length)],
+					OBJECTS[random.nextInt(OBJECTS.length)]);
+			String frontModifier = MODIFIERS[random.nextInt(MODIFIERS.length)];
+			if (frontModifier != null) {
+				clause.addFrontModifier(frontModifier);
+			}
+			String postModifier = MODIFIERS[random.nextInt(MODIFIERS.length)];
+			if (postModifier != null) {
+				clause.addPostModifier(postModifier);
+			}
+			if (random.nextInt(8) == 0) {
+				clause.setFeature(Feature.PASSIVE, true);
+			}
+			if (random.nextInt(8) == 0) {
+				clause.setFeature(Feature.CUE_PHRASE, "então");
+			}
+			clauses.add(clause);
+			if (random.nextInt(6) == 0) {
+				clauses.add(clause);
+			}
+		}
+		return clauses;
+	}
+
+	private List<String> aggregate(AggregationRule rule, long seed, boolean indexing) {
+		rule.setFactory(this.phraseFactory);
+		rule.setIndexing(indexing);
+		List<String> realisations = new ArrayList<String>();
+		for (NLGElement aggregated : rule.apply(createClauses(seed))) {
+			realisations.add(this.realiser.realise(aggregated).getRealisation());
+		}
+		return realisations;
+	}
+
+	private void checkSameResults(AggregationRule rule) {
+		for (long seed = 0; seed < 100; seed++) {
+			Assert.assertEquals("seed " + seed, aggregate(rule, seed, false),
+					aggregate(rule, seed, true));
+		}
+	}
+
+	@Test
+	public void testClauseCoordination() {
+		checkSameResults(new ClauseCoordinationRule());
+	}
+
+	@Test
+	public void testForwardConjunctionReduction() {
+		checkSameResults(new ForwardConjunctionReductionRule());
+	}
+
+	@Test
+	public void testBackwardConjunctionReduction() {
+		checkSameResults(new BackwardConjunctionReductionRule());
+	}
+}
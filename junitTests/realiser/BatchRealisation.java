@@ -0,0 +1,107 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell.
+ */
+package realiser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import simplenlg.features.Feature;
+import simplenlg.features.NumberAgreement;
+import simplenlg.features.Tense;
+import simplenlg.framework.NLGElement;
+import simplenlg.phrasespec.NPPhraseSpec;
+import simplenlg.phrasespec.SPhraseSpec;
+import simplenlg.realiser.RealisationResult;
+
+/**
+ * This class tests the batch realisation of many sentences at once.
+ */
+public class BatchRealisation extends Setup {
+
+	private static final String[] SUBJECTS = { "o menino", "a menina", "eles", "nós" };
+	private static final String[] VERBS = { "trazer", "cantar", "vender", "partir", "fazer" };
+	private static final Tense[] TENSES = { Tense.PRESENT, Tense.PAST, Tense.FUTURE };
+
+	public BatchRealisation(String name) {
+		super(name);
+	}
+
+	private List<NLGElement> createBatch() {
+		List<NLGElement> batch = new ArrayList<NLGElement>();
+		for (String subject : SUBJECTS) {
+			for (String verb : VERBS) {
+				for (Tense tense : TENSES) {
+					NPPhraseSpec object = this.phraseFactory.createNounPhrase("a", "receita");
+					object.setFeature(Feature.NUMBER, NumberAgreement.PLURAL);
+					SPhraseSpec clause = this.phraseFactory.createClause(subject, verb, object);
+					clause.setFeature(Feature.TENSE, tense);
+					batch.add(clause);
+				}
+			}
+		}
+		return batch;
+	}
+
+	private List<String> realiseSequentially(List<NLGElement> batch) {
+		List<String> realisations = new ArrayList<String>();
+		for (NLGElement element : batch) {
+			realisations.add(this.realiser.realiseSentence(element));
+		}
+		return realisations;
+	}
+
+	@Test
+	public void testOrderKept() {
+		List<String> expected = realiseSequentially(createBatch());
+		List<RealisationResult> results = this.realiser.realiseAll(createBatch());
+		Assert.assertEquals(expected.size(), results.size());
+		for (int i = 0; i < results.size(); i++) {
+			Assert.assertTrue(results.get(i).isSuccessful());
+			Assert.assertEquals(expected.get(i), results.get(i).getRealisation());
+		}
+	}
+
+	@Test
+	public void testFailureDoesNotAbortBatch() {
+		List<NLGElement> batch = createBatch();
+		List<String> expected = realiseSequentially(createBatch());
+		batch.set(5, null);
+		List<RealisationResult> results = this.realiser.realiseAll(batch);
+		Assert.assertFalse(results.get(5).isSuccessful());
+		Assert.assertNotNull(results.get(5).getFailure());
+		Assert.assertEquals(expected.get(4), results.get(4).getRealisation());
+		Assert.assertEquals(expected.get(6), results.get(6).getRealisation());
+	}
+
+	@Test
+	public void testParallelStream() {
+		List<String> expected = realiseSequentially(createBatch());
+		List<String> realisations = new ArrayList<String>();
+		for (RealisationResult result : this.realiser.realiseStream(
+				createBatch().parallelStream()).collect(Collectors.<RealisationResult>toList())) {
+			realisations.add(result.getRealisation());
+		}
+		Assert.assertEquals(expected, realisations);
+	}
+}
@@ -0,0 +1,98 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell.
+ */
+
+package realiser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import simplenlg.features.Feature;
+import simplenlg.features.Person;
+import simplenlg.features.Tense;
+import simplenlg.framework.LexicalCategory;
+import simplenlg.framework.WordElement;
+import simplenlg.phrasespec.SPhraseSpec;
+
+/**
+ * This class tests the storage of the features of an element, whether it has
+ * a few features or many.
+ */
+public class ElementFeatures extends Setup {
+
+	public ElementFeatures(String name) {
+		super(name);
+	}
+
+	@Test
+	public void testManyFeatures() {
+		WordElement word = new WordElement("palavra", LexicalCategory.NOUN);
+		List<String> names = new ArrayList<String>();
+		for (int i = 0; i < 40; i++) {
+			names.add("feature" + i);
+			word.setFeature("feature" + i, i);
+		}
+		for (int i = 0; i < 40; i += 3) {
+			word.removeFeature("feature" + i);
+		}
+		for (int i = 0; i < 40; i++) {
+			// names equal to, but not the same as, those set
+			String name = new String("feature" + i);
+			if (i % 3 == 0) {
+				Assert.assertFalse(word.hasFeature(name));
+			} else {
+				Assert.assertEquals(Integer.valueOf(i), word.getFeature(name));
+			}
+		}
+		word.setFeature("feature0", "again");
+		Assert.assertEquals("again", word.getFeatureAsString("feature0"));
+		Assert.assertTrue(word.getAllFeatureNames().containsAll(names.subList(1, 3)));
+		Assert.assertEquals(word.getAllFeatureNames().size(), word.getAllFeatures().size());
+	}
+
+	@Test
+	public void testCanonicalValues() {
+		WordElement word = new WordElement("palavra", LexicalCategory.NOUN);
+		word.setFeature("flag", true);
+		word.setFeature("count", 3);
+		Assert.assertSame(Boolean.TRUE, word.getFeature("flag"));
+		Assert.assertSame(Integer.valueOf(3), word.getFeature("count"));
+	}
+
+	@Test
+	public void testTypedAccessors() {
+		SPhraseSpec clause = this.phraseFactory.createClause("eu", "trazer");
+		clause.setFeature(Feature.TENSE, Tense.PAST);
+		clause.setFeature(Feature.PERSON, Person.FIRST);
+		clause.setFeature(Feature.PASSIVE, true);
+		Assert.assertEquals(Tense.PAST, clause.tense());
+		Assert.assertEquals(Person.FIRST, clause.person());
+		Assert.assertTrue(clause.isPassive());
+		Assert.assertNull(clause.form());
+
+		// values of another type are not returned
+		clause.setFeature(Feature.NUMBER, "plural");
+		Assert.assertNull(clause.number());
+		clause.removeFeature(Feature.TENSE);
+		Assert.assertNull(clause.tense());
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell.
+ */
+
+package realiser;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import simplenlg.features.Feature;
+import simplenlg.features.Tense;
+import simplenlg.features.french.FrenchFeature;
+import simplenlg.framework.NLGElement;
+import simplenlg.phrasespec.NPPhraseSpec;
+import simplenlg.phrasespec.SPhraseSpec;
+
+/**
+ * This class tests that equal elements have the same hash code and
+ * fingerprint, so that they can be kept in hashed collections.
+ */
+public class ElementFingerprint extends Setup {
+
+	public ElementFingerprint(String name) {
+		super(name);
+	}
+
+	private SPhraseSpec createClause(Tense tense) {
+		NPPhraseSpec subject = this.phraseFactory.createNounPhrase("o", "menino");
+		SPhraseSpec clause = this.phraseFactory.createClause(subject, "comer", "maçã");
+		clause.setFeature(Feature.TENSE, tense);
+		return clause;
+	}
+
+	@Test
+	public void testEqualTrees() {
+		SPhraseSpec clause = createClause(Tense.PAST);
+		SPhraseSpec same = createClause(Tense.PAST);
+		Assert.assertEquals(clause, same);
+		Assert.assertEquals(clause.hashCode(), same.hashCode());
+		Assert.assertEquals(clause.fingerprint(), same.fingerprint());
+		Assert.assertEquals(clause.fingerprint(), clause.copyTree().fingerprint());
+
+		SPhraseSpec other = createClause(Tense.FUTURE);
+		Assert.assertFalse(clause.fingerprint() == other.fingerprint());
+
+		Set<NLGElement> clauses = new HashSet<NLGElement>();
+		clauses.add(clause);
+		clauses.add(same);
+		clauses.add(other);
+		Assert.assertEquals(2, clauses.size());
+		Assert.assertTrue(clauses.contains(createClause(Tense.FUTURE)));
+	}
+
+	@Test
+	public void testCycle() {
+		NPPhraseSpec noun = this.phraseFactory.createNounPhrase("o", "menino");
+		SPhraseSpec relative = this.phraseFactory.createClause(noun, "comer");
+		// a relative clause refers to the noun phrase it belongs to
+		relative.setFeature(FrenchFeature.RELATIVE_PHRASE, noun);
+		noun.addPostModifier(relative);
+		Assert.assertEquals(relative.fingerprint(), relative.fingerprint());
+		Assert.assertFalse(noun.fingerprint() == relative.fingerprint());
+	}
+}
@@ -0,0 +1,122 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell.
+ */
+package realiser;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import simplenlg.framework.DocumentElement;
+
+/**
+ * This class tests that a document realised one sentence at a time gives the
+ * same text as when it is realised as a whole, and that the text of each
+ * sentence is written as soon as it is realised.
+ */
+public class IncrementalRealisation extends Setup {
+
+	public IncrementalRealisation(String name) {
+		super(name);
+	}
+
+	/**
+	 * Records the text written up to each flush.
+	 */
+	private static class FlushRecorder implements Appendable, Flushable {
+
+		final StringBuilder text = new StringBuilder();
+
+		final List<String> flushed = new ArrayList<String>();
+
+		@Override
+		public Appendable append(CharSequence csq) {
+			this.text.append(csq);
+			return this;
+		}
+
+		@Override
+		public Appendable append(CharSequence csq, int start, int end) {
+			this.text.append(csq, start, end);
+			return this;
+		}
+
+		@Override
+		public Appendable append(char c) {
+			this.text.append(c);
+			return this;
+		}
+
+		@Override
+		public void flush() {
+			this.flushed.add(this.text.toString());
+		}
+	}
+
+	private DocumentElement createDocument() {
+		DocumentElement document = this.phraseFactory.createDocument("Relatório");
+		for (int s = 0; s < 2; s++) {
+			DocumentElement section = this.phraseFactory.createSection("Seção " + s);
+			DocumentElement paragraph = this.phraseFactory.createParagraph();
+			paragraph.addComponent(this.phraseFactory.createSentence("o menino", "correr"));
+			paragraph.addComponent(this.phraseFactory.createSentence("a menina", "andar"));
+			section.addComponent(paragraph);
+			DocumentElement list = this.phraseFactory.createList();
+			list.addComponent(this.phraseFactory.createListItem(
+					this.phraseFactory.createSentence("o cão", "dormir")));
+			section.addComponent(list);
+			document.addComponent(section);
+		}
+		return document;
+	}
+
+	@Test
+	public void testSameText() throws IOException {
+		String expected = this.realiser.realise(createDocument()).getRealisation();
+		StringBuilder out = new StringBuilder();
+		this.realiser.realiseIncrementally(createDocument(), out);
+		Assert.assertEquals(expected, out.toString());
+	}
+
+	@Test
+	public void testTextWrittenPerSentence() throws IOException {
+		FlushRecorder out = new FlushRecorder();
+		this.realiser.realiseIncrementally(createDocument(), out);
+		// two sentences and a list item in each section
+		Assert.assertEquals(6, out.flushed.size());
+		Assert.assertEquals("Relatório\nSeção 0\nO menino corre.", out.flushed.get(0));
+		Assert.assertEquals("Relatório\nSeção 0\nO menino corre. A menina anda.",
+				out.flushed.get(1));
+	}
+
+	@Test
+	public void testPreservedInput() throws IOException {
+		DocumentElement document = createDocument();
+		this.realiser.setPreserveInput(true);
+		StringBuilder first = new StringBuilder();
+		this.realiser.realiseIncrementally(document, first);
+		StringBuilder second = new StringBuilder();
+		this.realiser.realiseIncrementally(document, second);
+		Assert.assertEquals(first.toString(), second.toString());
+	}
+}
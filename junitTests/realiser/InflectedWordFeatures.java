@@ -0,0 +1,96 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell.
+ */
+
+package realiser;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import simplenlg.features.Feature;
+import simplenlg.features.InternalFeature;
+import simplenlg.features.LexicalFeature;
+import simplenlg.features.NumberAgreement;
+import simplenlg.framework.InflectedWordElement;
+import simplenlg.framework.LexicalCategory;
+import simplenlg.framework.StringElement;
+import simplenlg.framework.WordElement;
+
+/**
+ * This class tests that inflected words see the features of their base word
+ * as they were when created, without changing them.
+ */
+public class InflectedWordFeatures extends Setup {
+
+	public InflectedWordFeatures(String name) {
+		super(name);
+	}
+
+	@Test
+	public void testInheritedFeatures() {
+		WordElement word = this.lexicon.lookupWord("trazer", LexicalCategory.VERB);
+		InflectedWordElement inflected = new InflectedWordElement(word);
+		Map<String, Object> expected = new HashMap<String, Object>(word.getAllFeatures());
+		expected.put(InternalFeature.BASE_WORD, word);
+		expected.put(LexicalFeature.BASE_FORM, word.getDefaultSpellingVariant());
+		Assert.assertEquals(expected, inflected.getAllFeatures());
+		Assert.assertEquals(expected.size(), inflected.getAllFeatureNames().size());
+		Assert.assertEquals("trouxe", inflected.getFeatureAsString("past3s"));
+	}
+
+	@Test
+	public void testLocalChanges() {
+		WordElement word = this.lexicon.lookupWord("trazer", LexicalCategory.VERB);
+		InflectedWordElement inflected = new InflectedWordElement(word);
+		inflected.setFeature(Feature.NUMBER, NumberAgreement.PLURAL);
+		inflected.setFeature("past3s", "trazeu");
+		inflected.removeFeature("past3p");
+
+		Assert.assertEquals(NumberAgreement.PLURAL, inflected.getFeature(Feature.NUMBER));
+		Assert.assertEquals("trazeu", inflected.getFeatureAsString("past3s"));
+		Assert.assertFalse(inflected.hasFeature("past3p"));
+		Assert.assertFalse(inflected.getAllFeatureNames().contains("past3p"));
+		// the base word is unchanged
+		Assert.assertNull(word.getFeature(Feature.NUMBER));
+		Assert.assertEquals("trouxe", word.getFeatureAsString("past3s"));
+		Assert.assertEquals("trouxeram", word.getFeatureAsString("past3p"));
+
+		// a string element built from it has the same features
+		StringElement realised = new StringElement("trouxeram", inflected);
+		Assert.assertEquals("trazeu", realised.getFeatureAsString("past3s"));
+		Assert.assertFalse(realised.hasFeature("past3p"));
+		realised.setFeature("past3s", "trouxe");
+		Assert.assertEquals("trazeu", inflected.getFeatureAsString("past3s"));
+	}
+
+	@Test
+	public void testBaseWordChanged() {
+		WordElement word = new WordElement("cantar", LexicalCategory.VERB, this.lexicon);
+		word.setFeature("present1s", "canto");
+		InflectedWordElement before = new InflectedWordElement(word);
+		word.setFeature("present1s", "cantu");
+		InflectedWordElement after = new InflectedWordElement(word);
+
+		Assert.assertEquals("canto", before.getFeatureAsString("present1s"));
+		Assert.assertEquals("cantu", after.getFeatureAsString("present1s"));
+	}
+}
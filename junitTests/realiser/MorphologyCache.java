@@ -0,0 +1,135 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell.
+ */
+
+package realiser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Test;
+
+import simplenlg.features.Feature;
+import simplenlg.features.NumberAgreement;
+import simplenlg.features.Person;
+import simplenlg.features.Tense;
+import simplenlg.framework.InflectedWordElement;
+import simplenlg.framework.Language;
+import simplenlg.morphology.CachingMorphologyRules;
+import simplenlg.morphology.MorphologyRulesInterface;
+import simplenlg.phrasespec.NPPhraseSpec;
+import simplenlg.phrasespec.SPhraseSpec;
+
+/**
+ * This class tests the cache of inflected forms put in front of the
+ * Portuguese morphology rules.
+ */
+public class MorphologyCache extends Setup {
+
+	private static final String[] SUBJECTS = { "o menino", "a menina", "eles", "nós" };
+	private static final String[] VERBS = { "trazer", "cantar", "estar", "partir", "fazer" };
+	private static final Tense[] TENSES = { Tense.PRESENT, Tense.PAST, Tense.SUBJUNCTIVE_FUTURE };
+
+	private final MorphologyRulesInterface rules =
+			InflectedWordElement.getMorphologyRuleSet(Language.PORTUGUESE);
+
+	public MorphologyCache(String name) {
+		super(name);
+	}
+
+	@Override
+	@After
+	protected void tearDown() {
+		InflectedWordElement.setMorphologyRuleSet(Language.PORTUGUESE, this.rules);
+	}
+
+	private List<String> realiseAll() {
+		List<String> realisations = new ArrayList<String>();
+		for (String subject : SUBJECTS) {
+			for (String verb : VERBS) {
+				for (Tense tense : TENSES) {
+					NPPhraseSpec object = this.phraseFactory.createNounPhrase("a", "receita");
+					object.setFeature(Feature.NUMBER, NumberAgreement.PLURAL);
+					SPhraseSpec clause = this.phraseFactory.createClause(subject, verb, object);
+					clause.setFeature(Feature.TENSE, tense);
+					realisations.add(this.realiser.realiseSentence(clause));
+				}
+			}
+		}
+		return realisations;
+	}
+
+	@Test
+	public void testSameRealisations() {
+		List<String> expected = realiseAll();
+		CachingMorphologyRules cache = new CachingMorphologyRules(this.rules);
+		InflectedWordElement.setMorphologyRuleSet(Language.PORTUGUESE, cache);
+
+		Assert.assertEquals(expected, realiseAll());
+		long misses = cache.getMissCount();
+		Assert.assertTrue(misses > 0);
+		Assert.assertEquals(expected, realiseAll());
+		// the second time, every form is found
+		Assert.assertEquals(misses, cache.getMissCount());
+		Assert.assertTrue(cache.getHitRate() >= 0.5);
+	}
+
+	@Test
+	public void testFeaturesInKey() {
+		CachingMorphologyRules cache = new CachingMorphologyRules(this.rules);
+		InflectedWordElement.setMorphologyRuleSet(Language.PORTUGUESE, cache);
+
+		SPhraseSpec clause = this.phraseFactory.createClause("nós", "cantar");
+		clause.setFeature(Feature.TENSE, Tense.PAST);
+		Assert.assertEquals("Nós cantamos.", this.realiser.realiseSentence(clause));
+		clause.setFeature(Feature.TENSE, Tense.FUTURE);
+		Assert.assertEquals("Nós cantaremos.", this.realiser.realiseSentence(clause));
+		clause.setSubject("eu");
+		clause.setFeature(Feature.PERSON, Person.FIRST);
+		Assert.assertEquals("Eu cantarei.", this.realiser.realiseSentence(clause));
+	}
+
+	@Test
+	public void testOtherRulesRejected() {
+		try {
+			new CachingMorphologyRules(new simplenlg.morphology.english.NonStaticMorphologyRules());
+			Assert.fail("the English rules read features the cache does not key on");
+		} catch (IllegalArgumentException expected) {
+			// the cache only knows the features read by the Portuguese rules
+		}
+	}
+
+	@Test
+	public void testCapacity() {
+		CachingMorphologyRules cache = new CachingMorphologyRules(this.rules, 4);
+		InflectedWordElement.setMorphologyRuleSet(Language.PORTUGUESE, cache);
+
+		realiseAll();
+		Assert.assertEquals(4, cache.size());
+		Assert.assertTrue(cache.getEvictionCount() > 0);
+		cache.setCapacity(1);
+		Assert.assertEquals(1, cache.size());
+		cache.clear();
+		Assert.assertEquals(0, cache.size());
+		Assert.assertEquals(0, cache.getHitCount());
+		Assert.assertEquals(0.0, cache.getHitRate());
+	}
+}
@@ -0,0 +1,122 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell.
+ */
+package realiser;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import simplenlg.features.Feature;
+import simplenlg.features.InterrogativeType;
+import simplenlg.features.NumberAgreement;
+import simplenlg.features.Tense;
+import simplenlg.framework.LexicalCategory;
+import simplenlg.phrasespec.AdjPhraseSpec;
+import simplenlg.phrasespec.NPPhraseSpec;
+import simplenlg.phrasespec.SPhraseSpec;
+
+/**
+ * This class tests that realisation in preserve-input mode leaves the input
+ * tree unchanged, so that it can be realised again.
+ */
+public class PreserveInput extends Setup {
+
+	public PreserveInput(String name) {
+		super(name);
+	}
+
+	private SPhraseSpec createQuestion() {
+		NPPhraseSpec subject = this.phraseFactory.createNounPhrase("o", "menino");
+		NPPhraseSpec object = this.phraseFactory.createNounPhrase("a", "receita");
+		object.setFeature(Feature.NUMBER, NumberAgreement.PLURAL);
+		SPhraseSpec clause = this.phraseFactory.createClause(subject, "trazer", object);
+		clause.setFeature(Feature.TENSE, Tense.PAST);
+		clause.setFeature(Feature.INTERROGATIVE_TYPE, InterrogativeType.YES_NO);
+		return clause;
+	}
+
+	@Test
+	public void testInputUnchanged() {
+		SPhraseSpec clause = createQuestion();
+		String before = clause.printTree(null);
+		this.realiser.setPreserveInput(true);
+		this.realiser.realiseSentence(clause);
+		Assert.assertEquals(before, clause.printTree(null));
+		Assert.assertNull(clause.getParent());
+	}
+
+	@Test
+	public void testSharedWordUnchanged() {
+		// both phrases use the same word of the lexicon
+		AdjPhraseSpec comparative = this.phraseFactory.createAdjectivePhrase("bom");
+		comparative.setFeature(Feature.IS_COMPARATIVE, true);
+		SPhraseSpec clause = this.phraseFactory.createClause(
+				this.phraseFactory.createNounPhrase("o", "menino"), "ser",
+				this.phraseFactory.createAdjectivePhrase("bom"));
+		this.realiser.setPreserveInput(true);
+
+		String first = this.realiser.realiseSentence(clause);
+		this.realiser.realiseSentence(comparative);
+		Assert.assertEquals(first, this.realiser.realiseSentence(clause));
+		Assert.assertFalse(this.lexicon.getWord("bom", LexicalCategory.ADJECTIVE)
+				.hasFeature(Feature.IS_COMPARATIVE));
+	}
+
+	@Test
+	public void testRepeatedRealisation() {
+		SPhraseSpec clause = createQuestion();
+		this.realiser.setPreserveInput(true);
+		String first = this.realiser.realiseSentence(clause);
+		Assert.assertEquals(first, this.realiser.realiseSentence(clause));
+		Assert.assertEquals(this.realiser.realise(clause).getRealisation(),
+				this.realiser.realise(clause).getRealisation());
+	}
+
+	@Test
+	public void testConcurrentRealisation() throws InterruptedException {
+		final SPhraseSpec clause = createQuestion();
+		this.realiser.setPreserveInput(true);
+		final String expected = this.realiser.realiseSentence(clause);
+		final String[] results = new String[8];
+		Thread[] threads = new Thread[results.length];
+		for (int i = 0; i < threads.length; i++) {
+			final int index = i;
+			threads[i] = new Thread() {
+				@Override
+				public void run() {
+					for (int j = 0; j < 50; j++) {
+						String result = realiser.realiseSentence(clause);
+						if (!expected.equals(result)) {
+							results[index] = result;
+							return;
+						}
+					}
+					results[index] = expected;
+				}
+			};
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		for (String result : results) {
+			Assert.assertEquals(expected, result);
+		}
+	}
+}
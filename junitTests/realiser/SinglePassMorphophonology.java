@@ -0,0 +1,66 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell.
+ */
+package realiser;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import simplenlg.framework.CoordinatedPhraseElement;
+import simplenlg.phrasespec.NPPhraseSpec;
+import simplenlg.phrasespec.PPPhraseSpec;
+import simplenlg.phrasespec.SPhraseSpec;
+
+/**
+ * This class tests that the morphophonology done in one pass gives the same
+ * text as the recursive one.
+ */
+public class SinglePassMorphophonology extends Setup {
+
+	public SinglePassMorphophonology(String name) {
+		super(name);
+	}
+
+	private SPhraseSpec createClause() {
+		CoordinatedPhraseElement places = this.phraseFactory.createCoordinatedPhrase();
+		String[] prepositions = {"de", "em", "a", "por", "longe de", "desde"};
+		String[] nouns = {"casa", "parque", "escola", "rio", "cidade", "mercado"};
+		for (int i = 0; i < prepositions.length; i++) {
+			String determiner = i % 2 == 0 ? "a" : "o";
+			NPPhraseSpec place = this.phraseFactory.createNounPhrase(determiner, nouns[i]);
+			PPPhraseSpec pp = this.phraseFactory.createPrepositionPhrase(prepositions[i], place);
+			places.addCoordinate(pp);
+		}
+		SPhraseSpec clause = this.phraseFactory.createClause("o menino", "falar");
+		clause.addComplement(places);
+		return clause;
+	}
+
+	@Test
+	public void testSameRealisation() {
+		this.realiser.setSinglePassMorphophonology(false);
+		String recursive = this.realiser.realiseSentence(createClause());
+		this.realiser.setSinglePassMorphophonology(true);
+		String singlePass = this.realiser.realiseSentence(createClause());
+		Assert.assertEquals(recursive, singlePass);
+		Assert.assertTrue(singlePass, singlePass.contains("da casa"));
+		Assert.assertTrue(singlePass, singlePass.contains("longe da cidade"));
+		Assert.assertTrue(singlePass, singlePass.contains("desde o mercado"));
+	}
+}
@@ -0,0 +1,77 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell.
+ */
+package realiser;
+
+import java.io.StringWriter;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import simplenlg.format.english.StreamingTextFormatter;
+import simplenlg.framework.DocumentElement;
+
+/**
+ * This class tests that the streaming formatter writes the same text as the
+ * text formatter.
+ */
+public class StreamingFormatter extends Setup {
+
+	public StreamingFormatter(String name) {
+		super(name);
+	}
+
+	private DocumentElement createDocument() {
+		DocumentElement document = this.phraseFactory.createDocument("Relatório");
+		for (int s = 0; s < 3; s++) {
+			DocumentElement section = this.phraseFactory.createSection("Seção " + s);
+			DocumentElement paragraph = this.phraseFactory.createParagraph();
+			paragraph.addComponent(this.phraseFactory.createSentence("o menino", "correr"));
+			paragraph.addComponent(this.phraseFactory.createSentence("a menina", "andar"));
+			section.addComponent(paragraph);
+			DocumentElement list = this.phraseFactory.createList();
+			list.addComponent(this.phraseFactory.createListItem(
+					this.phraseFactory.createSentence("o cão", "dormir")));
+			list.addComponent(this.phraseFactory.createListItem(
+					this.phraseFactory.createSentence("o gato", "comer")));
+			section.addComponent(list);
+			document.addComponent(section);
+		}
+		return document;
+	}
+
+	@Test
+	public void testSameText() {
+		String expected = this.realiser.realise(createDocument()).getRealisation();
+		StringWriter out = new StringWriter();
+		this.realiser.setFormatter(new StreamingTextFormatter(out));
+		this.realiser.realise(createDocument());
+		Assert.assertEquals(expected, out.toString());
+		Assert.assertTrue(expected, expected.startsWith("Relatório\nSeção 0\nO menino corre."));
+	}
+
+	@Test
+	public void testTextFollowsOn() {
+		StringWriter out = new StringWriter();
+		this.realiser.setFormatter(new StreamingTextFormatter(out));
+		this.realiser.realise(this.phraseFactory.createSentence("o menino", "correr"));
+		this.realiser.realise(this.phraseFactory.createSentence("a menina", "andar"));
+		Assert.assertEquals("O menino corre.A menina anda.", out.toString());
+	}
+}
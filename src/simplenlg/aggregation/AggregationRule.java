@@ -19,7 +19,11 @@
 package simplenlg.aggregation;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
 import simplenlg.framework.CoordinatedPhraseElement;
 import simplenlg.framework.NLGElement;
@@ -40,6 +44,9 @@ public abstract class AggregationRule {
 
 	protected NLGFactory factory;
 
+	// whether apply(List) only tries the pairs given by the index
+	private boolean indexing = true;
+
 	/**
 	 * Creates a new instance of AggregationRule
 	 */
@@ -79,7 +86,9 @@ public abstract class AggregationRule {
 	/**
 	 * Performs aggregation on an arbitrary number of elements in a list. This
 	 * method calls {{@link #apply(NLGElement, NLGElement)} on all pairs of
-	 * elements in the list, recursively aggregating whenever it can.
+	 * elements in the list, recursively aggregating whenever it can. Unless
+	 * indexing is turned off, pairs that the index of the rule leaves out are
+	 * not tried, which gives the same result.
 	 * 
 	 * @param phrases
 	 *            the sentences
@@ -92,7 +101,9 @@ public abstract class AggregationRule {
 		List<NLGElement> results  = new ArrayList<NLGElement>();;
 		
 		if (phrases.size() >= 2) {
-			List<NLGElement> removed = new ArrayList<NLGElement>();
+			CandidateIndex index = this.indexing ? createCandidateIndex(phrases)
+					: new CandidateIndex(phrases);
+			RemovedPhrases removed = new RemovedPhrases(phrases);
 
 			for (int i = 0; i < phrases.size(); i++) {
 				NLGElement current = phrases.get(i);
@@ -101,7 +112,8 @@ public abstract class AggregationRule {
 					continue;
 				}
 
-				for (int j = i + 1; j < phrases.size(); j++) {
+				for (int j = index.nextCandidate(current, i); j >= 0; j = index
+						.nextCandidate(current, j)) {
 					NLGElement next = phrases.get(j);
 					NLGElement aggregated = apply(current, next);
 
@@ -121,6 +133,68 @@ public abstract class AggregationRule {
 		return results;
 	}
 
+	/**
+	 * Creates the index telling which phrases may be aggregated by this rule.
+	 * Rules override this method to leave out the pairs they would not
+	 * aggregate; by default, every pair is tried.
+	 * 
+	 * @param phrases
+	 *            the phrases being aggregated
+	 * @return the index of the phrases
+	 */
+	protected CandidateIndex createCandidateIndex(List<NLGElement> phrases) {
+		return new CandidateIndex(phrases);
+	}
+
+	/**
+	 * Sets whether {@link #apply(List)} only tries the pairs given by the index
+	 * of the rule, which is the default, or every pair of phrases.
+	 * 
+	 * @param indexing
+	 *            <code>false</code> to try every pair
+	 */
+	public void setIndexing(boolean indexing) {
+		this.indexing = indexing;
+	}
+
+	/**
+	 * @return <code>true</code> if {@link #apply(List)} only tries the pairs
+	 *         given by the index of the rule
+	 */
+	public boolean isIndexing() {
+		return this.indexing;
+	}
+
+	/**
+	 * The phrases aggregated so far by {@link #apply(List)}. A phrase equal to
+	 * one of them is not aggregated again. Phrases are looked up by identity
+	 * when no two phrases of the list were equal to begin with, as is usual,
+	 * and compared one by one otherwise.
+	 */
+	private static class RemovedPhrases {
+
+		private final List<NLGElement> removed = new ArrayList<NLGElement>();
+
+		private final Set<NLGElement> removedIdentities = Collections
+				.newSetFromMap(new IdentityHashMap<NLGElement, Boolean>());
+
+		private final boolean duplicates;
+
+		RemovedPhrases(List<NLGElement> phrases) {
+			this.duplicates = new HashSet<NLGElement>(phrases).size() < phrases.size();
+		}
+
+		void add(NLGElement phrase) {
+			this.removed.add(phrase);
+			this.removedIdentities.add(phrase);
+		}
+
+		boolean contains(NLGElement phrase) {
+			return this.removedIdentities.contains(phrase)
+					|| (this.duplicates && this.removed.contains(phrase));
+		}
+	}
+
 	/**
 	 * Perform aggregation on a single phrase. This method only works on a
 	 * {@link simplenlg.framework.CoordinatedPhraseElement}, in which case it
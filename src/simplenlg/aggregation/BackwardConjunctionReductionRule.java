@@ -101,4 +101,13 @@ public class BackwardConjunctionReductionRule extends AggregationRule {
 				: null;
 	}
 
+	/**
+	 * Indexes the clauses by the heads of the constituents in their right
+	 * periphery.
+	 */
+	@Override
+	protected CandidateIndex createCandidateIndex(List<NLGElement> phrases) {
+		return new PeripheryCandidateIndex(phrases, false);
+	}
+
 }
@@ -0,0 +1,111 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Pierre-Luc Vaudry.
+ */
+package simplenlg.aggregation;
+
+import java.util.List;
+
+import simplenlg.framework.NLGElement;
+
+/**
+ * <p>
+ * This class tells {@link AggregationRule#apply(List)} which of the phrases
+ * following a phrase it may be aggregated with, so that the rule is only
+ * applied to those pairs. This base class gives every following phrase, so
+ * that every pair is tried.
+ * </p>
+ * 
+ * <p>
+ * An index given by a rule may leave out a phrase only if applying the rule
+ * to the pair would return <code>null</code> without changing either phrase;
+ * the result of the aggregation is then the same as when every pair is
+ * tried. Rules usually index the phrases by the parts that must be identical
+ * for the rule to succeed.
+ * </p>
+ * 
+ * @author R. de Oliveira
+ */
+public class CandidateIndex {
+
+	/** The phrases being aggregated. */
+	protected final List<NLGElement> phrases;
+
+	/**
+	 * Creates an index giving every following phrase.
+	 * 
+	 * @param phrases
+	 *            the phrases being aggregated
+	 */
+	public CandidateIndex(List<NLGElement> phrases) {
+		this.phrases = phrases;
+	}
+
+	/**
+	 * Gives the next phrase that a phrase may be aggregated with.
+	 * 
+	 * @param current
+	 *            the phrase being aggregated, which is either one of the
+	 *            phrases or the result of aggregating some of them
+	 * @param after
+	 *            the position of the last phrase tried
+	 * @return the position of the first phrase after <code>after</code> that
+	 *         <code>current</code> may be aggregated with, or -1 if there is
+	 *         none
+	 */
+	public int nextCandidate(NLGElement current, int after) {
+		return after + 1 < this.phrases.size() ? after + 1 : -1;
+	}
+
+	/**
+	 * Finds the first position greater than some position in a sorted array
+	 * of positions.
+	 * 
+	 * @param positions
+	 *            the positions, in increasing order
+	 * @param after
+	 *            the position
+	 * @return the first position greater than <code>after</code>, or -1 if
+	 *         there is none
+	 */
+	protected static int firstAfter(int[] positions, int after) {
+		int low = 0;
+		int high = positions.length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (positions[middle] <= after) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low < positions.length ? positions[low] : -1;
+	}
+
+	/**
+	 * @param positions
+	 *            a list of positions
+	 * @return the positions as an array
+	 */
+	protected static int[] toArray(List<Integer> positions) {
+		int[] array = new int[positions.size()];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = positions.get(i).intValue();
+		}
+		return array;
+	}
+}
@@ -18,14 +18,19 @@
  */
 package simplenlg.aggregation;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import simplenlg.features.Feature;
 import simplenlg.features.InternalFeature;
+import simplenlg.features.LexicalFeature;
 import simplenlg.framework.CoordinatedPhraseElement;
 import simplenlg.framework.NLGElement;
 import simplenlg.framework.PhraseCategory;
 import simplenlg.lexicon.Lexicon;
+import simplenlg.phrasespec.SPhraseSpec;
 
 /**
  * Implementation of a clausal coordination rule. The rule performs the
@@ -191,4 +196,83 @@ public class ClauseCoordinationRule extends AggregationRule {
 
 		return aggregated;
 	}
+
+	/**
+	 * Indexes the clauses by their front modifiers, cue phrase and
+	 * postmodifiers, which are identical in all the clauses this rule
+	 * aggregates.
+	 */
+	@Override
+	protected CandidateIndex createCandidateIndex(List<NLGElement> phrases) {
+		return new CoordinationIndex(phrases);
+	}
+
+	/**
+	 * @return <code>true</code> if the phrase is a clause that is not passive
+	 */
+	private static boolean isActiveClause(NLGElement phrase) {
+		return phrase.getCategory() == PhraseCategory.CLAUSE
+				&& PhraseChecker.nonePassive(phrase);
+	}
+
+	/**
+	 * @return the parts of a clause compared by
+	 *         {@link PhraseChecker#sameFrontMods(NLGElement...)} and
+	 *         {@link PhraseChecker#samePostMods(NLGElement...)}
+	 */
+	private static List<Object> getPeripheryKey(NLGElement phrase) {
+		List<Object> key = new ArrayList<Object>(3);
+		key.add(phrase.getFeatureAsElementList(InternalFeature.FRONT_MODIFIERS));
+		key.add(phrase.hasFeature(Feature.CUE_PHRASE) ? phrase
+				.getFeatureAsElementList(Feature.CUE_PHRASE) : null);
+		key.add(phrase.getFeatureAsElementList(InternalFeature.POSTMODIFIERS));
+		return key;
+	}
+
+	/**
+	 * Gives the active clauses with the same front modifiers, cue phrase and
+	 * postmodifiers as the current clause. Clauses with an expletive subject
+	 * are only aggregated as the current clause, so they are left out.
+	 */
+	private static class CoordinationIndex extends CandidateIndex {
+
+		private final Map<List<Object>, int[]> positions = new HashMap<List<Object>, int[]>();
+
+		// the last clause given and its candidates, as a clause is given
+		// once for each of its candidates
+		private NLGElement current = null;
+		private int[] currentPositions = null;
+
+		CoordinationIndex(List<NLGElement> phrases) {
+			super(phrases);
+			Map<List<Object>, List<Integer>> lists = new HashMap<List<Object>, List<Integer>>();
+			for (int i = 0; i < phrases.size(); i++) {
+				NLGElement phrase = phrases.get(i);
+				if (isActiveClause(phrase) && !(phrase instanceof SPhraseSpec && phrase
+						.getFeatureAsBoolean(LexicalFeature.EXPLETIVE_SUBJECT))) {
+					List<Object> key = getPeripheryKey(phrase);
+					List<Integer> list = lists.get(key);
+					if (list == null) {
+						list = new ArrayList<Integer>();
+						lists.put(key, list);
+					}
+					list.add(Integer.valueOf(i));
+				}
+			}
+			for (Map.Entry<List<Object>, List<Integer>> entry : lists.entrySet()) {
+				this.positions.put(entry.getKey(), toArray(entry.getValue()));
+			}
+		}
+
+		@Override
+		public int nextCandidate(NLGElement current, int after) {
+			if (current != this.current) {
+				this.current = current;
+				this.currentPositions = isActiveClause(current) ? this.positions
+						.get(getPeripheryKey(current)) : null;
+			}
+			return this.currentPositions == null ? -1 : firstAfter(
+					this.currentPositions, after);
+		}
+	}
 }
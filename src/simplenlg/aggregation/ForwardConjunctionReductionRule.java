@@ -114,4 +114,13 @@ public class ForwardConjunctionReductionRule extends AggregationRule {
 				: null;
 	}
 
+	/**
+	 * Indexes the clauses by the heads of the constituents in their left
+	 * periphery.
+	 */
+	@Override
+	protected CandidateIndex createCandidateIndex(List<NLGElement> phrases) {
+		return new PeripheryCandidateIndex(phrases, true);
+	}
+
 }
@@ -0,0 +1,238 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Pierre-Luc Vaudry.
+ */
+package simplenlg.aggregation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import simplenlg.features.InternalFeature;
+import simplenlg.framework.NLGElement;
+import simplenlg.framework.PhraseCategory;
+
+/**
+ * <p>
+ * This class indexes clauses by the heads of the constituents in their left
+ * or right periphery, for the {@link ForwardConjunctionReductionRule} and the
+ * {@link BackwardConjunctionReductionRule}. These rules succeed on two active
+ * clauses when, for some function in the periphery, the constituents of both
+ * clauses together are lemma-identical, as checked by
+ * {@link PhraseSet#lemmaIdentical()}: either only one of the clauses has such
+ * constituents, all with the same head, or both do and all have the same
+ * head.
+ * </p>
+ * 
+ * <p>
+ * For each function, a clause is indexed as having no constituent, as having
+ * constituents with the same head, under that head, or as having different
+ * heads, in which case it never succeeds through that function. A clause with
+ * a constituent without a head is given for every clause and is given every
+ * clause, since comparing its heads may fail.
+ * </p>
+ * 
+ * @author R. de Oliveira
+ */
+class PeripheryCandidateIndex extends CandidateIndex {
+
+	// the states of a function in a clause, other than having the same head
+	private static final Object NO_CONSTITUENT = new Object();
+	private static final Object DIFFERENT_HEADS = new Object();
+	private static final Object MISSING_HEAD = new Object();
+
+	private final boolean leftPeriphery;
+
+	// by function: the clauses without constituents, the clauses with the
+	// same head, and those clauses by head
+	private final int[][] withoutConstituents;
+	private final int[][] withSameHeads;
+	private final List<Map<NLGElement, int[]>> byHead;
+
+	// the clauses with a missing head, and all the active clauses
+	private final int[] withMissingHeads;
+	private final int[] activeClauses;
+
+	// the last clause given and its candidates, as a clause is given once
+	// for each of its candidates
+	private NLGElement current = null;
+	private int[][] currentPositions = null;
+
+	/**
+	 * Creates the index of some phrases.
+	 * 
+	 * @param phrases
+	 *            the phrases being aggregated
+	 * @param leftPeriphery
+	 *            <code>true</code> to index the left periphery, as defined by
+	 *            {@link PhraseChecker#leftPeriphery(NLGElement...)},
+	 *            <code>false</code> to index the right periphery
+	 */
+	PeripheryCandidateIndex(List<NLGElement> phrases, boolean leftPeriphery) {
+		super(phrases);
+		this.leftPeriphery = leftPeriphery;
+
+		List<List<Integer>> without = new ArrayList<List<Integer>>();
+		List<List<Integer>> same = new ArrayList<List<Integer>>();
+		List<Map<NLGElement, List<Integer>>> heads = new ArrayList<Map<NLGElement, List<Integer>>>();
+		List<Integer> missing = new ArrayList<Integer>();
+		List<Integer> active = new ArrayList<Integer>();
+
+		for (int i = 0; i < phrases.size(); i++) {
+			Object[] states = getStates(phrases.get(i));
+			if (states == null) {
+				continue;
+			}
+			Integer position = Integer.valueOf(i);
+			active.add(position);
+			boolean missingHead = false;
+			for (int function = 0; function < states.length; function++) {
+				if (function == without.size()) {
+					without.add(new ArrayList<Integer>());
+					same.add(new ArrayList<Integer>());
+					heads.add(new HashMap<NLGElement, List<Integer>>());
+				}
+				Object state = states[function];
+				if (state == NO_CONSTITUENT) {
+					without.get(function).add(position);
+				} else if (state == MISSING_HEAD) {
+					missingHead = true;
+				} else if (state != DIFFERENT_HEADS) {
+					same.get(function).add(position);
+					List<Integer> list = heads.get(function).get(state);
+					if (list == null) {
+						list = new ArrayList<Integer>();
+						heads.get(function).put((NLGElement) state, list);
+					}
+					list.add(position);
+				}
+			}
+			if (missingHead) {
+				missing.add(position);
+			}
+		}
+
+		this.withoutConstituents = new int[without.size()][];
+		this.withSameHeads = new int[without.size()][];
+		this.byHead = new ArrayList<Map<NLGElement, int[]>>(without.size());
+		for (int function = 0; function < without.size(); function++) {
+			this.withoutConstituents[function] = toArray(without.get(function));
+			this.withSameHeads[function] = toArray(same.get(function));
+			Map<NLGElement, int[]> positions = new HashMap<NLGElement, int[]>();
+			for (Map.Entry<NLGElement, List<Integer>> entry : heads.get(function).entrySet()) {
+				positions.put(entry.getKey(), toArray(entry.getValue()));
+			}
+			this.byHead.add(positions);
+		}
+		this.withMissingHeads = toArray(missing);
+		this.activeClauses = toArray(active);
+	}
+
+	@Override
+	public int nextCandidate(NLGElement current, int after) {
+		if (current != this.current) {
+			this.current = current;
+			this.currentPositions = getCandidates(current);
+		}
+		int next = -1;
+		for (int[] positions : this.currentPositions) {
+			int candidate = firstAfter(positions, after);
+			if (candidate >= 0 && (next < 0 || candidate < next)) {
+				next = candidate;
+			}
+		}
+		return next;
+	}
+
+	/**
+	 * @return the arrays of positions of the candidates of a phrase
+	 */
+	private int[][] getCandidates(NLGElement phrase) {
+		Object[] states = getStates(phrase);
+		if (states == null) {
+			return new int[0][];
+		}
+		for (Object state : states) {
+			if (state == MISSING_HEAD) {
+				return new int[][] { this.activeClauses };
+			}
+		}
+
+		List<int[]> candidates = new ArrayList<int[]>();
+		candidates.add(this.withMissingHeads);
+		for (int function = 0; function < states.length
+				&& function < this.withoutConstituents.length; function++) {
+			Object state = states[function];
+			if (state == NO_CONSTITUENT) {
+				candidates.add(this.withSameHeads[function]);
+			} else if (state != DIFFERENT_HEADS) {
+				candidates.add(this.withoutConstituents[function]);
+				int[] sameHead = this.byHead.get(function).get(state);
+				if (sameHead != null) {
+					candidates.add(sameHead);
+				}
+			}
+		}
+		return candidates.toArray(new int[candidates.size()][]);
+	}
+
+	/**
+	 * Finds the state of each function of the periphery of a phrase: no
+	 * constituent, different heads, a missing head, or else the head of all
+	 * its constituents.
+	 * 
+	 * @return the states, or <code>null</code> if the phrase is not an active
+	 *         clause
+	 */
+	private Object[] getStates(NLGElement phrase) {
+		if (phrase.getCategory() != PhraseCategory.CLAUSE
+				|| !PhraseChecker.nonePassive(phrase)) {
+			return null;
+		}
+		List<PhraseSet> periphery = this.leftPeriphery ? PhraseChecker
+				.leftPeriphery(phrase) : PhraseChecker.rightPeriphery(phrase);
+		Object[] states = new Object[periphery.size()];
+		for (int function = 0; function < states.length; function++) {
+			states[function] = getState(periphery.get(function).getPhrases());
+		}
+		return states;
+	}
+
+	/**
+	 * @return the state of the constituents of a clause having a function
+	 */
+	private static Object getState(List<NLGElement> constituents) {
+		if (constituents.isEmpty()) {
+			return NO_CONSTITUENT;
+		}
+		NLGElement head = null;
+		Object state = null;
+		for (NLGElement constituent : constituents) {
+			NLGElement eachHead = constituent == null ? null : constituent
+					.getFeatureAsElement(InternalFeature.HEAD);
+			if (eachHead == null) {
+				return MISSING_HEAD;
+			} else if (head == null) {
+				head = eachHead;
+			} else if (state == null && !(head == eachHead || head.equals(eachHead))) {
+				state = DIFFERENT_HEADS;
+			}
+		}
+		return state == null ? head : state;
+	}
+}
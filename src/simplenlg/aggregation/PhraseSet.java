@@ -75,6 +75,13 @@ public class PhraseSet {
 		this.phrases.addAll(phrases);
 	}
 
+	/**
+	 * @return the phrases, in order
+	 */
+	List<NLGElement> getPhrases() {
+		return this.phrases;
+	}
+
 	/**
 	 * 
 	 * @return the function the pair of phrases have in their respective clauses
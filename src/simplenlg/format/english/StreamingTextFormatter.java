@@ -0,0 +1,120 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Pierre-Luc Vaudry.
+ */
+package simplenlg.format.english;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import simplenlg.framework.NLGElement;
+
+/**
+ * <p>
+ * This formatter writes the same text as <code>TextFormatter</code>, but to
+ * an <code>Appendable</code> given by the caller, such as a
+ * <code>Writer</code>, rather than returning it. The text of a document is
+ * written as its tree is traversed, and is never held in memory as a whole,
+ * which suits long generated reports.
+ * </p>
+ * 
+ * <p>
+ * It is used like any other formatter:
+ * </p>
+ * 
+ * <pre>
+ * Writer out = new BufferedWriter(new FileWriter(&quot;report.txt&quot;));
+ * realiser.setFormatter(new StreamingTextFormatter(out));
+ * realiser.realise(document);
+ * out.close();
+ * </pre>
+ * 
+ * <p>
+ * Since the text is written rather than returned, <code>realise()</code>
+ * returns the element it was given. Text realised by several calls follows on
+ * in the order of the calls, so a realiser with this formatter should be used
+ * by one thread at a time. The output is neither flushed nor closed by the
+ * formatter. An <code>IOException</code> of the output is thrown again as an
+ * <code>UncheckedIOException</code>.
+ * </p>
+ * 
+ * @author R. de Oliveira
+ */
+public class StreamingTextFormatter extends TextFormatter {
+
+	// where the text is written
+	private final Appendable out;
+
+	/**
+	 * Creates a formatter writing to some output.
+	 * 
+	 * @param out
+	 *            where the text is written.
+	 */
+	public StreamingTextFormatter(Appendable out) {
+		if (out == null) {
+			throw new IllegalArgumentException("no output to write the text to");
+		}
+		this.out = out;
+	}
+
+	/**
+	 * @return where the text is written
+	 */
+	public Appendable getOutput() {
+		return this.out;
+	}
+
+	/**
+	 * Writes the formatted text of an element to the output.
+	 * 
+	 * @param element
+	 *            the element to format, which may be <code>null</code>.
+	 * @return the element given.
+	 * @throws UncheckedIOException
+	 *             if the text cannot be written.
+	 */
+	@Override
+	public NLGElement realise(NLGElement element) {
+		try {
+			realise(element, this.out);
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		return element;
+	}
+
+	/**
+	 * Writes the formatted text of each element to the output, in order.
+	 * 
+	 * @param elements
+	 *            the elements to format.
+	 * @return the elements given.
+	 * @throws UncheckedIOException
+	 *             if the text cannot be written.
+	 */
+	@Override
+	public List<NLGElement> realise(List<NLGElement> elements) {
+		if (elements != null) {
+			for (NLGElement eachElement : elements) {
+				realise(eachElement);
+			}
+		}
+		return elements;
+	}
+}
@@ -18,7 +18,9 @@
  */
 package simplenlg.format.english;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import simplenlg.framework.DocumentCategory;
@@ -54,9 +56,29 @@ public class TextFormatter extends NLGModule {
 
 	@Override
 	public NLGElement realise(NLGElement element) {
-		NLGElement realisedComponent = null;
-		StringBuffer realisation = new StringBuffer();
-		
+		StringBuilder realisation = new StringBuilder();
+		try {
+			realise(element, realisation);
+		} catch (IOException ex) {
+			// a StringBuilder does not throw it
+			throw new IllegalStateException(ex);
+		}
+		return new StringElement(realisation.toString());
+	}
+
+	/**
+	 * Writes the formatted text of an element. The text of the whole tree is
+	 * written in one traversal, each part as it is reached, instead of being
+	 * built for each node and copied into the text of its parent.
+	 * 
+	 * @param element
+	 *            the element to format, which may be <code>null</code>.
+	 * @param out
+	 *            where the text is written.
+	 * @throws IOException
+	 *             if the text cannot be written.
+	 */
+	public void realise(NLGElement element, Appendable out) throws IOException {
 		if (element != null) {
 			ElementCategory category = element.getCategory();
 			List<NLGElement> components = element.getChildren();
@@ -65,7 +87,7 @@ public class TextFormatter extends NLGModule {
 			
 			// check if this is a canned text first
 			if (element instanceof StringElement) {
-				realisation.append(element.getRealisation());
+				out.append(element.getRealisation());
 
 			} else if (category instanceof DocumentCategory) {
 				// && element instanceof DocumentElement
@@ -80,56 +102,48 @@ public class TextFormatter extends NLGModule {
 				case SECTION:
 				case LIST:
 					if (title != null) {
-						realisation.append(title).append('\n');
+						out.append(title).append('\n');
 					}
 					for (NLGElement eachComponent : components) {
-						realisedComponent = realise(eachComponent);
-						if (realisedComponent != null) {
-							realisation.append(realisedComponent
-									.getRealisation());
+						for (NLGElement prepared : prepareComponent(eachComponent)) {
+							realise(prepared, out);
 						}
 					}
 					break;
 
 				case PARAGRAPH:
-					if (null != components && 0 < components.size()) {
-						realisedComponent = realise(components.get(0));
-						if (realisedComponent != null) {
-							realisation.append(realisedComponent
-									.getRealisation());
-						}
-						for (int i = 1; i < components.size(); i++) {
-							if (realisedComponent != null) {
-								realisation.append(' ');
-							}
-							realisedComponent = realise(components.get(i));
-							if (realisedComponent != null) {
-								realisation.append(realisedComponent
-										.getRealisation());
+					if (null != components) {
+						boolean first = true;
+						for (NLGElement eachComponent : components) {
+							for (NLGElement prepared : prepareComponent(eachComponent)) {
+								if (!first) {
+									out.append(' ');
+								}
+								realise(prepared, out);
+								first = false;
 							}
 						}
 					}
-					realisation.append("\n\n");
+					out.append("\n\n");
 					break;
 
 				case SENTENCE:
-					realisation.append(element.getRealisation());
+					out.append(element.getRealisation());
 					break;
 
 				case LIST_ITEM:
 					// cch fix
 					//realisation.append(" * ").append(element.getRealisation()); //$NON-NLS-1$
-					realisation.append(" * "); //$NON-NLS-1$
+					out.append(" * "); //$NON-NLS-1$
 
 					for (NLGElement eachComponent : components) {
-						realisedComponent = realise(eachComponent);
-						if (realisedComponent != null) {
-							realisation.append(realisedComponent
-									.getRealisation()).append(' ');							
+						for (NLGElement prepared : prepareComponent(eachComponent)) {
+							realise(prepared, out);
+							out.append(' ');
 						}
 					}
 					//finally, append newline
-					realisation.append("\n");
+					out.append("\n");
 					break;
 				}
 
@@ -137,16 +151,29 @@ public class TextFormatter extends NLGModule {
 				// have embedded lists post-orthography)
 			} else if (element instanceof ListElement) {
 				for (NLGElement eachComponent : components) {
-					realisedComponent = realise(eachComponent);
-					if (realisedComponent != null) {
-						realisation.append(realisedComponent.getRealisation()).append(' ');
+					for (NLGElement prepared : prepareComponent(eachComponent)) {
+						realise(prepared, out);
+						out.append(' ');
 					}
 				}
 
 			}
 		}
-		
-		return new StringElement(realisation.toString());
+	}
+
+	/**
+	 * Returns the elements to format in place of a component of a document
+	 * element or list, just before they are formatted. By default this is
+	 * the component itself; a subclass may realise the component only at
+	 * this point, so that its text is written as soon as it is ready, and
+	 * return what it was realised as, which may be several elements or none.
+	 * 
+	 * @param component
+	 *            the component about to be formatted.
+	 * @return the elements formatted instead, in order.
+	 */
+	protected List<NLGElement> prepareComponent(NLGElement component) {
+		return Collections.singletonList(component);
 	}
 
 	@Override
@@ -0,0 +1,346 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Pierre-Luc Vaudry.
+ */
+
+package simplenlg.framework;
+
+import java.lang.reflect.Array;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * This class is a map of bounded size which evicts its least recently used
+ * entries, as used by the caches of words and forms of SimpleNLG. The size is
+ * measured by weight: every entry weighs 1 unless <code>weigh()</code> is
+ * overridden, in which case the capacity bounds the total weight of the
+ * entries rather than their number.
+ * </p>
+ *
+ * <p>
+ * The entries are spread over segments by the hash of their keys, each with
+ * its own lock, order of use and share of the capacity, so that threads using
+ * different segments do not wait for each other. A cache whose capacity is
+ * too small to be split has a single segment; otherwise the entry evicted is
+ * the least recently used of its segment rather than of the whole cache.
+ * Every lookup still locks its segment, since it changes the order of use, so
+ * the class is not meant for a few keys read from many threads on the hot
+ * path of realisation; a concurrent map suits those better.
+ * </p>
+ *
+ * <p>
+ * The cache counts its hits, misses and evictions, so that its size and hit
+ * rate can be monitored. All methods may be called from several threads.
+ * </p>
+ *
+ * @author R. de Oliveira
+ */
+public class BoundedCache<K, V> {
+
+	/** Largest number of segments of a cache. */
+	static final int MAX_SEGMENTS = 16;
+
+	/** Smallest share of the capacity given to each segment. */
+	static final int MIN_SEGMENT_CAPACITY = 64;
+
+	// replaced as a whole when the capacity changes the number of segments
+	private volatile Segment[] segments;
+
+	private volatile int capacity;
+
+	/**
+	 * Creates an empty cache.
+	 *
+	 * @param capacity
+	 *            the largest total weight of the entries kept
+	 */
+	public BoundedCache(int capacity) {
+		setCapacity(capacity);
+	}
+
+	/**
+	 * Returns the weight of an entry. Override it to bound the cache by
+	 * something other than its number of entries.
+	 *
+	 * @param value
+	 *            the value of the entry
+	 * @return the weight of the entry, 1 by default
+	 */
+	protected int weigh(V value) {
+		return 1;
+	}
+
+	/**
+	 * @return the segment holding a key
+	 */
+	private Segment segmentFor(K key) {
+		return segmentFor(this.segments, key);
+	}
+
+	private static <S> S segmentFor(S[] segments, Object key) {
+		int hash = key == null ? 0 : key.hashCode();
+		hash ^= hash >>> 16;
+		return segments[hash & (segments.length - 1)];
+	}
+
+	/**
+	 * @return the number of segments for a capacity, a power of 2
+	 */
+	private static int segmentCount(int capacity) {
+		int count = 1;
+		while (count < MAX_SEGMENTS && capacity / (count * 2) >= MIN_SEGMENT_CAPACITY) {
+			count *= 2;
+		}
+		return count;
+	}
+
+	/**
+	 * Looks for the value of a key, counting a hit or a miss.
+	 *
+	 * @param key
+	 *            the key
+	 * @return the value kept for the key, or <code>null</code> if there is none
+	 */
+	public V get(K key) {
+		return segmentFor(key).get(key);
+	}
+
+	/**
+	 * Tells if a key has a value, without counting a hit or a miss nor
+	 * changing the order of eviction.
+	 *
+	 * @param key
+	 *            the key
+	 * @return <code>true</code> if the cache keeps a value for the key
+	 */
+	public boolean containsKey(K key) {
+		Segment segment = segmentFor(key);
+		synchronized (segment) {
+			return segment.entries.containsKey(key);
+		}
+	}
+
+	/**
+	 * Keeps the value of a key, evicting the least recently used entries if
+	 * the capacity is exceeded.
+	 *
+	 * @param key
+	 *            the key
+	 * @param value
+	 *            the value, which must not be <code>null</code>
+	 */
+	public void put(K key, V value) {
+		segmentFor(key).put(key, value);
+	}
+
+	/**
+	 * Sets the largest total weight of the entries kept, evicting the least
+	 * recently used entries if there are more. If the new capacity calls for
+	 * another number of segments, the entries are moved to new segments; an
+	 * entry kept by another thread during the move may be lost.
+	 *
+	 * @param capacity
+	 *            the new capacity, 0 to keep no entry
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized void setCapacity(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("negative capacity: " + capacity);
+		}
+		int count = segmentCount(capacity);
+		Segment[] current = this.segments;
+		if (current == null || current.length != count) {
+			Segment[] split = (Segment[]) Array.newInstance(Segment.class, count);
+			for (int i = 0; i < count; i++) {
+				split[i] = new Segment();
+				split[i].capacity = Integer.MAX_VALUE;
+			}
+			if (current != null) {
+				for (Segment segment : current) {
+					synchronized (segment) {
+						// least recently used first, so the order of use is kept
+						for (Map.Entry<K, V> entry : segment.entries.entrySet()) {
+							segmentFor(split, entry.getKey()).put(entry.getKey(), entry.getValue());
+						}
+						split[0].hits += segment.hits;
+						split[0].misses += segment.misses;
+						split[0].evictions += segment.evictions;
+					}
+				}
+			}
+			current = split;
+		}
+		for (int i = 0; i < count; i++) {
+			current[i].setCapacity(capacity / count + (i < capacity % count ? 1 : 0));
+		}
+		this.capacity = capacity;
+		this.segments = current;
+	}
+
+	/**
+	 * @return the largest total weight of the entries kept
+	 */
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * @return the total weight of the entries currently kept
+	 */
+	public int getWeight() {
+		int weight = 0;
+		for (Segment segment : this.segments) {
+			synchronized (segment) {
+				weight += segment.weight;
+			}
+		}
+		return weight;
+	}
+
+	/**
+	 * @return the number of entries currently kept
+	 */
+	public int size() {
+		int size = 0;
+		for (Segment segment : this.segments) {
+			synchronized (segment) {
+				size += segment.entries.size();
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * @return the number of lookups that found their value
+	 */
+	public long getHitCount() {
+		long hits = 0;
+		for (Segment segment : this.segments) {
+			synchronized (segment) {
+				hits += segment.hits;
+			}
+		}
+		return hits;
+	}
+
+	/**
+	 * @return the number of lookups that did not find their value
+	 */
+	public long getMissCount() {
+		long misses = 0;
+		for (Segment segment : this.segments) {
+			synchronized (segment) {
+				misses += segment.misses;
+			}
+		}
+		return misses;
+	}
+
+	/**
+	 * @return the number of entries evicted to respect the capacity
+	 */
+	public long getEvictionCount() {
+		long evictions = 0;
+		for (Segment segment : this.segments) {
+			synchronized (segment) {
+				evictions += segment.evictions;
+			}
+		}
+		return evictions;
+	}
+
+	/**
+	 * @return the proportion of lookups that found their value, or 0 if there
+	 *         were none
+	 */
+	public double getHitRate() {
+		long hits = getHitCount();
+		long lookups = hits + getMissCount();
+		return lookups == 0 ? 0.0 : (double) hits / lookups;
+	}
+
+	/**
+	 * Removes all the entries and resets the counts.
+	 */
+	public void clear() {
+		for (Segment segment : this.segments) {
+			synchronized (segment) {
+				segment.entries.clear();
+				segment.weight = 0;
+				segment.hits = 0;
+				segment.misses = 0;
+				segment.evictions = 0;
+			}
+		}
+	}
+
+	/**
+	 * Part of the entries, with its own lock and order of use. All fields are
+	 * guarded by the segment.
+	 */
+	private final class Segment {
+
+		private int capacity;
+		private int weight = 0;
+
+		private long hits = 0;
+		private long misses = 0;
+		private long evictions = 0;
+
+		// the entries, least recently used first
+		final LinkedHashMap<K, V> entries = new LinkedHashMap<K, V>(16, 0.75f, true);
+
+		synchronized V get(K key) {
+			V value = this.entries.get(key);
+			if (value != null) {
+				this.hits++;
+			} else {
+				this.misses++;
+			}
+			return value;
+		}
+
+		synchronized void put(K key, V value) {
+			V previous = this.entries.put(key, value);
+			if (previous != null) {
+				this.weight -= weigh(previous);
+			}
+			this.weight += weigh(value);
+			evict();
+		}
+
+		synchronized void setCapacity(int capacity) {
+			this.capacity = capacity;
+			evict();
+		}
+
+		/**
+		 * Evicts the least recently used entries until the weight is within
+		 * the capacity of the segment.
+		 */
+		private void evict() {
+			Iterator<Map.Entry<K, V>> eldest = this.entries.entrySet().iterator();
+			while (this.weight > this.capacity && eldest.hasNext()) {
+				this.weight -= weigh(eldest.next().getValue());
+				eldest.remove();
+				this.evictions++;
+			}
+		}
+	}
+}
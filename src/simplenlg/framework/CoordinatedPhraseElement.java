@@ -20,6 +20,7 @@
 package simplenlg.framework;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
@@ -59,7 +60,7 @@ import simplenlg.framework.LexicalCategory;
 public class CoordinatedPhraseElement extends NLGElement {
 
 	// added by vaudrypl
-	private static Map<Language, AbstractCoordinatedPhraseHelper> coordinatedPhraseHelpers = null; 
+	private static final Map<Language, AbstractCoordinatedPhraseHelper> coordinatedPhraseHelpers = createCoordinatedPhraseHelpers();
 	
 	// not used anymore, commented out by vaudrypl
 //	/** Coordinators which make the coordinate plural (eg, "and" but not "or")*/
@@ -162,7 +163,7 @@ public class CoordinatedPhraseElement extends NLGElement {
 	
 	/**
 	 * This static method returns the coordinated phrase helper corresponding to
-	 * a particular language and instantiates it if necessary.
+	 * a particular language.
 	 * 
 	 * @param language
 	 * @return the coordinated phrase helper to be used to do the syntax of this language
@@ -171,30 +172,21 @@ public class CoordinatedPhraseElement extends NLGElement {
 	 */
 	public static AbstractCoordinatedPhraseHelper getCoordinatedPhraseHelper(Language language)
 	{
-		if (coordinatedPhraseHelpers == null) {
-			coordinatedPhraseHelpers =
-				new EnumMap<Language,AbstractCoordinatedPhraseHelper>(Language.class); 
-		}
-		AbstractCoordinatedPhraseHelper coordinatedPhraseHelper =
-			coordinatedPhraseHelpers.get(language);
-		if (coordinatedPhraseHelper == null) {
-			switch (language) {
-			case ENGLISH:
-				coordinatedPhraseHelper =
-					new simplenlg.syntax.english.nonstatic.CoordinatedPhraseHelper();
-				break;
-			case FRENCH:
-				coordinatedPhraseHelper =
-					new simplenlg.syntax.french.CoordinatedPhraseHelper();
-				break;
-			case PORTUGUESE:
-				coordinatedPhraseHelper =
-					new simplenlg.syntax.portuguese.CoordinatedPhraseHelper();
-				break;
-			}
-			coordinatedPhraseHelpers.put(language, coordinatedPhraseHelper);
-		}
-		return coordinatedPhraseHelper;
+		return coordinatedPhraseHelpers.get(language);
+	}
+
+	/**
+	 * Builds the coordinated phrase helper of every language once, when the class is loaded.
+	 * 
+	 * @return an unmodifiable map from each language to its AbstractCoordinatedPhraseHelper
+	 */
+	private static Map<Language, AbstractCoordinatedPhraseHelper> createCoordinatedPhraseHelpers() {
+		Map<Language, AbstractCoordinatedPhraseHelper> registry =
+			new EnumMap<Language, AbstractCoordinatedPhraseHelper>(Language.class);
+		registry.put(Language.ENGLISH, new simplenlg.syntax.english.nonstatic.CoordinatedPhraseHelper());
+		registry.put(Language.FRENCH, new simplenlg.syntax.french.CoordinatedPhraseHelper());
+		registry.put(Language.PORTUGUESE, new simplenlg.syntax.portuguese.CoordinatedPhraseHelper());
+		return Collections.unmodifiableMap(registry);
 	}
 
 	/**
@@ -0,0 +1,385 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Pierre-Luc Vaudry.
+ */
+
+package simplenlg.framework;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * <p>
+ * This class stores the features of an element in a few arrays rather than in
+ * a <code>HashMap</code>, which needs an entry object per feature. Feature
+ * names, values and the hash codes of the names are kept side by side in the
+ * order the features were first set. Names are compared by identity before
+ * being compared by value: they are nearly always the constants of
+ * <code>Feature</code>, <code>LexicalFeature</code> and the like, or names
+ * interned by the lexicon, so a lookup usually costs one comparison of
+ * references per feature.
+ * </p>
+ *
+ * <p>
+ * Most elements have a handful of features, which are searched in order. A
+ * map holding more than <code>LINEAR_LIMIT</code> features, such as the entry
+ * of an irregular verb, also keeps an open-addressing table of their
+ * positions. An empty map allocates no arrays.
+ * </p>
+ *
+ * <p>
+ * Iteration follows the order in which the features were first set. The map
+ * is not thread-safe, like the <code>HashMap</code> it replaces.
+ * </p>
+ *
+ * @author R. de Oliveira
+ */
+class FeatureMap extends AbstractMap<String, Object> {
+
+	/** Largest number of features searched without a table. */
+	static final int LINEAR_LIMIT = 8;
+
+	private static final String[] NO_NAMES = new String[0];
+	private static final Object[] NO_VALUES = new Object[0];
+	private static final int[] NO_HASHES = new int[0];
+
+	private String[] names = NO_NAMES;
+	private Object[] values = NO_VALUES;
+	private int[] hashes = NO_HASHES;
+	private int size = 0;
+
+	// positions plus one of the features by hash, 0 for an empty slot; null
+	// while the map is small
+	private int[] table = null;
+
+	// number of changes to the names, for the iterators
+	private int modifications = 0;
+
+	// number of changes to the names or the values
+	private int version = 0;
+
+	/**
+	 * Creates an empty map.
+	 */
+	FeatureMap() {
+		// the arrays are allocated when the first feature is set
+	}
+
+	/**
+	 * Creates a map having the features of another map.
+	 *
+	 * @param features
+	 *            the features copied
+	 */
+	FeatureMap(Map<String, Object> features) {
+		ensureCapacity(features.size());
+		for (Map.Entry<String, Object> entry : features.entrySet()) {
+			put(entry.getKey(), entry.getValue());
+		}
+	}
+
+	/**
+	 * @return the hash code used for a feature name
+	 */
+	private static int hash(Object name) {
+		return name == null ? 0 : name.hashCode();
+	}
+
+	/**
+	 * @return the position of a feature, or -1 if it is not in the map
+	 */
+	private int indexOf(Object name) {
+		int hash = hash(name);
+		if (this.table == null) {
+			for (int i = 0; i < this.size; i++) {
+				Object each = this.names[i];
+				if (each == name || (this.hashes[i] == hash && name != null && name.equals(each))) {
+					return i;
+				}
+			}
+		} else {
+			int mask = this.table.length - 1;
+			for (int slot = hash & mask; this.table[slot] != 0; slot = (slot + 1) & mask) {
+				int i = this.table[slot] - 1;
+				Object each = this.names[i];
+				if (each == name || (this.hashes[i] == hash && name != null && name.equals(each))) {
+					return i;
+				}
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public Object get(Object name) {
+		int i = indexOf(name);
+		return i < 0 ? null : this.values[i];
+	}
+
+	@Override
+	public boolean containsKey(Object name) {
+		return indexOf(name) >= 0;
+	}
+
+	@Override
+	public Object put(String name, Object value) {
+		int i = indexOf(name);
+		if (i >= 0) {
+			Object previous = this.values[i];
+			this.values[i] = value;
+			this.version++;
+			return previous;
+		}
+		ensureCapacity(this.size + 1);
+		this.names[this.size] = name;
+		this.values[this.size] = value;
+		this.hashes[this.size] = hash(name);
+		this.size++;
+		this.modifications++;
+		this.version++;
+		if (this.table != null) {
+			insert(this.size - 1);
+		} else if (this.size > LINEAR_LIMIT) {
+			rebuildTable();
+		}
+		return null;
+	}
+
+	@Override
+	public Object remove(Object name) {
+		int i = indexOf(name);
+		if (i < 0) {
+			return null;
+		}
+		Object previous = this.values[i];
+		removeAt(i);
+		return previous;
+	}
+
+	/**
+	 * Removes the feature at a position, keeping the order of the others.
+	 */
+	private void removeAt(int i) {
+		int moved = this.size - i - 1;
+		System.arraycopy(this.names, i + 1, this.names, i, moved);
+		System.arraycopy(this.values, i + 1, this.values, i, moved);
+		System.arraycopy(this.hashes, i + 1, this.hashes, i, moved);
+		this.size--;
+		this.names[this.size] = null;
+		this.values[this.size] = null;
+		this.modifications++;
+		this.version++;
+		if (this.table != null) {
+			rebuildTable();
+		}
+	}
+
+	@Override
+	public void clear() {
+		this.names = NO_NAMES;
+		this.values = NO_VALUES;
+		this.hashes = NO_HASHES;
+		this.size = 0;
+		this.table = null;
+		this.modifications++;
+		this.version++;
+	}
+
+	@Override
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Tells whether the map changed, however the change was made: the number
+	 * returned is different after any feature is set, changed or removed.
+	 *
+	 * @return the number of changes made to the map
+	 */
+	int getVersion() {
+		return this.version;
+	}
+
+	/**
+	 * Grows the arrays so that they hold at least some number of features.
+	 */
+	private void ensureCapacity(int capacity) {
+		if (capacity > this.names.length) {
+			int length = Math.max(capacity, this.names.length < 4 ? 4 : this.names.length * 2);
+			String[] names = new String[length];
+			Object[] values = new Object[length];
+			int[] hashes = new int[length];
+			System.arraycopy(this.names, 0, names, 0, this.size);
+			System.arraycopy(this.values, 0, values, 0, this.size);
+			System.arraycopy(this.hashes, 0, hashes, 0, this.size);
+			this.names = names;
+			this.values = values;
+			this.hashes = hashes;
+			if (this.table != null && this.table.length < 2 * length) {
+				rebuildTable();
+			}
+		}
+	}
+
+	/**
+	 * Makes the table again, or drops it if the map is small enough.
+	 */
+	private void rebuildTable() {
+		if (this.size <= LINEAR_LIMIT) {
+			this.table = null;
+			return;
+		}
+		int length = Integer.highestOneBit(Math.max(this.names.length, this.size) * 2 - 1) << 1;
+		this.table = new int[length];
+		for (int i = 0; i < this.size; i++) {
+			insert(i);
+		}
+	}
+
+	/**
+	 * Puts the position of a feature in the table.
+	 */
+	private void insert(int i) {
+		int mask = this.table.length - 1;
+		int slot = this.hashes[i] & mask;
+		while (this.table[slot] != 0) {
+			slot = (slot + 1) & mask;
+		}
+		this.table[slot] = i + 1;
+	}
+
+	@Override
+	public Set<Map.Entry<String, Object>> entrySet() {
+		return new AbstractSet<Map.Entry<String, Object>>() {
+
+			@Override
+			public Iterator<Map.Entry<String, Object>> iterator() {
+				return new EntryIterator();
+			}
+
+			@Override
+			public int size() {
+				return FeatureMap.this.size;
+			}
+
+			@Override
+			public void clear() {
+				FeatureMap.this.clear();
+			}
+		};
+	}
+
+	/**
+	 * Iterates over the features in the order they were set.
+	 */
+	private class EntryIterator implements Iterator<Map.Entry<String, Object>> {
+
+		private int next = 0;
+		private int last = -1;
+		private int expectedModifications = FeatureMap.this.modifications;
+
+		@Override
+		public boolean hasNext() {
+			return this.next < FeatureMap.this.size;
+		}
+
+		@Override
+		public Map.Entry<String, Object> next() {
+			if (this.expectedModifications != FeatureMap.this.modifications) {
+				throw new ConcurrentModificationException();
+			}
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			this.last = this.next++;
+			return new Entry(this.last);
+		}
+
+		@Override
+		public void remove() {
+			if (this.last < 0) {
+				throw new IllegalStateException();
+			}
+			if (this.expectedModifications != FeatureMap.this.modifications) {
+				throw new ConcurrentModificationException();
+			}
+			removeAt(this.last);
+			this.next = this.last;
+			this.last = -1;
+			this.expectedModifications = FeatureMap.this.modifications;
+		}
+	}
+
+	/**
+	 * A feature of the map, whose value can be changed.
+	 */
+	private class Entry implements Map.Entry<String, Object> {
+
+		private final String name;
+		private final int index;
+
+		Entry(int index) {
+			this.name = FeatureMap.this.names[index];
+			this.index = index;
+		}
+
+		@Override
+		public String getKey() {
+			return this.name;
+		}
+
+		@Override
+		public Object getValue() {
+			return FeatureMap.this.values[this.index];
+		}
+
+		@Override
+		public Object setValue(Object value) {
+			Object previous = FeatureMap.this.values[this.index];
+			FeatureMap.this.values[this.index] = value;
+			FeatureMap.this.version++;
+			return previous;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Map.Entry<?, ?>)) {
+				return false;
+			}
+			Map.Entry<?, ?> other = (Map.Entry<?, ?>) o;
+			Object value = getValue();
+			return (this.name == null ? other.getKey() == null : this.name.equals(other.getKey()))
+					&& (value == null ? other.getValue() == null : value.equals(other.getValue()));
+		}
+
+		@Override
+		public int hashCode() {
+			Object value = getValue();
+			return hash(this.name) ^ (value == null ? 0 : value.hashCode());
+		}
+
+		@Override
+		public String toString() {
+			return this.name + "=" + getValue();
+		}
+	}
+}
@@ -0,0 +1,225 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Pierre-Luc Vaudry.
+ */
+
+package simplenlg.framework;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * <p>
+ * This class holds the features of an element that starts with the features
+ * of another, as an <code>InflectedWordElement</code> starts with those of its
+ * base word. The inherited features are read from a map that is shared and
+ * never modified; only the features set or removed afterwards are stored in
+ * the overlay, so that creating it copies nothing.
+ * </p>
+ *
+ * <p>
+ * The overlay behaves as any other map of the features. Its entries may not
+ * be changed through <code>Map.Entry.setValue()</code>, and its views do not
+ * support removal; features are changed through the map itself.
+ * </p>
+ *
+ * @author R. de Oliveira
+ */
+class FeatureOverlay extends AbstractMap<String, Object> {
+
+	// the inherited features, never modified
+	private Map<String, Object> inherited;
+
+	// the features set since, which hide the inherited ones
+	private final FeatureMap local;
+
+	// the inherited features removed since, or null if there are none
+	private Set<String> removed = null;
+
+	// number of changes made to the overlay
+	private int version = 0;
+
+	/**
+	 * Creates an overlay having the inherited features.
+	 *
+	 * @param inherited
+	 *            an unmodifiable map, which must not change afterwards
+	 */
+	FeatureOverlay(Map<String, Object> inherited) {
+		this.inherited = inherited;
+		this.local = new FeatureMap();
+	}
+
+	/**
+	 * Creates an overlay having the same features as another, and sharing its
+	 * inherited features.
+	 *
+	 * @param other
+	 *            the overlay copied
+	 */
+	FeatureOverlay(FeatureOverlay other) {
+		this.inherited = other.inherited;
+		this.local = new FeatureMap(other.local);
+		if (other.removed != null) {
+			this.removed = new HashSet<String>(other.removed);
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if an inherited feature is visible
+	 */
+	private boolean isInherited(Object featureName) {
+		return !this.local.containsKey(featureName)
+				&& (this.removed == null || !this.removed.contains(featureName))
+				&& this.inherited.containsKey(featureName);
+	}
+
+	@Override
+	public Object get(Object featureName) {
+		Object value = this.local.get(featureName);
+		if (value == null && isInherited(featureName)) {
+			value = this.inherited.get(featureName);
+		}
+		return value;
+	}
+
+	@Override
+	public boolean containsKey(Object featureName) {
+		return this.local.containsKey(featureName) || isInherited(featureName);
+	}
+
+	@Override
+	public Object put(String featureName, Object value) {
+		Object previous = get(featureName);
+		this.version++;
+		this.local.put(featureName, value);
+		if (this.removed != null) {
+			this.removed.remove(featureName);
+		}
+		return previous;
+	}
+
+	@Override
+	public Object remove(Object featureName) {
+		Object previous = get(featureName);
+		this.version++;
+		this.local.remove(featureName);
+		if (featureName instanceof String && this.inherited.containsKey(featureName)) {
+			if (this.removed == null) {
+				this.removed = new HashSet<String>();
+			}
+			this.removed.add((String) featureName);
+		}
+		return previous;
+	}
+
+	@Override
+	public void clear() {
+		this.version++;
+		this.local.clear();
+		this.inherited = Collections.emptyMap();
+		this.removed = null;
+	}
+
+	/**
+	 * @return the number of changes made to the overlay, which differs after
+	 *         any feature is set or removed
+	 */
+	int getVersion() {
+		return this.version;
+	}
+
+	@Override
+	public int size() {
+		int size = this.local.size();
+		for (String featureName : this.inherited.keySet()) {
+			if (isInherited(featureName)) {
+				size++;
+			}
+		}
+		return size;
+	}
+
+	@Override
+	public Set<Map.Entry<String, Object>> entrySet() {
+		return new AbstractSet<Map.Entry<String, Object>>() {
+
+			@Override
+			public Iterator<Map.Entry<String, Object>> iterator() {
+				return new EntryIterator();
+			}
+
+			@Override
+			public int size() {
+				return FeatureOverlay.this.size();
+			}
+		};
+	}
+
+	/**
+	 * Iterates over the local features, then over the visible inherited ones.
+	 */
+	private class EntryIterator implements Iterator<Map.Entry<String, Object>> {
+
+		private final Iterator<Map.Entry<String, Object>> localEntries =
+				FeatureOverlay.this.local.entrySet().iterator();
+
+		private final Iterator<Map.Entry<String, Object>> inheritedEntries =
+				FeatureOverlay.this.inherited.entrySet().iterator();
+
+		// the next inherited entry to return, if already found
+		private Map.Entry<String, Object> next = null;
+
+		@Override
+		public boolean hasNext() {
+			if (this.localEntries.hasNext()) {
+				return true;
+			}
+			while (this.next == null && this.inheritedEntries.hasNext()) {
+				Map.Entry<String, Object> entry = this.inheritedEntries.next();
+				if (isInherited(entry.getKey())) {
+					this.next = entry;
+				}
+			}
+			return this.next != null;
+		}
+
+		@Override
+		public Map.Entry<String, Object> next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			if (this.localEntries.hasNext()) {
+				return new SimpleImmutableEntry<String, Object>(this.localEntries.next());
+			}
+			Map.Entry<String, Object> entry = this.next;
+			this.next = null;
+			return entry;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException("remove the feature from the element instead");
+		}
+	}
+}
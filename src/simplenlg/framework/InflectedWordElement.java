@@ -19,6 +19,7 @@
 
 package simplenlg.framework;
 
+import java.util.Collections;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
@@ -46,7 +47,8 @@ public class InflectedWordElement extends NLGElement {
 	
 	// Morphology rule sets used by realiseMorphology() to inflect the word
 	// instantiated by getMorphologyRuleSet(Language language)
-	private static Map<Language, MorphologyRulesInterface> morphologyRuleSets = null; 
+	// replaced as a whole by setMorphologyRuleSet()
+	private static volatile Map<Language, MorphologyRulesInterface> morphologyRuleSets = createMorphologyRuleSets();
 
 	/**
 	 * Constructs a new inflected word using the giving word as the base form.
@@ -75,10 +77,9 @@ public class InflectedWordElement extends NLGElement {
 		// vaudrypl added null test
 		if (word != null) {
 			//the inflected word inherits all features from the base word
-			// (moved from WordElement.realiseSyntax())
-			for(String feature : word.getAllFeatureNames()) {
-				setFeature(feature, word.getFeature(feature));
-			}
+			// (moved from WordElement.realiseSyntax()), reading them from
+			// the base word's shared snapshot rather than copying them
+			this.features = new FeatureOverlay(word.getFeatureSnapshot());
 			
 			setFeature(InternalFeature.BASE_WORD, word);
 			// AG: changed to use the default spelling variant
@@ -126,7 +127,7 @@ public class InflectedWordElement extends NLGElement {
 	
 	/**
 	 * This static method returns the morphology rule set corresponding to
-	 * a particular language and instantiates it if necessary.
+	 * a particular language.
 	 * 
 	 * @param language
 	 * @return the morphology rule set to be used for this language
@@ -135,26 +136,41 @@ public class InflectedWordElement extends NLGElement {
 	 */
 	public static MorphologyRulesInterface getMorphologyRuleSet(Language language)
 	{
-		if (morphologyRuleSets == null) {
-			morphologyRuleSets =
-				new EnumMap<Language,MorphologyRulesInterface>(Language.class); 
-		}
-		MorphologyRulesInterface ruleSet = morphologyRuleSets.get(language);
-		if (ruleSet == null) {
-			switch (language) {
-			case ENGLISH:
-				ruleSet = new simplenlg.morphology.english.NonStaticMorphologyRules();
-				break;
-			case FRENCH:
-				ruleSet = new simplenlg.morphology.french.MorphologyRules();
-				break;
-			case PORTUGUESE:
-				ruleSet = new simplenlg.morphology.portuguese.MorphologyRules();
-				break;
-			}
-			morphologyRuleSets.put(language, ruleSet);
-		}
-		return ruleSet;
+		return morphologyRuleSets.get(language);
+	}
+
+	/**
+	 * Replaces the morphology rule set of a language, for instance by a
+	 * <code>CachingMorphologyRules</code> in front of the current one. Words
+	 * inflected afterwards use the new rule set.
+	 * 
+	 * @param language
+	 * @param ruleSet
+	 *            the morphology rule set to be used for this language
+	 */
+	public static synchronized void setMorphologyRuleSet(Language language,
+			MorphologyRulesInterface ruleSet)
+	{
+		Map<Language, MorphologyRulesInterface> registry =
+			new EnumMap<Language, MorphologyRulesInterface>(morphologyRuleSets);
+		registry.put(language, ruleSet);
+		morphologyRuleSets = Collections.unmodifiableMap(registry);
+	}
+
+	/**
+	 * Builds the morphology rule set of every language once, when the class is loaded.
+	 * The map is never modified afterwards, but replaced by a new one when
+	 * <code>setMorphologyRuleSet()</code> is called, with one instance per language.
+	 * 
+	 * @return an unmodifiable map from each language to its MorphologyRulesInterface
+	 */
+	private static Map<Language, MorphologyRulesInterface> createMorphologyRuleSets() {
+		Map<Language, MorphologyRulesInterface> registry =
+			new EnumMap<Language, MorphologyRulesInterface>(Language.class);
+		registry.put(Language.ENGLISH, new simplenlg.morphology.english.NonStaticMorphologyRules());
+		registry.put(Language.FRENCH, new simplenlg.morphology.french.MorphologyRules());
+		registry.put(Language.PORTUGUESE, new simplenlg.morphology.portuguese.MorphologyRules());
+		return Collections.unmodifiableMap(registry);
 	}
 
 	/**
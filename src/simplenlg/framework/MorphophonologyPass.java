@@ -0,0 +1,118 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Pierre-Luc Vaudry.
+ */
+
+package simplenlg.framework;
+
+import java.util.List;
+
+/**
+ * <p>
+ * This class does the morphophonology of a realised tree in one pass. The
+ * morphophonology of an element applies the rules to each pair of adjacent
+ * children, between the rightmost <code>StringElement</code> of one and the
+ * leftmost of the other, and finding these walks down the children again for
+ * every pair. Here the tree is walked once: its <code>StringElement</code>s
+ * are put in an array in the order of the text, and each pair of neighbours
+ * the rules apply to is recorded as the position of its left element. The
+ * rules are then applied by going once through these positions.
+ * </p>
+ *
+ * <p>
+ * The pairs are the same, and come in the same order, as those of
+ * <code>NLGElement.realiseMorphophonology()</code>: the pairs inside a child
+ * come before the pair joining it to the previous child, and two
+ * <code>StringElement</code>s are not a pair when a child without any
+ * <code>StringElement</code> separates them.
+ * </p>
+ *
+ * @author R. de Oliveira
+ */
+final class MorphophonologyPass {
+
+	// the StringElements of the tree, in the order of the text
+	private StringElement[] strings = new StringElement[16];
+	private int size = 0;
+
+	// the positions of the left elements of the pairs, in the order the rules
+	// are applied to them
+	private int[] pairs = new int[16];
+	private int pairCount = 0;
+
+	private MorphophonologyPass() {
+		// created by realise()
+	}
+
+	/**
+	 * Does the morphophonology of a tree.
+	 *
+	 * @param root
+	 *            the root of the realised tree.
+	 */
+	static void realise(NLGElement root) {
+		MorphophonologyPass pass = new MorphophonologyPass();
+		pass.collect(root);
+		for (int i = 0; i < pass.pairCount; i++) {
+			int left = pass.pairs[i];
+			pass.strings[left].realiseMorphophonology(pass.strings[left + 1]);
+		}
+	}
+
+	/**
+	 * Adds the StringElements of an element and the pairs found among them.
+	 */
+	private void collect(NLGElement element) {
+		if (element instanceof StringElement) {
+			if (this.size == this.strings.length) {
+				StringElement[] strings = new StringElement[this.size * 2];
+				System.arraycopy(this.strings, 0, strings, 0, this.size);
+				this.strings = strings;
+			}
+			this.strings[this.size++] = (StringElement) element;
+			return;
+		}
+
+		List<NLGElement> children = element.getChildren();
+		if (children == null) {
+			return;
+		}
+		boolean previousHasStrings = false;
+		int nbElements = children.size();
+		for (int index = 0; index < nbElements; index++) {
+			int first = this.size;
+			collect(children.get(index));
+			boolean hasStrings = this.size > first;
+			if (hasStrings && previousHasStrings) {
+				addPair(first - 1);
+			}
+			previousHasStrings = hasStrings;
+		}
+	}
+
+	/**
+	 * Records the pair made by a StringElement and the next one.
+	 */
+	private void addPair(int left) {
+		if (this.pairCount == this.pairs.length) {
+			int[] pairs = new int[this.pairCount * 2];
+			System.arraycopy(this.pairs, 0, pairs, 0, this.pairCount);
+			this.pairs = pairs;
+		}
+		this.pairs[this.pairCount++] = left;
+	}
+}
@@ -20,8 +20,9 @@ package simplenlg.framework;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.EnumMap;
-import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
@@ -29,7 +30,10 @@ import java.util.Map;
 
 import simplenlg.features.DiscourseFunction;
 import simplenlg.features.Feature;
+import simplenlg.features.Form;
+import simplenlg.features.InternalFeature;
 import simplenlg.features.NumberAgreement;
+import simplenlg.features.Person;
 import simplenlg.features.Tense;
 import simplenlg.features.french.FrenchLexicalFeature;
 import simplenlg.lexicon.Lexicon;
@@ -61,13 +65,19 @@ import simplenlg.orthography.OrthographyHelperInterface;
  * @author D. Westwater, University of Aberdeen.
  * @version 4.0
  */
-public abstract class NLGElement {
+public abstract class NLGElement implements Cloneable {
+
+	/** Fingerprint of an element met again while being fingerprinted. */
+	private static final Long CYCLE_FINGERPRINT = Long.valueOf(0x5bd1e995L);
+
+	// odd constant of the 64-bit golden ratio, used to combine fingerprints
+	private static final long FINGERPRINT_MULTIPLIER = 0x9e3779b97f4a7c15L;
 
 	/** The category of this element. */
 	private ElementCategory category;
 
 	/** The features of this element. */
-	protected HashMap<String, Object> features = new HashMap<String, Object>();
+	protected Map<String, Object> features = new FeatureMap();
 
 	/** The parent of this element. */
 	private NLGElement parent;
@@ -128,7 +138,7 @@ public abstract class NLGElement {
 	 */
 	public void setFeature(String featureName, boolean featureValue) {
 		if (featureName != null) {
-			this.features.put(featureName, new Boolean(featureValue));
+			this.features.put(featureName, Boolean.valueOf(featureValue));
 		}
 	}
 
@@ -142,7 +152,7 @@ public abstract class NLGElement {
 	 */
 	public void setFeature(String featureName, int featureValue) {
 		if (featureName != null) {
-			this.features.put(featureName, new Integer(featureValue));
+			this.features.put(featureName, Integer.valueOf(featureValue));
 		}
 	}
 
@@ -156,7 +166,7 @@ public abstract class NLGElement {
 	 */
 	public void setFeature(String featureName, long featureValue) {
 		if (featureName != null) {
-			this.features.put(featureName, new Long(featureValue));
+			this.features.put(featureName, Long.valueOf(featureValue));
 		}
 	}
 
@@ -170,7 +180,7 @@ public abstract class NLGElement {
 	 */
 	public void setFeature(String featureName, float featureValue) {
 		if (featureName != null) {
-			this.features.put(featureName, new Float(featureValue));
+			this.features.put(featureName, Float.valueOf(featureValue));
 		}
 	}
 
@@ -185,7 +195,7 @@ public abstract class NLGElement {
 	 */
 	public void setFeature(String featureName, double featureValue) {
 		if (featureName != null) {
-			this.features.put(featureName, new Double(featureValue));
+			this.features.put(featureName, Double.valueOf(featureValue));
 		}
 	}
 
@@ -670,6 +680,74 @@ public abstract class NLGElement {
 		return NumberAgreement.PLURAL.equals(getFeature(Feature.NUMBER));
 	}
 
+	/**
+	 * Retrieves the tense of this element, without the default of
+	 * <code>getTense()</code>.
+	 *
+	 * @return the value of <code>Feature.TENSE</code> if it is a
+	 *         <code>Tense</code>, <code>null</code> otherwise.
+	 */
+	public Tense tense() {
+		Object value = this.features.get(Feature.TENSE);
+		return value instanceof Tense ? (Tense) value : null;
+	}
+
+	/**
+	 * Retrieves the person of this element.
+	 *
+	 * @return the value of <code>Feature.PERSON</code> if it is a
+	 *         <code>Person</code>, <code>null</code> otherwise.
+	 */
+	public Person person() {
+		Object value = this.features.get(Feature.PERSON);
+		return value instanceof Person ? (Person) value : null;
+	}
+
+	/**
+	 * Retrieves the number agreement of this element.
+	 *
+	 * @return the value of <code>Feature.NUMBER</code> if it is a
+	 *         <code>NumberAgreement</code>, <code>null</code> otherwise.
+	 */
+	public NumberAgreement number() {
+		Object value = this.features.get(Feature.NUMBER);
+		return value instanceof NumberAgreement ? (NumberAgreement) value : null;
+	}
+
+	/**
+	 * Retrieves the form of this element.
+	 *
+	 * @return the value of <code>Feature.FORM</code> if it is a
+	 *         <code>Form</code>, <code>null</code> otherwise.
+	 */
+	public Form form() {
+		Object value = this.features.get(Feature.FORM);
+		return value instanceof Form ? (Form) value : null;
+	}
+
+	/**
+	 * Retrieves the discourse function of this element within its parent.
+	 *
+	 * @return the value of <code>InternalFeature.DISCOURSE_FUNCTION</code> if
+	 *         it is a <code>DiscourseFunction</code>, <code>null</code>
+	 *         otherwise.
+	 */
+	public DiscourseFunction discourseFunction() {
+		Object value = this.features.get(InternalFeature.DISCOURSE_FUNCTION);
+		return value instanceof DiscourseFunction ? (DiscourseFunction) value : null;
+	}
+
+	/**
+	 * Determines if this element is in the passive voice.
+	 *
+	 * @return <code>true</code> if the <code>Feature.PASSIVE</code> feature
+	 *         has the value <code>Boolean.TRUE</code>, <code>false</code>
+	 *         otherwise.
+	 */
+	public boolean isPassive() {
+		return Boolean.TRUE.equals(this.features.get(Feature.PASSIVE));
+	}
+
 	// Following should be deleted at some point, as it makes more sense to have
 	// them in SPhraseSpec
 	/**
@@ -802,6 +880,252 @@ public abstract class NLGElement {
 		return eq;
 	}
 
+	/**
+	 * <p>
+	 * Creates a copy of the tree rooted at this element that realisation can
+	 * modify without affecting this tree. Every element reachable from this
+	 * one through its features is copied once, with its own feature map and
+	 * element lists, so shared sub-elements stay shared in the copy and parent
+	 * links point to the copied parents. Feature values that are not elements
+	 * (enums, strings, numbers) are shared.
+	 * </p>
+	 * 
+	 * <p>
+	 * <code>WordElement</code>s are copied too, since the syntax stage sets
+	 * features such as <code>IS_COMPARATIVE</code> on the head words it is
+	 * given. A copied word reads the features of its original through an
+	 * overlay, so its inflection and irregular forms are not duplicated.
+	 * </p>
+	 * 
+	 * <p>
+	 * This method only reads this tree, so several threads can copy the same
+	 * tree at the same time as long as none of them modifies it.
+	 * </p>
+	 * 
+	 * @return the root of the copied tree
+	 */
+	public NLGElement copyTree() {
+		Map<NLGElement, NLGElement> copies = new IdentityHashMap<NLGElement, NLGElement>();
+		NLGElement copy = copyTree(copies);
+
+		// elements reached through a feature before their parent was copied
+		// still point to the original parent
+		for (NLGElement eachCopy : copies.values()) {
+			NLGElement copiedParent = copies.get(eachCopy.parent);
+			if (copiedParent != null) {
+				eachCopy.parent = copiedParent;
+			}
+		}
+		return copy;
+	}
+
+	/**
+	 * Copies this element and the elements in its features, reusing the
+	 * copies already made during the same call to <code>copyTree()</code>.
+	 * 
+	 * @param copies
+	 *            the copies made so far, keyed by original element.
+	 * @return the copy of this element
+	 */
+	protected NLGElement copyTree(Map<NLGElement, NLGElement> copies) {
+		NLGElement copy = copies.get(this);
+		if (copy == null) {
+			try {
+				copy = (NLGElement) super.clone();
+			} catch (CloneNotSupportedException exception) {
+				throw new AssertionError(exception);
+			}
+			copies.put(this, copy);
+			copyFeatures(copy, copies);
+		}
+		return copy;
+	}
+
+	/**
+	 * Gives the copy of this element made by <code>copyTree()</code> its own
+	 * features, copying the values that are elements or lists.
+	 * 
+	 * @param copy
+	 *            the copy of this element.
+	 * @param copies
+	 *            the copies made so far, keyed by original element.
+	 */
+	protected void copyFeatures(NLGElement copy, Map<NLGElement, NLGElement> copies) {
+		copy.features = new FeatureMap();
+		for (Map.Entry<String, Object> entry : this.features.entrySet()) {
+			copy.features.put(entry.getKey(),
+					copyFeatureValue(entry.getValue(), copies));
+		}
+	}
+
+	/**
+	 * @param value
+	 *            the value of a feature.
+	 * @param copies
+	 *            the copies made so far, keyed by original element.
+	 * @return a copy of the value if it is an element or a list, the value
+	 *         itself otherwise
+	 */
+	static Object copyFeatureValue(Object value,
+			Map<NLGElement, NLGElement> copies) {
+		if (value instanceof NLGElement) {
+			return ((NLGElement) value).copyTree(copies);
+		} else if (value instanceof List<?>) {
+			List<Object> listCopy = new ArrayList<Object>(((List<?>) value).size());
+			for (Object eachValue : (List<?>) value) {
+				if (eachValue instanceof NLGElement) {
+					listCopy.add(((NLGElement) eachValue).copyTree(copies));
+				} else {
+					listCopy.add(eachValue);
+				}
+			}
+			return listCopy;
+		} else {
+			return value;
+		}
+	}
+
+	/**
+	 * The hash code of an element is that of its structure, so that equal
+	 * elements have the same hash code. It is taken from
+	 * <code>fingerprint()</code>, and so changes with the features of the
+	 * element.
+	 */
+	@Override
+	public int hashCode() {
+		long fingerprint = fingerprint();
+		return (int) (fingerprint ^ (fingerprint >>> 32));
+	}
+
+	/**
+	 * <p>
+	 * Computes a 64-bit fingerprint of the tree rooted at this element, from
+	 * its category, its features and, through them, the fingerprints of the
+	 * elements it contains. Equal elements have the same fingerprint, and
+	 * elements that differ almost never do, so that fingerprints can be used
+	 * to group, deduplicate or cache phrases without comparing them.
+	 * Enumerated values and strings are fingerprinted by name, so fingerprints
+	 * are the same in every run.
+	 * </p>
+	 *
+	 * <p>
+	 * The fingerprint is computed in one pass over the tree each time this
+	 * method is called; an element that appears several times in the tree is
+	 * only visited once. An element that contains itself through its features,
+	 * as a relative clause refers to its noun phrase, contributes a constant
+	 * where it is met again.
+	 * </p>
+	 *
+	 * @return the fingerprint of this element
+	 */
+	public long fingerprint() {
+		return fingerprint(new IdentityHashMap<NLGElement, Long>());
+	}
+
+	/**
+	 * @param fingerprints
+	 *            the fingerprints computed so far, keyed by element.
+	 * @return the fingerprint of this element
+	 */
+	final long fingerprint(Map<NLGElement, Long> fingerprints) {
+		Long known = fingerprints.get(this);
+		if (known == null) {
+			// met again while being computed: part of a cycle
+			fingerprints.put(this, CYCLE_FINGERPRINT);
+			known = Long.valueOf(mixFingerprint(computeFingerprint(fingerprints)));
+			fingerprints.put(this, known);
+		}
+		return known.longValue();
+	}
+
+	/**
+	 * Computes the fingerprint of this element from the data it is compared
+	 * on by <code>equals()</code>. Subclasses comparing other data override
+	 * this method accordingly.
+	 *
+	 * @param fingerprints
+	 *            the fingerprints computed so far, keyed by element, to be
+	 *            passed on to <code>fingerprintValue()</code>.
+	 * @return the fingerprint, before it is mixed
+	 */
+	protected long computeFingerprint(Map<NLGElement, Long> fingerprints) {
+		return fingerprintValue(this.category, fingerprints) * FINGERPRINT_MULTIPLIER
+				+ fingerprintValue(this.features, fingerprints);
+	}
+
+	/**
+	 * Computes the fingerprint of a feature value, consistently with the
+	 * <code>equals()</code> method of the value: elements by their structure,
+	 * lists in order, other collections and maps regardless of order, strings
+	 * and enumerated values by name, and anything else by its hash code.
+	 *
+	 * @param value
+	 *            the value, may be <code>null</code>.
+	 * @param fingerprints
+	 *            the fingerprints computed so far, keyed by element.
+	 * @return the fingerprint of the value
+	 */
+	protected static long fingerprintValue(Object value,
+			Map<NLGElement, Long> fingerprints) {
+		long fingerprint;
+		if (value == null) {
+			fingerprint = 0L;
+		} else if (value instanceof NLGElement) {
+			fingerprint = ((NLGElement) value).fingerprint(fingerprints);
+		} else if (value instanceof String) {
+			fingerprint = fingerprintString((String) value);
+		} else if (value instanceof Enum<?>) {
+			Enum<?> constant = (Enum<?>) value;
+			fingerprint = fingerprintString(constant.getDeclaringClass().getName())
+					* FINGERPRINT_MULTIPLIER + fingerprintString(constant.name());
+		} else if (value instanceof List<?>) {
+			fingerprint = 1L;
+			for (Object item : (List<?>) value) {
+				fingerprint = fingerprint * FINGERPRINT_MULTIPLIER
+						+ fingerprintValue(item, fingerprints);
+			}
+		} else if (value instanceof Collection<?>) {
+			fingerprint = 2L;
+			for (Object item : (Collection<?>) value) {
+				fingerprint += mixFingerprint(fingerprintValue(item, fingerprints));
+			}
+		} else if (value instanceof Map<?, ?>) {
+			fingerprint = 3L;
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				fingerprint += mixFingerprint(fingerprintValue(entry.getKey(), fingerprints)
+						* FINGERPRINT_MULTIPLIER
+						+ fingerprintValue(entry.getValue(), fingerprints));
+			}
+		} else {
+			fingerprint = value.hashCode();
+		}
+		return fingerprint;
+	}
+
+	/**
+	 * @return a 64-bit hash of the characters of a string
+	 */
+	private static long fingerprintString(String string) {
+		// FNV-1a
+		long fingerprint = 0xcbf29ce484222325L;
+		for (int i = 0; i < string.length(); i++) {
+			fingerprint ^= string.charAt(i);
+			fingerprint *= 0x100000001b3L;
+		}
+		return fingerprint;
+	}
+
+	/**
+	 * @return the bits of a fingerprint mixed so that close values differ in
+	 *         about half of their bits
+	 */
+	private static long mixFingerprint(long fingerprint) {
+		// finaliser of SplitMix64
+		fingerprint = (fingerprint ^ (fingerprint >>> 30)) * 0xbf58476d1ce4e5b9L;
+		fingerprint = (fingerprint ^ (fingerprint >>> 27)) * 0x94d049bb133111ebL;
+		return fingerprint ^ (fingerprint >>> 31);
+	}
+
 	/**
 	 * Realisation method for the syntax stage.
 	 * To be overridden by subclasses.
@@ -925,7 +1249,24 @@ public abstract class NLGElement {
 		}
 		return this;
 	}
-	
+
+	/**
+	 * Realisation method for the morphophonology stage, which applies the
+	 * rules to the same pairs of elements, in the same order, as
+	 * <code>realiseMorphophonology()</code>. The <code>StringElement</code>s
+	 * of the tree are gathered in a single walk instead of looking for the
+	 * rightmost and leftmost ones of every pair of adjacent children, which
+	 * walks down long lists and deep trees many times.
+	 *
+	 * @return morphophonologically realised form
+	 * @author R. de Oliveira
+	 */
+	public NLGElement realiseMorphophonologyInOnePass()
+	{
+		MorphophonologyPass.realise(this);
+		return this;
+	}
+
 	/**
 	 * 
 	 * @return The leftmost StringElement in the tree of its children.
@@ -1035,9 +1376,9 @@ public abstract class NLGElement {
 		return realisedList;
 	}
 
-	// Morphology rule sets used by realiseMorphology() to inflect the word
-	// instantiated by getMorphologyRuleSet(Language language)
-	private static Map<Language, OrthographyHelperInterface> orthographyHelpers = null; 
+	// Orthography helpers used by realiseOrthography(), built once by
+	// createOrthographyHelpers() and read by getOrthographyHelper(Language language)
+	private static final Map<Language, OrthographyHelperInterface> orthographyHelpers = createOrthographyHelpers();
 
 	/**
 	 * @return the orthography helper to be used for this element
@@ -1050,7 +1391,7 @@ public abstract class NLGElement {
 	
 	/**
 	 * This static method returns the morphology rule set corresponding to
-	 * a particular language and instantiates it if necessary.
+	 * a particular language.
 	 * 
 	 * @param language
 	 * @return the morphology rule set to be used for this language
@@ -1059,26 +1400,24 @@ public abstract class NLGElement {
 	 */
 	public static OrthographyHelperInterface getOrthographyHelper(Language language)
 	{
-		if (orthographyHelpers == null) {
-			orthographyHelpers =
-				new EnumMap<Language,OrthographyHelperInterface>(Language.class); 
-		}
-		OrthographyHelperInterface orthographyHelper = orthographyHelpers.get(language);
-		if (orthographyHelper == null) {
-			switch (language) {
-			case ENGLISH:
-				orthographyHelper = new simplenlg.orthography.english.OrthographyHelper();
-				break;
-			case FRENCH:
-				orthographyHelper = new simplenlg.orthography.french.OrthographyHelper();
-				break;
-			case PORTUGUESE:
-				orthographyHelper = new simplenlg.orthography.portuguese.OrthographyHelper();
-				break;
-			}
-			orthographyHelpers.put(language, orthographyHelper);
-		}
-		return orthographyHelper;
+		return orthographyHelpers.get(language);
+	}
+
+	/**
+	 * Builds the orthography helper of every language once, when the class is loaded.
+	 * The map is unmodifiable after class initialisation, so lookups through
+	 * <code>getOrthographyHelper(Language)</code> are thread-safe, and every
+	 * element of a language shares its single helper.
+	 * 
+	 * @return an unmodifiable map from each language to its OrthographyHelperInterface
+	 */
+	private static Map<Language, OrthographyHelperInterface> createOrthographyHelpers() {
+		Map<Language, OrthographyHelperInterface> registry =
+			new EnumMap<Language, OrthographyHelperInterface>(Language.class);
+		registry.put(Language.ENGLISH, new simplenlg.orthography.english.OrthographyHelper());
+		registry.put(Language.FRENCH, new simplenlg.orthography.french.OrthographyHelper());
+		registry.put(Language.PORTUGUESE, new simplenlg.orthography.portuguese.OrthographyHelper());
+		return Collections.unmodifiableMap(registry);
 	}
 
 	/**
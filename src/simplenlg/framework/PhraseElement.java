@@ -19,6 +19,7 @@
 package simplenlg.framework;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
@@ -51,10 +52,12 @@ import simplenlg.syntax.GenericPhraseHelper;
 public class PhraseElement extends NLGElement {
 
 	// added by vaudrypl
-	private static Map<Language, AbstractClauseHelper>     clauseHelpers     = null;
-	private static Map<Language, AbstractNounPhraseHelper> nounPhraseHelpers = null;
-	private static Map<Language, GenericPhraseHelper>      phraseHelpers     = null;
-	private static Map<Language, AbstractVerbPhraseHelper> verbPhraseHelpers = null;
+	// The helper registries are immutable once the class is loaded, so the
+	// helpers can be shared by realisations running on different threads.
+	private static final Map<Language, AbstractClauseHelper>     clauseHelpers     = createClauseHelpers();
+	private static final Map<Language, AbstractNounPhraseHelper> nounPhraseHelpers = createNounPhraseHelpers();
+	private static final Map<Language, GenericPhraseHelper>      phraseHelpers     = createPhraseHelpers();
+	private static final Map<Language, AbstractVerbPhraseHelper> verbPhraseHelpers = createVerbPhraseHelpers();
 
 	/**
 	 * Creates a new phrase of the given type.
@@ -79,7 +82,7 @@ public class PhraseElement extends NLGElement {
 
 	/**
 	 * This static method returns the clause helper corresponding to
-	 * a particular language and instantiates it if necessary.
+	 * a particular language.
 	 * 
 	 * @param language
 	 * @return the clause helper to be used to do the syntax of this language
@@ -87,25 +90,21 @@ public class PhraseElement extends NLGElement {
 	 * @author edited by R. de Oliveira
 	 */
 	public static AbstractClauseHelper getClauseHelper(Language language) {
-		if(clauseHelpers == null) {
-			clauseHelpers = new EnumMap<Language, AbstractClauseHelper>(Language.class);
-		}
-		AbstractClauseHelper clauseHelper = clauseHelpers.get(language);
-		if(clauseHelper == null) {
-			switch(language){
-			case ENGLISH :
-				clauseHelper = new simplenlg.syntax.english.nonstatic.ClauseHelper();
-				break;
-			case FRENCH :
-				clauseHelper = new simplenlg.syntax.french.ClauseHelper();
-				break;
-			case PORTUGUESE :
-				clauseHelper = new simplenlg.syntax.portuguese.ClauseHelper();
-				break;
-			}
-			clauseHelpers.put(language, clauseHelper);
-		}
-		return clauseHelper;
+		return clauseHelpers.get(language);
+	}
+
+	/**
+	 * Builds the clause helper of every language once, when the class is loaded.
+	 * 
+	 * @return an unmodifiable map from each language to its AbstractClauseHelper
+	 */
+	private static Map<Language, AbstractClauseHelper> createClauseHelpers() {
+		Map<Language, AbstractClauseHelper> registry =
+			new EnumMap<Language, AbstractClauseHelper>(Language.class);
+		registry.put(Language.ENGLISH, new simplenlg.syntax.english.nonstatic.ClauseHelper());
+		registry.put(Language.FRENCH, new simplenlg.syntax.french.ClauseHelper());
+		registry.put(Language.PORTUGUESE, new simplenlg.syntax.portuguese.ClauseHelper());
+		return Collections.unmodifiableMap(registry);
 	}
 
 	/**
@@ -118,7 +117,7 @@ public class PhraseElement extends NLGElement {
 
 	/**
 	 * This static method returns the noun phrase helper corresponding to
-	 * a particular language and instantiates it if necessary.
+	 * a particular language.
 	 * 
 	 * @param language
 	 * @return the noun phrase helper to be used to do the syntax of this language
@@ -126,25 +125,21 @@ public class PhraseElement extends NLGElement {
 	 * @author edited by R. de Oliveira
 	 */
 	public static AbstractNounPhraseHelper getNounPhraseHelper(Language language) {
-		if(nounPhraseHelpers == null) {
-			nounPhraseHelpers = new EnumMap<Language, AbstractNounPhraseHelper>(Language.class);
-		}
-		AbstractNounPhraseHelper nounPhraseHelper = nounPhraseHelpers.get(language);
-		if(nounPhraseHelper == null) {
-			switch(language){
-			case ENGLISH :
-				nounPhraseHelper = new simplenlg.syntax.english.nonstatic.NounPhraseHelper();
-				break;
-			case FRENCH :
-				nounPhraseHelper = new simplenlg.syntax.french.NounPhraseHelper();
-				break;
-			case PORTUGUESE :
-				nounPhraseHelper = new simplenlg.syntax.portuguese.NounPhraseHelper();
-				break;
-			}
-			nounPhraseHelpers.put(language, nounPhraseHelper);
-		}
-		return nounPhraseHelper;
+		return nounPhraseHelpers.get(language);
+	}
+
+	/**
+	 * Builds the noun phrase helper of every language once, when the class is loaded.
+	 * 
+	 * @return an unmodifiable map from each language to its AbstractNounPhraseHelper
+	 */
+	private static Map<Language, AbstractNounPhraseHelper> createNounPhraseHelpers() {
+		Map<Language, AbstractNounPhraseHelper> registry =
+			new EnumMap<Language, AbstractNounPhraseHelper>(Language.class);
+		registry.put(Language.ENGLISH, new simplenlg.syntax.english.nonstatic.NounPhraseHelper());
+		registry.put(Language.FRENCH, new simplenlg.syntax.french.NounPhraseHelper());
+		registry.put(Language.PORTUGUESE, new simplenlg.syntax.portuguese.NounPhraseHelper());
+		return Collections.unmodifiableMap(registry);
 	}
 
 	/**
@@ -157,7 +152,7 @@ public class PhraseElement extends NLGElement {
 
 	/**
 	 * This static method returns the phrase helper corresponding to
-	 * a particular language and instantiates it if necessary.
+	 * a particular language.
 	 * 
 	 * @param language
 	 * @return the phrase helper to be used to do the syntax of this language
@@ -165,25 +160,21 @@ public class PhraseElement extends NLGElement {
 	 * @author edited by R. de Oliveira
 	 */
 	public static GenericPhraseHelper getPhraseHelper(Language language) {
-		if(phraseHelpers == null) {
-			phraseHelpers = new EnumMap<Language, GenericPhraseHelper>(Language.class);
-		}
-		GenericPhraseHelper phraseHelper = phraseHelpers.get(language);
-		if(phraseHelper == null) {
-			switch(language){
-			case ENGLISH :
-				phraseHelper = new simplenlg.syntax.english.nonstatic.PhraseHelper();
-				break;
-			case FRENCH :
-				phraseHelper = new simplenlg.syntax.french.PhraseHelper();
-				break;
-			case PORTUGUESE :
-				phraseHelper = new simplenlg.syntax.portuguese.PhraseHelper();
-				break;
-			}
-			phraseHelpers.put(language, phraseHelper);
-		}
-		return phraseHelper;
+		return phraseHelpers.get(language);
+	}
+
+	/**
+	 * Builds the phrase helper of every language once, when the class is loaded.
+	 * 
+	 * @return an unmodifiable map from each language to its GenericPhraseHelper
+	 */
+	private static Map<Language, GenericPhraseHelper> createPhraseHelpers() {
+		Map<Language, GenericPhraseHelper> registry =
+			new EnumMap<Language, GenericPhraseHelper>(Language.class);
+		registry.put(Language.ENGLISH, new simplenlg.syntax.english.nonstatic.PhraseHelper());
+		registry.put(Language.FRENCH, new simplenlg.syntax.french.PhraseHelper());
+		registry.put(Language.PORTUGUESE, new simplenlg.syntax.portuguese.PhraseHelper());
+		return Collections.unmodifiableMap(registry);
 	}
 
 	/**
@@ -196,7 +187,7 @@ public class PhraseElement extends NLGElement {
 
 	/**
 	 * This static method returns the verb phrase helper corresponding to
-	 * a particular language and instantiates it if necessary.
+	 * a particular language.
 	 * 
 	 * @param language
 	 * @return the verb phrase helper to be used to do the syntax of this language
@@ -204,25 +195,21 @@ public class PhraseElement extends NLGElement {
 	 * @author edited by R. de Oliveira
 	 */
 	public static AbstractVerbPhraseHelper getVerbPhraseHelper(Language language) {
-		if(verbPhraseHelpers == null) {
-			verbPhraseHelpers = new EnumMap<Language, AbstractVerbPhraseHelper>(Language.class);
-		}
-		AbstractVerbPhraseHelper verbPhraseHelper = verbPhraseHelpers.get(language);
-		if(verbPhraseHelper == null) {
-			switch(language){
-			case ENGLISH :
-				verbPhraseHelper = new simplenlg.syntax.english.nonstatic.VerbPhraseHelper();
-				break;
-			case FRENCH :
-				verbPhraseHelper = new simplenlg.syntax.french.VerbPhraseHelper();
-				break;
-			case PORTUGUESE :
-				verbPhraseHelper = new simplenlg.syntax.portuguese.VerbPhraseHelper();
-				break;
-			}
-			verbPhraseHelpers.put(language, verbPhraseHelper);
-		}
-		return verbPhraseHelper;
+		return verbPhraseHelpers.get(language);
+	}
+
+	/**
+	 * Builds the verb phrase helper of every language once, when the class is loaded.
+	 * 
+	 * @return an unmodifiable map from each language to its AbstractVerbPhraseHelper
+	 */
+	private static Map<Language, AbstractVerbPhraseHelper> createVerbPhraseHelpers() {
+		Map<Language, AbstractVerbPhraseHelper> registry =
+			new EnumMap<Language, AbstractVerbPhraseHelper>(Language.class);
+		registry.put(Language.ENGLISH, new simplenlg.syntax.english.nonstatic.VerbPhraseHelper());
+		registry.put(Language.FRENCH, new simplenlg.syntax.french.VerbPhraseHelper());
+		registry.put(Language.PORTUGUESE, new simplenlg.syntax.portuguese.VerbPhraseHelper());
+		return Collections.unmodifiableMap(registry);
 	}
 
 	/**
@@ -19,6 +19,7 @@
 package simplenlg.framework;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
@@ -44,7 +45,7 @@ public class StringElement extends NLGElement {
 
 	// Morphology rule sets used by realiseMorphophonology() to inflect the word
 	// instantiated by getMorphophonologyRuleSet(Language language)
-	private static Map<Language, MorphophonologyRulesInterface> morphophonologyRuleSets = null; 
+	private static final Map<Language, MorphophonologyRulesInterface> morphophonologyRuleSets = createMorphophonologyRuleSets();
 
 	/**
 	 * Constructs a new string element representing some canned text.
@@ -67,8 +68,13 @@ public class StringElement extends NLGElement {
 	 */
 	public StringElement(String form, InflectedWordElement word) {
 		//the StringElement inherits all features from the inflected word
-		for(String feature : word.getAllFeatureNames()) {
-			setFeature(feature, word.getFeature(feature));
+		if (word.features instanceof FeatureOverlay) {
+			// shares the features the word inherited from its base word
+			this.features = new FeatureOverlay((FeatureOverlay) word.features);
+		} else {
+			for(String feature : word.getAllFeatureNames()) {
+				setFeature(feature, word.getFeature(feature));
+			}
 		}
 		setCategory(word.getCategory());
 		setFeature(Feature.ELIDED, false);
@@ -109,6 +115,12 @@ public class StringElement extends NLGElement {
 		return super.equals(o) && (o instanceof StringElement) && realisationsMatch((StringElement) o);
 	}
 
+	@Override
+	protected long computeFingerprint(Map<NLGElement, Long> fingerprints) {
+		return super.computeFingerprint(fingerprints) * 31
+				+ fingerprintValue(getRealisation(), fingerprints);
+	}
+
 	private boolean realisationsMatch(StringElement o) {
 		if  (getRealisation() == null) {
 			return o.getRealisation() == null;
@@ -169,7 +181,7 @@ public class StringElement extends NLGElement {
 	
 	/**
 	 * This static method returns the morphophonology rule set corresponding to
-	 * a particular language and instantiates it if necessary.
+	 * a particular language.
 	 * 
 	 * @param language
 	 * @return the morphophonology rule set to be used for this language
@@ -178,26 +190,21 @@ public class StringElement extends NLGElement {
 	 */
 	public static MorphophonologyRulesInterface getMorphophonologyRuleSet(Language language)
 	{
-		if (morphophonologyRuleSets == null) {
-			morphophonologyRuleSets =
-				new EnumMap<Language,MorphophonologyRulesInterface>(Language.class); 
-		}
-		MorphophonologyRulesInterface ruleSet = morphophonologyRuleSets.get(language);
-		if (ruleSet == null) {
-			switch (language) {
-			case ENGLISH:
-				ruleSet = new simplenlg.morphophonology.english.MorphophonologyRules();
-				break;
-			case FRENCH:
-				ruleSet = new simplenlg.morphophonology.french.MorphophonologyRules();
-				break;
-			case PORTUGUESE:
-				ruleSet = new simplenlg.morphophonology.portuguese.MorphophonologyRules();
-				break;
-			}
-			morphophonologyRuleSets.put(language, ruleSet);
-		}
-		return ruleSet;
+		return morphophonologyRuleSets.get(language);
+	}
+
+	/**
+	 * Builds the morphophonology rule set of every language once, when the class is loaded.
+	 * 
+	 * @return an unmodifiable map from each language to its MorphophonologyRulesInterface
+	 */
+	private static Map<Language, MorphophonologyRulesInterface> createMorphophonologyRuleSets() {
+		Map<Language, MorphophonologyRulesInterface> registry =
+			new EnumMap<Language, MorphophonologyRulesInterface>(Language.class);
+		registry.put(Language.ENGLISH, new simplenlg.morphophonology.english.MorphophonologyRules());
+		registry.put(Language.FRENCH, new simplenlg.morphophonology.french.MorphophonologyRules());
+		registry.put(Language.PORTUGUESE, new simplenlg.morphophonology.portuguese.MorphophonologyRules());
+		return Collections.unmodifiableMap(registry);
 	}
 
 	/**
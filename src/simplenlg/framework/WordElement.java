@@ -19,7 +19,9 @@
 package simplenlg.framework;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
@@ -55,6 +57,10 @@ public class WordElement extends NLGElement {
 	// Lexicon from which this WordElement comes from
 	private Lexicon lexicon;
 
+	// the features shared with the inflected words of this word, or null if
+	// they have not been shared yet
+	private volatile FeatureSnapshot featureSnapshot = null;
+
 	// LexicalCategory category; // type of word
 
 	/**********************************************************/
@@ -200,6 +206,93 @@ public class WordElement extends NLGElement {
 		this.id = id;
 	}
 
+	/**********************************************************/
+	// features
+	/**********************************************************/
+
+	/**
+	 * Returns the features of this word as an unmodifiable map, which is
+	 * shared by the inflected words created from it instead of each copying
+	 * the features. The map is made again after the features of this word
+	 * change, so that inflected words keep the features the word had when
+	 * they were created. Features without a value are left out.
+	 * 
+	 * @return the features of this word
+	 */
+	Map<String, Object> getFeatureSnapshot() {
+		FeatureSnapshot snapshot = this.featureSnapshot;
+		int version = getFeatureVersion();
+		if (snapshot == null || !snapshot.isOf(this.features, version)) {
+			Map<String, Object> copy = new FeatureMap();
+			for (Map.Entry<String, Object> entry : this.features.entrySet()) {
+				if (entry.getValue() != null) {
+					copy.put(entry.getKey(), entry.getValue());
+				}
+			}
+			snapshot = new FeatureSnapshot(this.features, version, Collections.unmodifiableMap(copy));
+			this.featureSnapshot = snapshot;
+		}
+		return snapshot.features;
+	}
+
+	/**
+	 * @return the number of changes made to the features of this word, or -1
+	 *         if they are not held in a map counting them
+	 */
+	private int getFeatureVersion() {
+		if (this.features instanceof FeatureMap) {
+			return ((FeatureMap) this.features).getVersion();
+		} else if (this.features instanceof FeatureOverlay) {
+			return ((FeatureOverlay) this.features).getVersion();
+		}
+		return -1;
+	}
+
+	/**
+	 * The features of a word as they were at some version of its feature map.
+	 */
+	private static final class FeatureSnapshot {
+
+		private final Map<String, Object> source;
+		private final int version;
+		final Map<String, Object> features;
+
+		FeatureSnapshot(Map<String, Object> source, int version, Map<String, Object> features) {
+			this.source = source;
+			this.version = version;
+			this.features = features;
+		}
+
+		/**
+		 * @return <code>true</code> if the map has not changed since the
+		 *         snapshot was taken; maps not counting their changes are
+		 *         always considered changed
+		 */
+		boolean isOf(Map<String, Object> map, int mapVersion) {
+			return this.source == map && mapVersion >= 0 && this.version == mapVersion;
+		}
+	}
+
+	/**
+	 * The copy of a word reads the snapshot of its features through an
+	 * overlay, and shares the snapshot with the inflected words made from it
+	 * until its own features change.
+	 */
+	@Override
+	protected void copyFeatures(NLGElement copy, Map<NLGElement, NLGElement> copies) {
+		Map<String, Object> snapshot = getFeatureSnapshot();
+		FeatureOverlay overlay = new FeatureOverlay(snapshot);
+		for (Map.Entry<String, Object> entry : snapshot.entrySet()) {
+			Object value = entry.getValue();
+			if (value instanceof NLGElement || value instanceof List<?>) {
+				overlay.put(entry.getKey(), copyFeatureValue(value, copies));
+			}
+		}
+		copy.features = overlay;
+		((WordElement) copy).featureSnapshot = overlay.getVersion() == 0
+				? new FeatureSnapshot(overlay, 0, snapshot) : null;
+	}
+
 	/**
 	 * Convenience method to set the default inflectional variant of a word.
 	 * Equivalent to
@@ -355,7 +448,7 @@ public class WordElement extends NLGElement {
 	 * @param o
 	 *            the object
 	 * @return <code>true</code> iff the object is a word element with the same
-	 *         id and the same baseform and the same features.
+	 *         id and the same baseform, category and features.
 	 * 
 	 */
 	@Override
@@ -365,12 +458,37 @@ public class WordElement extends NLGElement {
 
 			return (this.baseForm == we.baseForm || this.baseForm
 					.equals(we.baseForm))
+					&& getCategory() == we.getCategory()
 					&& (this.id == we.id || this.id.equals(we.id))
 					&& we.features.equals(this.features);
 		}
 
 		return false;
 	}
+
+	/**
+	 * The hash code of a word depends on its base form, category and id,
+	 * which are compared by <code>equals()</code>, but not on its features, so
+	 * that it does not change when features are set on the word.
+	 */
+	@Override
+	public int hashCode() {
+		int hash = this.baseForm == null ? 0 : this.baseForm.hashCode();
+		hash = 31 * hash + (getCategory() == null ? 0 : getCategory().hashCode());
+		return 31 * hash + (this.id == null ? 0 : this.id.hashCode());
+	}
+
+	/**
+	 * Computes the fingerprint of this word from its base form, id and
+	 * features, which <code>equals()</code> compares; the category is left
+	 * out.
+	 */
+	@Override
+	protected long computeFingerprint(Map<NLGElement, Long> fingerprints) {
+		long fingerprint = fingerprintValue(this.baseForm, fingerprints);
+		fingerprint = fingerprint * 31 + fingerprintValue(this.id, fingerprints);
+		return fingerprint * 31 + fingerprintValue(this.features, fingerprints);
+	}
 	
 	/**
 	 * Realisation method for the syntax stage.
@@ -0,0 +1,420 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Pierre-Luc Vaudry.
+ */
+
+package simplenlg.lexicon;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import simplenlg.framework.BoundedCache;
+import simplenlg.framework.LexicalCategory;
+import simplenlg.framework.WordElement;
+
+/**
+ * <p>
+ * This class keeps the words of a {@link NIHDBLexicon} in memory, so that the
+ * database is queried and the <code>WordElement</code>s are built only once
+ * for each base form or variant. The lexicon makes two kinds of queries: by
+ * base form, for <code>getWords</code>, and by term, which serves both
+ * <code>getWordsFromVariant</code> and <code>getWordsByID</code>. The words of
+ * all categories are cached for each query and filtered by category when
+ * read. Queries finding no word are cached as well.
+ * </p>
+ * 
+ * <p>
+ * The cache is bounded by weight, the weight of an entry being its number of
+ * words (at least one), and the least recently used entries are evicted
+ * first. Hits, misses and evictions are counted. The cache is split into
+ * segments by query, each with its own lock, so that threads realising
+ * different words do not wait for each other; an entry evicted is then the
+ * least recently used of its segment.
+ * </p>
+ * 
+ * <p>
+ * Before realising a document, its whole vocabulary can be loaded with
+ * {@link #prefetch(Collection)}, which queries the database in batches
+ * instead of once per word.
+ * </p>
+ * 
+ * @author R. de Oliveira
+ */
+public class CachingNIHDBLexicon extends Lexicon {
+
+	/** Largest weight of the cache unless specified otherwise. */
+	public static final int DEFAULT_MAX_WEIGHT = 50000;
+
+	// the kinds of queries made to the lexicon
+	private static final int BY_BASE = 0;
+	private static final int BY_TERM = 1;
+
+	private final NIHDBLexicon lexicon;
+
+	// the words of each query, least recently used first, weighing their
+	// number of words (at least one)
+	private final BoundedCache<Key, List<WordElement>> cache;
+
+	/**********************************************************************/
+	// constructors
+	/**********************************************************************/
+
+	/**
+	 * Creates a cache of default weight over a lexicon.
+	 * 
+	 * @param lexicon
+	 *            the lexicon whose words are cached
+	 */
+	public CachingNIHDBLexicon(NIHDBLexicon lexicon) {
+		this(lexicon, DEFAULT_MAX_WEIGHT);
+	}
+
+	/**
+	 * Creates a cache over a lexicon.
+	 * 
+	 * @param lexicon
+	 *            the lexicon whose words are cached
+	 * @param maxWeight
+	 *            the largest total number of words kept
+	 */
+	public CachingNIHDBLexicon(NIHDBLexicon lexicon, int maxWeight) {
+		super(lexicon.getLanguage());
+		this.lexicon = lexicon;
+		this.cache = new BoundedCache<Key, List<WordElement>>(maxWeight) {
+
+			@Override
+			protected int weigh(List<WordElement> words) {
+				return Math.max(1, words.size());
+			}
+		};
+	}
+
+	/**********************************************************************/
+	// cache management
+	/**********************************************************************/
+
+	/**
+	 * Loads the words of several base forms or variants into the cache, with
+	 * batched queries to the database. Words already cached are not queried
+	 * again, and prefetched words count neither as hits nor as misses.
+	 * 
+	 * @param words
+	 *            the vocabulary of a document, as base forms, inflected forms
+	 *            or IDs
+	 */
+	public void prefetch(Collection<String> words) {
+		Set<String> bases = new LinkedHashSet<String>();
+		Set<String> terms = new LinkedHashSet<String>();
+		for (String word : words) {
+			if (!this.cache.containsKey(new Key(BY_BASE, word)))
+				bases.add(word);
+			if (!this.cache.containsKey(new Key(BY_TERM, word)))
+				terms.add(word);
+		}
+		if (!bases.isEmpty())
+			putAll(BY_BASE, this.lexicon.getWordsByBase(bases));
+		if (!terms.isEmpty())
+			putAll(BY_TERM, this.lexicon.getWordsByTerm(terms));
+	}
+
+	/**
+	 * Sets the largest total number of words kept, evicting the least
+	 * recently used entries if there are more.
+	 * 
+	 * @param maxWeight
+	 *            the new largest weight
+	 */
+	public void setMaxWeight(int maxWeight) {
+		if (maxWeight < 0)
+			throw new IllegalArgumentException("negative weight: " + maxWeight);
+		this.cache.setCapacity(maxWeight);
+	}
+
+	/**
+	 * @return the largest total number of words kept
+	 */
+	public int getMaxWeight() {
+		return this.cache.getCapacity();
+	}
+
+	/**
+	 * @return the total weight of the entries currently cached
+	 */
+	public int getWeight() {
+		return this.cache.getWeight();
+	}
+
+	/**
+	 * @return the number of queries currently cached
+	 */
+	public int size() {
+		return this.cache.size();
+	}
+
+	/**
+	 * @return the number of lookups answered from the cache
+	 */
+	public long getHitCount() {
+		return this.cache.getHitCount();
+	}
+
+	/**
+	 * @return the number of lookups that queried the lexicon
+	 */
+	public long getMissCount() {
+		return this.cache.getMissCount();
+	}
+
+	/**
+	 * @return the number of entries evicted to respect the largest weight
+	 */
+	public long getEvictionCount() {
+		return this.cache.getEvictionCount();
+	}
+
+	/**
+	 * @return the proportion of lookups answered from the cache, or 0 if
+	 *         there were none
+	 */
+	public double getHitRate() {
+		return this.cache.getHitRate();
+	}
+
+	/**
+	 * Removes all the entries and resets the counts.
+	 */
+	public void clear() {
+		this.cache.clear();
+	}
+
+	/**
+	 * @return the lexicon whose words are cached
+	 */
+	public NIHDBLexicon getLexicon() {
+		return this.lexicon;
+	}
+
+	/**********************************************************************/
+	// main methods
+	/**********************************************************************/
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#getWords(java.lang.String,
+	 * simplenlg.features.LexicalCategory)
+	 */
+	@Override
+	public List<WordElement> getWords(String baseForm, LexicalCategory category) {
+		return filter(get(BY_BASE, baseForm), category);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#getWordsByID(java.lang.String)
+	 */
+	@Override
+	public List<WordElement> getWordsByID(String id) {
+		return filter(get(BY_TERM, id), LexicalCategory.ANY);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#getWordsFromVariant(java.lang.String,
+	 * simplenlg.features.LexicalCategory)
+	 */
+	@Override
+	public List<WordElement> getWordsFromVariant(String variant,
+			LexicalCategory category) {
+		return filter(get(BY_TERM, variant), category);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#findWord(java.lang.String,
+	 * simplenlg.features.LexicalCategory)
+	 */
+	@Override
+	protected WordElement findWord(String baseForm, LexicalCategory category) {
+		return first(get(BY_BASE, baseForm), category);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#findWordByID(java.lang.String)
+	 */
+	@Override
+	protected WordElement findWordByID(String id) {
+		return first(get(BY_TERM, id), LexicalCategory.ANY);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#findWordFromVariant(java.lang.String,
+	 * simplenlg.features.LexicalCategory)
+	 */
+	@Override
+	protected WordElement findWordFromVariant(String variant,
+			LexicalCategory category) {
+		return first(get(BY_TERM, variant), category);
+	}
+
+	/**
+	 * Looks for a word by base form, variant and ID (in this order) as
+	 * <code>NIHDBLexicon</code> does, the variant and ID steps sharing one
+	 * cache entry.
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#resolveWord(java.lang.String,
+	 *      simplenlg.features.LexicalCategory)
+	 */
+	@Override
+	public WordElement resolveWord(String baseForm, LexicalCategory category) {
+		WordElement word = first(get(BY_BASE, baseForm), category);
+		if (word == null) {
+			List<WordElement> words = get(BY_TERM, baseForm);
+			word = first(words, category);
+			if (word == null)
+				word = first(words, LexicalCategory.ANY);
+		}
+		return word;
+	}
+
+	/**
+	 * Queries by category and features are not cached and go to the lexicon.
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#getWords(simplenlg.framework.LexicalCategory,
+	 *      java.util.Map)
+	 */
+	@Override
+	public List<WordElement> getWords(LexicalCategory category,
+			Map<String, Object> features) {
+		return this.lexicon.getWords(category, features);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#close()
+	 */
+	@Override
+	public void close() {
+		this.lexicon.close();
+	}
+
+	/**********************************************************************/
+	// other methods
+	/**********************************************************************/
+
+	/**
+	 * Returns the words of a query, querying the lexicon if they are not
+	 * cached. The lexicon is queried outside the lock, so two threads may
+	 * query the same key at the same time.
+	 * 
+	 * @return the words of all categories, which must not be changed
+	 */
+	private List<WordElement> get(int kind, String key) {
+		Key cacheKey = new Key(kind, key);
+		List<WordElement> words = this.cache.get(cacheKey);
+		if (words != null)
+			return words;
+		words = kind == BY_BASE
+				? this.lexicon.getWords(key, LexicalCategory.ANY)
+				: this.lexicon.getWordsFromVariant(key, LexicalCategory.ANY);
+		if (words == null) {
+			// database error, not cached
+			return new ArrayList<WordElement>();
+		}
+		this.cache.put(cacheKey, words);
+		return words;
+	}
+
+	/**
+	 * Caches the words of several queries of one kind.
+	 * 
+	 * @param words
+	 *            the words of each key, or <code>null</code> after a database
+	 *            error
+	 */
+	private void putAll(int kind, Map<String, List<WordElement>> words) {
+		if (words == null)
+			return;
+		for (Map.Entry<String, List<WordElement>> entry : words.entrySet())
+			this.cache.put(new Key(kind, entry.getKey()), entry.getValue());
+	}
+
+	/**
+	 * @return a new list of the words having the category
+	 */
+	private static List<WordElement> filter(List<WordElement> words,
+			LexicalCategory category) {
+		List<WordElement> result = new ArrayList<WordElement>();
+		for (WordElement word : words)
+			if (category == LexicalCategory.ANY
+					|| word.getCategory() == category)
+				result.add(word);
+		return result;
+	}
+
+	/**
+	 * @return the first word having the category, or <code>null</code>
+	 */
+	private static WordElement first(List<WordElement> words,
+			LexicalCategory category) {
+		for (WordElement word : words)
+			if (category == LexicalCategory.ANY
+					|| word.getCategory() == category)
+				return word;
+		return null;
+	}
+
+	/**
+	 * Kind and key of a query.
+	 */
+	private static final class Key {
+
+		private final int kind;
+		private final String key;
+
+		Key(int kind, String key) {
+			this.kind = kind;
+			this.key = key;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Key))
+				return false;
+			Key other = (Key) o;
+			return this.kind == other.kind
+					&& (this.key == null ? other.key == null : this.key.equals(other.key));
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * (this.key == null ? 0 : this.key.hashCode()) + this.kind;
+		}
+	}
+}
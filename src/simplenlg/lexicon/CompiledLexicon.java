@@ -0,0 +1,128 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Pierre-Luc Vaudry.
+ */
+
+package simplenlg.lexicon;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import simplenlg.framework.WordElement;
+
+/**
+ * <p>
+ * This class loads a lexicon written by {@link LexiconCompiler}. The compiled
+ * file holds the words of an <code>XMLLexicon</code> with their features and
+ * variants already worked out, so loading it involves no XML parsing and no
+ * morphology: each word is read back and put in the same indexes as
+ * <code>XMLLexicon</code> uses, and lookups behave the same way.
+ * </p>
+ *
+ * <p>
+ * Files are memory-mapped when they are on the file system. Every string of
+ * the file is stored once, so equal base forms, variants and feature values
+ * are shared by all words. Feature names are also interned, so that they are
+ * the same objects as the constants in <code>Feature</code> and
+ * <code>LexicalFeature</code>.
+ * </p>
+ *
+ * <p>
+ * The format is versioned; a file written by another version of the compiler
+ * is rejected with an <code>IOException</code> and must be compiled again.
+ * </p>
+ *
+ * @author R. de Oliveira
+ */
+public class CompiledLexicon extends XMLLexicon {
+
+	/**********************************************************************/
+	// constructors
+	/**********************************************************************/
+
+	/**
+	 * Loads a compiled lexicon from a named file.
+	 *
+	 * @param filename
+	 *            the compiled lexicon
+	 * @throws IOException
+	 *             if the file cannot be read or is not a compiled lexicon of
+	 *             this version
+	 */
+	public CompiledLexicon(String filename) throws IOException {
+		this(LexiconFile.map(new File(filename)));
+	}
+
+	/**
+	 * Loads a compiled lexicon from a file.
+	 *
+	 * @param file
+	 *            the compiled lexicon
+	 * @throws IOException
+	 *             if the file cannot be read or is not a compiled lexicon of
+	 *             this version
+	 */
+	public CompiledLexicon(File file) throws IOException {
+		this(LexiconFile.map(file));
+	}
+
+	/**
+	 * Loads a compiled lexicon from a URI. Only <code>file:</code> URIs are
+	 * memory-mapped; others, such as resources inside a jar, are read into
+	 * memory first.
+	 *
+	 * @param lexiconURI
+	 *            the compiled lexicon
+	 * @throws IOException
+	 *             if the URI cannot be read or is not a compiled lexicon of
+	 *             this version
+	 */
+	public CompiledLexicon(URI lexiconURI) throws IOException {
+		this(LexiconFile.map(lexiconURI));
+	}
+
+	/**
+	 * Loads a compiled lexicon from a buffer positioned at its first byte.
+	 *
+	 * @param buffer
+	 *            the compiled lexicon
+	 * @throws IOException
+	 *             if the buffer does not hold a compiled lexicon of this
+	 *             version
+	 */
+	public CompiledLexicon(ByteBuffer buffer) throws IOException {
+		this(new LexiconFile(buffer));
+	}
+
+	/**
+	 * Reads all the words of a compiled lexicon and indexes them.
+	 */
+	private CompiledLexicon(LexiconFile file) throws IOException {
+		super(file.getLanguage(), file.getWordCount());
+		file.decodeAllStrings();
+		List<String> variants = new ArrayList<String>();
+		for (int i = 0; i < file.getWordCount(); i++) {
+			variants.clear();
+			WordElement word = file.readWord(i, this, variants);
+			addWord(word, variants);
+		}
+	}
+}
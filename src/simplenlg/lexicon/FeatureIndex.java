@@ -0,0 +1,216 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Pierre-Luc Vaudry.
+ */
+
+package simplenlg.lexicon;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import simplenlg.framework.BoundedCache;
+import simplenlg.framework.WordElement;
+
+/**
+ * <p>
+ * This class answers <code>getWords(LexicalCategory, Map)</code> queries over
+ * the words of one category without comparing every word with the query. For
+ * each feature used in a query, it keeps the set of words having each value
+ * of that feature and the set of words having the feature at all, as bit sets
+ * over the positions of the words. A query is the intersection of one such
+ * set per feature, and the positions it found are remembered so that the same
+ * feature bundle is answered by a single map lookup afterwards.
+ * </p>
+ *
+ * <p>
+ * The words are only known through their positions: subclasses give the value
+ * of a feature of the word at a position, and the word itself once it is part
+ * of a result. A lexicon reading its words lazily can therefore index them
+ * without reading them.
+ * </p>
+ *
+ * <p>
+ * Results follow the rules of <code>Lexicon.hasFeatures()</code>: a feature
+ * whose value is <code>null</code> or <code>Boolean.FALSE</code> in the query
+ * also matches the words that do not have it. The index assumes the features
+ * of the words do not change after it is built; the lexicon builds a new one
+ * when words are added.
+ * </p>
+ *
+ * <p>
+ * Queries may be made from several threads.
+ * </p>
+ *
+ * @author R. de Oliveira
+ */
+abstract class FeatureIndex {
+
+	/**
+	 * Largest number of query results remembered, the least recently used
+	 * being evicted first.
+	 */
+	static final int MAX_RESULTS = 4096;
+
+	// number of words indexed
+	private final int size;
+
+	// for each feature, the words by value of the feature
+	private final Map<String, Map<Object, BitSet>> wordsByValue = new HashMap<String, Map<Object, BitSet>>();
+
+	// for each feature, the words having it
+	private final Map<String, BitSet> wordsWithFeature = new HashMap<String, BitSet>();
+
+	// positions of the words matching the queries answered most recently
+	private final BoundedCache<Map<String, Object>, int[]> results =
+			new BoundedCache<Map<String, Object>, int[]>(MAX_RESULTS);
+
+	/**
+	 * Creates an index over some words. The index is built feature by feature
+	 * as queries use them.
+	 *
+	 * @param size
+	 *            the number of words, at positions 0 to size - 1
+	 */
+	FeatureIndex(int size) {
+		this.size = size;
+	}
+
+	/**
+	 * Creates an index over some words held in memory.
+	 *
+	 * @param words
+	 *            the words of the category, which are copied
+	 * @return the index
+	 */
+	static FeatureIndex of(Collection<WordElement> words) {
+		final List<WordElement> copy = new ArrayList<WordElement>(words);
+		return new FeatureIndex(copy.size()) {
+
+			@Override
+			protected Object getFeature(int position, String feature) {
+				return copy.get(position).getFeature(feature);
+			}
+
+			@Override
+			protected WordElement getWord(int position) {
+				return copy.get(position);
+			}
+		};
+	}
+
+	/**
+	 * @param position
+	 *            the position of a word
+	 * @param feature
+	 *            the name of a feature
+	 * @return the value of the feature for the word, or <code>null</code> if
+	 *         it does not have it
+	 */
+	protected abstract Object getFeature(int position, String feature);
+
+	/**
+	 * @param position
+	 *            the position of a word
+	 * @return the word
+	 */
+	protected abstract WordElement getWord(int position);
+
+	/**
+	 * Looks for the words matching the features.
+	 *
+	 * @param features
+	 *            features and their corresponding values that the words must
+	 *            have (they can have others)
+	 * @return a new list of the words matching, in position order
+	 */
+	List<WordElement> getWords(Map<String, Object> features) {
+		int[] positions = this.results.get(features);
+		if (positions == null) {
+			positions = findWords(features);
+			// the key is copied as the caller may change its map
+			this.results.put(new HashMap<String, Object>(features), positions);
+		}
+		List<WordElement> result = new ArrayList<WordElement>(positions.length);
+		for (int position : positions) {
+			result.add(getWord(position));
+		}
+		return result;
+	}
+
+	/**
+	 * Intersects the words allowed by each feature of the query.
+	 */
+	private synchronized int[] findWords(Map<String, Object> features) {
+		BitSet matches = new BitSet(this.size);
+		matches.set(0, this.size);
+		for (Map.Entry<String, Object> entry : features.entrySet()) {
+			if (matches.isEmpty()) {
+				break;
+			}
+			indexFeature(entry.getKey());
+			Object value = entry.getValue();
+			BitSet allowed = new BitSet(this.size);
+			BitSet withValue = this.wordsByValue.get(entry.getKey()).get(value);
+			if (withValue != null) {
+				allowed.or(withValue);
+			}
+			if (value == null || value == Boolean.FALSE) {
+				// default value: words without the feature also match
+				BitSet without = (BitSet) this.wordsWithFeature.get(entry.getKey()).clone();
+				without.flip(0, this.size);
+				allowed.or(without);
+			}
+			matches.and(allowed);
+		}
+
+		int[] positions = new int[matches.cardinality()];
+		int next = 0;
+		for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+			positions[next++] = i;
+		}
+		return positions;
+	}
+
+	/**
+	 * Builds the sets of words of a feature if they do not exist yet.
+	 */
+	private void indexFeature(String feature) {
+		if (this.wordsWithFeature.containsKey(feature)) {
+			return;
+		}
+		Map<Object, BitSet> byValue = new HashMap<Object, BitSet>();
+		BitSet withFeature = new BitSet(this.size);
+		for (int i = 0; i < this.size; i++) {
+			Object value = getFeature(i, feature);
+			if (value != null) {
+				withFeature.set(i);
+				BitSet set = byValue.get(value);
+				if (set == null) {
+					set = new BitSet(this.size);
+					byValue.put(value, set);
+				}
+				set.set(i);
+			}
+		}
+		this.wordsByValue.put(feature, byValue);
+		this.wordsWithFeature.put(feature, withFeature);
+	}
+}
@@ -0,0 +1,567 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Pierre-Luc Vaudry.
+ */
+
+package simplenlg.lexicon;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import simplenlg.framework.LexicalCategory;
+import simplenlg.framework.WordElement;
+
+/**
+ * <p>
+ * This class gives access to a lexicon written by {@link LexiconCompiler}
+ * without reading all its words. When it is opened, only integer indexes are
+ * built: from base forms, variants and IDs to the positions of the words in
+ * the file, and from each word to its category. No <code>WordElement</code>
+ * and no string of the file is kept in memory at that point.
+ * </p>
+ *
+ * <p>
+ * A word is read from the file the first time a lookup returns it, and is then
+ * kept in a cache of bounded size, from which the least recently used words
+ * are dropped. Memory use therefore grows with the vocabulary actually used
+ * rather than with the size of the lexicon. A word dropped from the cache and
+ * looked up again is read again, so the same entry may be returned as
+ * different, equal, objects over time.
+ * </p>
+ *
+ * <p>
+ * Lookups of unknown words create words that are not added to the lexicon,
+ * which never changes once opened. Lookups may be made from several threads.
+ * </p>
+ *
+ * @author R. de Oliveira
+ */
+public class LazyLexicon extends Lexicon {
+
+	/** Number of words kept in the cache unless specified otherwise. */
+	public static final int DEFAULT_CACHE_SIZE = 10000;
+
+	private static final LexicalCategory[] CATEGORIES = LexicalCategory.values();
+
+	private final LexiconFile file;
+
+	// open addressing table from the hash of a key to its string index + 1
+	private final int[] slots;
+	private final int[] slotHashes;
+
+	// words by base form and by variant, grouped by string index: the words
+	// of string s are at positions start[s] to start[s + 1] - 1
+	private final int[] baseStart;
+	private final int[] baseWords;
+	private final int[] variantStart;
+	private final int[] variantWords;
+
+	// word by ID string index, -1 if the string is not an ID
+	private final int[] idWords;
+
+	// category ordinal of each word, and words grouped by category ordinal
+	private final byte[] wordCategories;
+	private final int[] categoryStart;
+	private final int[] categoryWords;
+
+	// words already read, by index in the file
+	private final Map<Integer, WordElement> cache;
+
+	// indexes answering feature queries, by category ordinal; created when a
+	// category is first queried
+	private final FeatureIndex[] featureIndexes = new FeatureIndex[CATEGORIES.length];
+
+	/**********************************************************************/
+	// constructors
+	/**********************************************************************/
+
+	/**
+	 * Opens a compiled lexicon from a named file.
+	 *
+	 * @param filename
+	 *            the compiled lexicon
+	 * @throws IOException
+	 *             if the file cannot be read or is not a compiled lexicon of
+	 *             this version
+	 */
+	public LazyLexicon(String filename) throws IOException {
+		this(LexiconFile.map(new File(filename)), DEFAULT_CACHE_SIZE);
+	}
+
+	/**
+	 * Opens a compiled lexicon from a file.
+	 *
+	 * @param file
+	 *            the compiled lexicon
+	 * @throws IOException
+	 *             if the file cannot be read or is not a compiled lexicon of
+	 *             this version
+	 */
+	public LazyLexicon(File file) throws IOException {
+		this(LexiconFile.map(file), DEFAULT_CACHE_SIZE);
+	}
+
+	/**
+	 * Opens a compiled lexicon from a URI. Only <code>file:</code> URIs are
+	 * memory-mapped; others are read into memory first.
+	 *
+	 * @param lexiconURI
+	 *            the compiled lexicon
+	 * @throws IOException
+	 *             if the URI cannot be read or is not a compiled lexicon of
+	 *             this version
+	 */
+	public LazyLexicon(URI lexiconURI) throws IOException {
+		this(LexiconFile.map(lexiconURI), DEFAULT_CACHE_SIZE);
+	}
+
+	/**
+	 * Opens a compiled lexicon from a file, keeping a given number of words
+	 * in memory.
+	 *
+	 * @param file
+	 *            the compiled lexicon
+	 * @param cacheSize
+	 *            the largest number of words kept in memory
+	 * @throws IOException
+	 *             if the file cannot be read or is not a compiled lexicon of
+	 *             this version
+	 */
+	public LazyLexicon(File file, int cacheSize) throws IOException {
+		this(LexiconFile.map(file), cacheSize);
+	}
+
+	/**
+	 * Opens a compiled lexicon held in a buffer positioned at its first byte.
+	 *
+	 * @param buffer
+	 *            the compiled lexicon
+	 * @param cacheSize
+	 *            the largest number of words kept in memory
+	 * @throws IOException
+	 *             if the buffer does not hold a compiled lexicon of this
+	 *             version
+	 */
+	public LazyLexicon(ByteBuffer buffer, int cacheSize) throws IOException {
+		this(new LexiconFile(buffer), cacheSize);
+	}
+
+	/**
+	 * Builds the indexes of an opened file.
+	 */
+	private LazyLexicon(LexiconFile file, final int cacheSize) throws IOException {
+		super(file.getLanguage());
+		if (cacheSize < 1) {
+			throw new IllegalArgumentException("cache size must be positive: " + cacheSize);
+		}
+		this.file = file;
+		int wordCount = file.getWordCount();
+		int stringCount = file.getStringCount();
+
+		// read the keys of every word once
+		int[] bases = new int[wordCount];
+		int[][] variants = new int[wordCount][];
+		this.idWords = new int[stringCount];
+		Arrays.fill(this.idWords, -1);
+		this.wordCategories = new byte[wordCount];
+		int[] categoryCounts = new int[CATEGORIES.length];
+		int[] categoryByString = new int[stringCount];
+		Arrays.fill(categoryByString, -1);
+		for (int word = 0; word < wordCount; word++) {
+			bases[word] = file.getBaseReference(word);
+			variants[word] = file.getVariantReferences(word);
+			int id = file.getIdReference(word);
+			if (id != LexiconFile.NO_STRING) {
+				// a repeated ID names the last word, as in XMLLexicon
+				this.idWords[id] = word;
+			}
+			int categoryName = file.getCategoryReference(word);
+			if (categoryByString[categoryName] < 0) {
+				categoryByString[categoryName] =
+						LexicalCategory.valueOf(file.getString(categoryName)).ordinal();
+			}
+			this.wordCategories[word] = (byte) categoryByString[categoryName];
+			categoryCounts[categoryByString[categoryName]]++;
+		}
+
+		// group the words by base form, by variant and by category
+		this.baseStart = new int[stringCount + 1];
+		int baseCount = 0;
+		for (int base : bases) {
+			if (base != LexiconFile.NO_STRING) {
+				this.baseStart[base + 1]++;
+				baseCount++;
+			}
+		}
+		this.baseWords = group(this.baseStart, baseCount);
+		int[] next = Arrays.copyOf(this.baseStart, stringCount);
+		for (int word = 0; word < wordCount; word++) {
+			if (bases[word] != LexiconFile.NO_STRING) {
+				this.baseWords[next[bases[word]]++] = word;
+			}
+		}
+
+		this.variantStart = new int[stringCount + 1];
+		int variantCount = 0;
+		for (int[] wordVariants : variants) {
+			for (int variant : wordVariants) {
+				this.variantStart[variant + 1]++;
+				variantCount++;
+			}
+		}
+		this.variantWords = group(this.variantStart, variantCount);
+		next = Arrays.copyOf(this.variantStart, stringCount);
+		for (int word = 0; word < wordCount; word++) {
+			for (int variant : variants[word]) {
+				this.variantWords[next[variant]++] = word;
+			}
+		}
+
+		this.categoryStart = new int[CATEGORIES.length + 1];
+		System.arraycopy(categoryCounts, 0, this.categoryStart, 1, categoryCounts.length);
+		this.categoryWords = group(this.categoryStart, wordCount);
+		next = Arrays.copyOf(this.categoryStart, CATEGORIES.length);
+		for (int word = 0; word < wordCount; word++) {
+			this.categoryWords[next[this.wordCategories[word]]++] = word;
+		}
+
+		// hash every string that is a base form, a variant or an ID
+		int keyCount = 0;
+		for (int string = 0; string < stringCount; string++) {
+			if (isKey(string)) {
+				keyCount++;
+			}
+		}
+		int capacity = Integer.highestOneBit(Math.max(keyCount, 8) * 2 - 1) << 1;
+		this.slots = new int[capacity];
+		this.slotHashes = new int[capacity];
+		for (int string = 0; string < stringCount; string++) {
+			if (isKey(string)) {
+				int hash = file.hashString(string);
+				int slot = hash & (capacity - 1);
+				while (this.slots[slot] != 0) {
+					slot = (slot + 1) & (capacity - 1);
+				}
+				this.slots[slot] = string + 1;
+				this.slotHashes[slot] = hash;
+			}
+		}
+
+		this.cache = new LinkedHashMap<Integer, WordElement>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, WordElement> eldest) {
+				return size() > cacheSize;
+			}
+		};
+	}
+
+	/**
+	 * Turns counts stored at <code>start[s + 1]</code> into start positions.
+	 *
+	 * @return the array that will hold the grouped words
+	 */
+	private static int[] group(int[] start, int size) {
+		for (int i = 1; i < start.length; i++) {
+			start[i] += start[i - 1];
+		}
+		return new int[size];
+	}
+
+	/**
+	 * @return <code>true</code> if a string is the base form, a variant or
+	 *         the ID of a word
+	 */
+	private boolean isKey(int string) {
+		return this.baseStart[string + 1] > this.baseStart[string]
+				|| this.variantStart[string + 1] > this.variantStart[string]
+				|| this.idWords[string] >= 0;
+	}
+
+	/**
+	 * @return the string index of a key, or -1 if no word has it as base
+	 *         form, variant or ID
+	 */
+	private int findKey(String key) {
+		if (key == null) {
+			return -1;
+		}
+		byte[] bytes = key.getBytes(LexiconFile.UTF8);
+		int hash = LexiconFile.hash(bytes);
+		int mask = this.slots.length - 1;
+		for (int slot = hash & mask; this.slots[slot] != 0; slot = (slot + 1) & mask) {
+			if (this.slotHashes[slot] == hash
+					&& this.file.stringEquals(this.slots[slot] - 1, bytes)) {
+				return this.slots[slot] - 1;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns a word from the cache, reading it from the file if necessary.
+	 *
+	 * @param word
+	 *            index of the word in the file
+	 * @return the word
+	 */
+	private WordElement getWord(int word) {
+		synchronized (this.cache) {
+			WordElement element = this.cache.get(word);
+			if (element == null) {
+				try {
+					element = this.file.readWord(word, this, null);
+				} catch (IOException ex) {
+					throw new IllegalStateException("cannot read word " + word
+							+ " of the compiled lexicon", ex);
+				}
+				this.cache.put(word, element);
+			}
+			return element;
+		}
+	}
+
+	/**
+	 * @return the words at positions start[key] to start[key + 1] - 1 of a
+	 *         group that have the category, in file order
+	 */
+	private List<WordElement> getWords(int[] start, int[] words, int key,
+			LexicalCategory category) {
+		List<WordElement> result = new ArrayList<WordElement>();
+		if (key >= 0) {
+			for (int i = start[key]; i < start[key + 1]; i++) {
+				int word = words[i];
+				if (category == LexicalCategory.ANY
+						|| this.wordCategories[word] == category.ordinal()) {
+					result.add(getWord(word));
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return the first word at positions start[key] to start[key + 1] - 1 of
+	 *         a group that has the category, or <code>null</code> if there is
+	 *         none; no other word is read
+	 */
+	private WordElement findWord(int[] start, int[] words, int key,
+			LexicalCategory category) {
+		if (key >= 0) {
+			for (int i = start[key]; i < start[key + 1]; i++) {
+				int word = words[i];
+				if (category == LexicalCategory.ANY
+						|| this.wordCategories[word] == category.ordinal()) {
+					return getWord(word);
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return the number of words currently read and kept in memory
+	 */
+	public int getCachedWordCount() {
+		synchronized (this.cache) {
+			return this.cache.size();
+		}
+	}
+
+	/**
+	 * @return the number of words in the lexicon
+	 */
+	public int getWordCount() {
+		return this.file.getWordCount();
+	}
+
+	/******************************************************************************************/
+	// main methods to get data from lexicon
+	/******************************************************************************************/
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see simplenlg.lexicon.Lexicon#getWords(java.lang.String,
+	 * simplenlg.features.LexicalCategory)
+	 */
+	@Override
+	public List<WordElement> getWords(String baseForm, LexicalCategory category) {
+		return getWords(this.baseStart, this.baseWords, findKey(baseForm), category);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see simplenlg.lexicon.Lexicon#getWordsByID(java.lang.String)
+	 */
+	@Override
+	public List<WordElement> getWordsByID(String id) {
+		List<WordElement> result = new ArrayList<WordElement>();
+		int key = findKey(id);
+		if (key >= 0 && this.idWords[key] >= 0) {
+			result.add(getWord(this.idWords[key]));
+		}
+		return result;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see simplenlg.lexicon.Lexicon#getWordsFromVariant(java.lang.String,
+	 * simplenlg.features.LexicalCategory)
+	 */
+	@Override
+	public List<WordElement> getWordsFromVariant(String variant,
+			LexicalCategory category) {
+		return getWords(this.variantStart, this.variantWords, findKey(variant), category);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see simplenlg.lexicon.Lexicon#findWord(java.lang.String,
+	 * simplenlg.features.LexicalCategory)
+	 */
+	@Override
+	protected WordElement findWord(String baseForm, LexicalCategory category) {
+		return findWord(this.baseStart, this.baseWords, findKey(baseForm), category);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see simplenlg.lexicon.Lexicon#findWordByID(java.lang.String)
+	 */
+	@Override
+	protected WordElement findWordByID(String id) {
+		int key = findKey(id);
+		return key >= 0 && this.idWords[key] >= 0 ? getWord(this.idWords[key]) : null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see simplenlg.lexicon.Lexicon#findWordFromVariant(java.lang.String,
+	 * simplenlg.features.LexicalCategory)
+	 */
+	@Override
+	protected WordElement findWordFromVariant(String variant,
+			LexicalCategory category) {
+		return findWord(this.variantStart, this.variantWords, findKey(variant), category);
+	}
+
+	/**
+	 * Looks for a word by base form, variant and ID (in this order) with a
+	 * single probe of the string table, reading only the word returned.
+	 *
+	 * @see simplenlg.lexicon.Lexicon#resolveWord(java.lang.String,
+	 *      simplenlg.framework.LexicalCategory)
+	 */
+	@Override
+	public WordElement resolveWord(String baseForm, LexicalCategory category) {
+		int key = findKey(baseForm);
+		if (key < 0) {
+			return null;
+		}
+		WordElement word = findWord(this.baseStart, this.baseWords, key, category);
+		if (word == null) {
+			word = findWord(this.variantStart, this.variantWords, key, category);
+		}
+		if (word == null && this.idWords[key] >= 0) {
+			word = getWord(this.idWords[key]);
+		}
+		return word;
+	}
+
+	/**
+	 * Looks for all words in the lexicon matching the category and features
+	 * provided, as <code>XMLLexicon</code> does. The features are indexed
+	 * from the records of the file, so only the words returned are read.
+	 *
+	 * @param category	category of the returned WordElement
+	 * @param features	features and their corrsponding values that
+	 *					the WordElement returned must have (it can have others)
+	 * @return			list of all WordElements found that matches the argument
+	 */
+	@Override
+	public List<WordElement> getWords(LexicalCategory category,
+			Map<String, Object> features) {
+		if (features != null) {
+			return getFeatureIndex(category).getWords(features);
+		}
+		List<WordElement> result = new ArrayList<WordElement>();
+		boolean any = category == LexicalCategory.ANY;
+		int first = any ? 0 : this.categoryStart[category.ordinal()];
+		int last = any ? this.categoryWords.length : this.categoryStart[category.ordinal() + 1];
+		for (int i = first; i < last; i++) {
+			// all words are in file order, as in the XML lexicon
+			result.add(getWord(any ? i : this.categoryWords[i]));
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the index answering feature queries on a category, creating it if
+	 * necessary. The positions of the index are those of the words of the
+	 * category in file order.
+	 *
+	 * @param category
+	 *            the category, or <code>ANY</code> for the whole lexicon
+	 * @return the index
+	 */
+	private FeatureIndex getFeatureIndex(LexicalCategory category) {
+		synchronized (this.featureIndexes) {
+			FeatureIndex index = this.featureIndexes[category.ordinal()];
+			if (index == null) {
+				final boolean any = category == LexicalCategory.ANY;
+				final int first = any ? 0 : this.categoryStart[category.ordinal()];
+				int last = any ? this.categoryWords.length : this.categoryStart[category.ordinal() + 1];
+				index = new FeatureIndex(last - first) {
+
+					@Override
+					protected Object getFeature(int position, String feature) {
+						int word = any ? position : LazyLexicon.this.categoryWords[first + position];
+						try {
+							return LazyLexicon.this.file.readFeature(word, feature);
+						} catch (IOException ex) {
+							throw new IllegalStateException("cannot read word " + word
+									+ " of the compiled lexicon", ex);
+						}
+					}
+
+					@Override
+					protected WordElement getWord(int position) {
+						return LazyLexicon.this.getWord(any ? position
+								: LazyLexicon.this.categoryWords[first + position]);
+					}
+				};
+				this.featureIndexes[category.ordinal()] = index;
+			}
+			return index;
+		}
+	}
+}
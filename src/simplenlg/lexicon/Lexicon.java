@@ -82,6 +82,13 @@ public abstract class Lexicon {
 	// The language of this lexicon.
 	// added by vaudrypl 
 	private final Language language;
+
+	// how words not in the lexicon are handled by the lookup methods
+	private volatile UnknownWordPolicy unknownWordPolicy = UnknownWordPolicy.OVERLAY;
+
+	// words not in the lexicon, under the OVERLAY policy
+	private final UnknownWordOverlay unknownWords =
+			new UnknownWordOverlay(UnknownWordOverlay.DEFAULT_CAPACITY);
 	
 	/****************************************************************************/
 	// constructors and related
@@ -167,13 +174,67 @@ public abstract class Lexicon {
 		// baseForm
 	}
 
+	/**
+	 * Returns a word for a base form the lexicon does not contain, following
+	 * the unknown word policy. The word is never added to the lexicon.
+	 * 
+	 * @param baseForm
+	 *            - base form of word
+	 * @param category
+	 *            - category of word, or <code>null</code> to create it
+	 *            without one
+	 * @return WordElement entry for specified info
+	 */
+	protected WordElement unknownWord(String baseForm, LexicalCategory category) {
+		if (this.unknownWordPolicy == UnknownWordPolicy.OVERLAY) {
+			return this.unknownWords.getWord(this, baseForm, category);
+		} else if (category != null) {
+			return createWord(baseForm, category);
+		} else {
+			return createWord(baseForm);
+		}
+	}
+
+	/**
+	 * Sets how the lookup methods handle words not in the lexicon. Changing
+	 * the policy does not empty the overlay of unknown words.
+	 * 
+	 * @param policy
+	 *            the new policy
+	 */
+	public void setUnknownWordPolicy(UnknownWordPolicy policy) {
+		if (policy == null) {
+			throw new IllegalArgumentException("null unknown word policy");
+		}
+		this.unknownWordPolicy = policy;
+	}
+
+	/**
+	 * @return how the lookup methods handle words not in the lexicon,
+	 *         <code>OVERLAY</code> by default
+	 */
+	public UnknownWordPolicy getUnknownWordPolicy() {
+		return this.unknownWordPolicy;
+	}
+
+	/**
+	 * Gets the overlay holding the words created for lookups of words not in
+	 * the lexicon, through which its capacity can be set and its size and hit
+	 * rate monitored.
+	 * 
+	 * @return the overlay of unknown words
+	 */
+	public UnknownWordOverlay getUnknownWords() {
+		return this.unknownWords;
+	}
+
 	/***************************************************************************/
 	// default methods for looking up words
 	// These try the following (in this order)
 	// 1) word with matching base
 	// 2) word with matching variant
 	// 3) word with matching ID
-	// 4) create a new word
+	// 4) create a new word, see unknownWord()
 	/***************************************************************************/
 
 	/**
@@ -185,14 +246,33 @@ public abstract class Lexicon {
 	 * @return word
 	 */
 	public WordElement lookupWord(String baseForm, LexicalCategory category) {
-		if (hasWord(baseForm, category))
-			return getWord(baseForm, category);
-		else if (hasWordFromVariant(baseForm, category))
-			return getWordFromVariant(baseForm, category);
-		else if (hasWordByID(baseForm))
-			return getWordByID(baseForm);
+		WordElement word = resolveWord(baseForm, category);
+		if (word != null)
+			return word;
 		else
-			return createWord(baseForm, category);
+			return unknownWord(baseForm, category);
+	}
+
+	/**
+	 * Looks for a word by base form, variant and ID (in this order) like
+	 * <code>lookupWord()</code>, but returns <code>null</code> instead of
+	 * creating a word if none is found. Each step probes the lexicon once and
+	 * stops at the first match. Lexicons able to resolve a word in fewer
+	 * probes, such as by sharing a query between steps, may override this
+	 * method.
+	 * 
+	 * @param baseForm
+	 * @param category
+	 *            - syntactic category of word (ANY for unknown)
+	 * @return the first matching word, or <code>null</code> if there is none
+	 */
+	public WordElement resolveWord(String baseForm, LexicalCategory category) {
+		WordElement word = findWord(baseForm, category);
+		if (word == null)
+			word = findWordFromVariant(baseForm, category);
+		if (word == null)
+			word = findWordByID(baseForm);
+		return word;
 	}
 
 	/**
@@ -225,6 +305,21 @@ public abstract class Lexicon {
 	abstract public List<WordElement> getWords(String baseForm,
 			LexicalCategory category);
 
+	/**
+	 * returns the first Word which has the specified base form and category,
+	 * without creating one if there is none. Lexicons may override this to
+	 * avoid building the list of all matches.
+	 * 
+	 * @param baseForm
+	 *            - base form of word, eg "be" or "dog" (not "is" or "dogs")
+	 * @param category
+	 *            - syntactic category of word (ANY for unknown)
+	 * @return the first matching Word, or <code>null</code> if there is none
+	 */
+	protected WordElement findWord(String baseForm, LexicalCategory category) {
+		return firstWord(getWords(baseForm, category));
+	}
+
 	/**
 	 * get a WordElement which has the specified base form and category
 	 * 
@@ -243,13 +338,13 @@ public abstract class Lexicon {
 		// from
 		// other
 		// methods
-		List<WordElement> wordElements = getWords(baseForm, category);
-		if (wordElements.isEmpty())
-			return createWord(baseForm, category); // return default WordElement
+		WordElement wordElement = findWord(baseForm, category);
+		if (wordElement == null)
+			return unknownWord(baseForm, category); // return default WordElement
 		// of this baseForm,
 		// category
 		else
-			return wordElements.get(0); // else return first match
+			return wordElement; // else return first match
 	}
 
 	/**
@@ -269,7 +364,7 @@ public abstract class Lexicon {
 		// other
 		// methods)
 		// {
-		return !getWords(baseForm, category).isEmpty();
+		return findWord(baseForm, category) != null;
 	}
 
 	/**
@@ -297,13 +392,13 @@ public abstract class Lexicon {
 	 */
 	public WordElement getWord(String baseForm) { // convenience method derived
 		// from other methods
-		List<WordElement> wordElements = getWords(baseForm);
+		WordElement wordElement = findWord(baseForm, LexicalCategory.ANY);
 
-		if (wordElements.isEmpty())
-			return createWord(baseForm); // return default WordElement of this
+		if (wordElement == null)
+			return unknownWord(baseForm, null); // return default WordElement of this
 		// baseForm
 		else
-			return wordElements.get(0); // else return first match
+			return wordElement; // else return first match
 	}
 
 	/**
@@ -316,7 +411,7 @@ public abstract class Lexicon {
 	 */
 	public boolean hasWord(String baseForm) {// convenience method derived from
 		// other methods) {
-		return !getWords(baseForm).isEmpty();
+		return findWord(baseForm, LexicalCategory.ANY) != null;
 	}
 
 	/****************************************************************************/
@@ -340,6 +435,19 @@ public abstract class Lexicon {
 	 */
 	abstract public List<WordElement> getWordsByID(String id);
 
+	/**
+	 * returns the first Word which has the specified ID, without creating one
+	 * if there is none. Lexicons may override this to avoid building the list
+	 * of all matches.
+	 * 
+	 * @param id
+	 *            - internal lexicon ID for a word
+	 * @return the first matching Word, or <code>null</code> if there is none
+	 */
+	protected WordElement findWordByID(String id) {
+		return firstWord(getWordsByID(id));
+	}
+
 	/**
 	 * get a WordElement with the specified ID
 	 * 
@@ -349,12 +457,12 @@ public abstract class Lexicon {
 	 *         created with the ID as the base form
 	 */
 	public WordElement getWordByID(String id) {
-		List<WordElement> wordElements = getWordsByID(id);
-		if (wordElements.isEmpty())
-			return createWord(id); // return WordElement based on ID; may help
+		WordElement wordElement = findWordByID(id);
+		if (wordElement == null)
+			return unknownWord(id, null); // return WordElement based on ID; may help
 		// in debugging...
 		else
-			return wordElements.get(0); // else return first match
+			return wordElement; // else return first match
 	}
 
 	/**
@@ -367,7 +475,7 @@ public abstract class Lexicon {
 	 */
 	public boolean hasWordByID(String id) {// convenience method derived from
 		// other methods) {
-		return !getWordsByID(id).isEmpty();
+		return findWordByID(id) != null;
 	}
 
 	/****************************************************************************/
@@ -398,6 +506,22 @@ public abstract class Lexicon {
 	abstract public List<WordElement> getWordsFromVariant(String variant,
 			LexicalCategory category);
 
+	/**
+	 * returns the first Word which has the specified inflectional or spelling
+	 * variant and category, without creating one if there is none. Lexicons
+	 * may override this to avoid building the list of all matches.
+	 * 
+	 * @param variant
+	 *            - base form of word, eg "be" or "dog" (not "is" or "dogs")
+	 * @param category
+	 *            - syntactic category of word (ANY for unknown)
+	 * @return the first matching Word, or <code>null</code> if there is none
+	 */
+	protected WordElement findWordFromVariant(String variant,
+			LexicalCategory category) {
+		return firstWord(getWordsFromVariant(variant, category));
+	}
+
 	/**
 	 * returns a WordElement which has the specified inflected form and/or
 	 * spelling variant that matches the specified variant, of the specified
@@ -412,13 +536,13 @@ public abstract class Lexicon {
 	 */
 	public WordElement getWordFromVariant(String variant,
 			LexicalCategory category) {
-		List<WordElement> wordElements = getWordsFromVariant(variant, category);
-		if (wordElements.isEmpty())
-			return createWord(variant, category); // return default WordElement
+		WordElement wordElement = findWordFromVariant(variant, category);
+		if (wordElement == null)
+			return unknownWord(variant, category); // return default WordElement
 		// using variant as base
 		// form
 		else
-			return wordElements.get(0); // else return first match
+			return wordElement; // else return first match
 
 	}
 
@@ -439,7 +563,7 @@ public abstract class Lexicon {
 		// other
 		// methods)
 		// {
-		return !getWordsFromVariant(variant, category).isEmpty();
+		return findWordFromVariant(variant, category) != null;
 	}
 
 	/**
@@ -467,12 +591,12 @@ public abstract class Lexicon {
 	 *         created using thie variant as the base form
 	 */
 	public WordElement getWordFromVariant(String variant) {
-		List<WordElement> wordElements = getWordsFromVariant(variant);
-		if (wordElements.isEmpty())
-			return createWord(variant); // return default WordElement using
+		WordElement wordElement = findWordFromVariant(variant, LexicalCategory.ANY);
+		if (wordElement == null)
+			return unknownWord(variant, null); // return default WordElement using
 		// variant as base form
 		else
-			return wordElements.get(0); // else return first match
+			return wordElement; // else return first match
 	}
 
 	/**
@@ -486,13 +610,24 @@ public abstract class Lexicon {
 	public boolean hasWordFromVariant(String variant) {// convenience method
 		// derived from other
 		// methods) {
-		return !getWordsFromVariant(variant).isEmpty();
+		return findWordFromVariant(variant, LexicalCategory.ANY) != null;
 	}
 
 	/****************************************************************************/
 	// other methods
 	/****************************************************************************/
 
+	/**
+	 * @return the first word of a list, or <code>null</code> if the list is
+	 *         empty or <code>null</code>
+	 */
+	private static WordElement firstWord(List<WordElement> words) {
+		if (words == null || words.isEmpty())
+			return null;
+		else
+			return words.get(0);
+	}
+
 	/**
 	 * close the lexicon (if necessary) if lexicon does not need to be closed,
 	 * this does nothing
@@ -627,6 +762,34 @@ public abstract class Lexicon {
 		throw new UnsupportedOperationException("Method not implemented.");
 	}
 	
+	/**
+	 * Says if a word matches the features of a query made through
+	 * <code>getWords(LexicalCategory, Map)</code>.
+	 * 
+	 * @param word		the word to check
+	 * @param features	features and their corrsponding values that
+	 *					the word must have (it can have others)
+	 * @return			<code>true</code> if the word matches
+	 * 
+	 * @author vaudrypl
+	 */
+	protected static boolean hasFeatures(WordElement word,
+			Map<String, Object> features) {
+/*		Doesn't match if the following is not true for
+		at least one feature received as argument :
+		The word has this feature and its corresponding value OR
+		The value of this feature is null or Boolean.FALSE and the word
+		doesn't have this feature at all.
+*/		for (Map.Entry<String, Object> entry : features.entrySet()) {
+			Object value = word.getFeature(entry.getKey());
+			if (value != null ? !value.equals(entry.getValue())
+					: !(entry.getValue() == null || entry.getValue() == Boolean.FALSE)) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
 	/**
 	 * Looks for a word in the lexicon matching the category and features
 	 * provided. Make sure to override getWordsByCategoryAndFeatures()
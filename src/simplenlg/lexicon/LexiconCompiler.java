@@ -0,0 +1,315 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Pierre-Luc Vaudry.
+ */
+
+package simplenlg.lexicon;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import simplenlg.framework.Language;
+import simplenlg.framework.LexicalCategory;
+import simplenlg.framework.WordElement;
+
+/**
+ * <p>
+ * This class writes the words of a loaded <code>XMLLexicon</code> to the
+ * binary format read by {@link CompiledLexicon}. The words are written in the
+ * order they were added to the lexicon, each with its features and the
+ * variants it is indexed under, so that the compiled lexicon gives the same
+ * answers as the XML one without running the language-specific morphology
+ * again when it is loaded.
+ * </p>
+ *
+ * <p>
+ * The file is laid out as follows, all numbers being big-endian:
+ * <OL>
+ * <LI>the header: magic number, format version, language code;
+ * <LI>the string table: number of strings, number of feature names, size of
+ * the table in bytes, then each string as a length and its UTF-8 bytes. Every
+ * base form, feature name and feature value appears once, feature names
+ * first so that only they are interned when loading;
+ * <LI>the word section: number of words, the offset of each word record from
+ * the end of this offset table, then the word records. A record holds string
+ * references to the base form, category and ID, the variants, and the
+ * features, each feature value preceded by a tag giving its type.
+ * </OL>
+ * Feature values may be strings, booleans, lists of strings or enum
+ * constants, which are all the types found in the lexicons of this release.
+ * </p>
+ *
+ * <p>
+ * The lexicon can be compiled from the command line:
+ * <code>java simplenlg.lexicon.LexiconCompiler pt lexicon.xml lexicon.bin</code>
+ * </p>
+ *
+ * @author R. de Oliveira
+ */
+public class LexiconCompiler {
+
+	// the strings referenced so far, with their index in the table
+	private final Map<String, Integer> strings = new LinkedHashMap<String, Integer>();
+
+	/**
+	 * Compiles a lexicon to a file.
+	 *
+	 * @param lexicon
+	 *            the loaded lexicon
+	 * @param file
+	 *            the file to write
+	 * @throws IOException
+	 */
+	public static void compile(XMLLexicon lexicon, File file) throws IOException {
+		OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
+		try {
+			compile(lexicon, out);
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Compiles a lexicon to a stream. The stream is not closed.
+	 *
+	 * @param lexicon
+	 *            the loaded lexicon
+	 * @param out
+	 *            the stream to write to
+	 * @throws IOException
+	 * @throws IllegalArgumentException
+	 *             if a feature value has a type the format cannot hold
+	 */
+	public static void compile(XMLLexicon lexicon, OutputStream out) throws IOException {
+		new LexiconCompiler().write(lexicon, out);
+	}
+
+	/**
+	 * Writes the header, the string table and the word section.
+	 */
+	private void write(XMLLexicon lexicon, OutputStream out) throws IOException {
+		List<WordElement> words = lexicon.getWords(LexicalCategory.ANY, null);
+		Map<WordElement, List<String>> variants = collectVariants(lexicon);
+
+		// feature names take the first places in the string table
+		for (WordElement word : words) {
+			for (String feature : word.getAllFeatures().keySet()) {
+				reference(feature);
+			}
+		}
+		int featureNames = strings.size();
+
+		// encode the words, which fills the rest of the string table
+		ByteArrayOutputStream records = new ByteArrayOutputStream();
+		DataOutputStream recordData = new DataOutputStream(records);
+		int[] offsets = new int[words.size()];
+		for (int i = 0; i < offsets.length; i++) {
+			offsets[i] = recordData.size();
+			WordElement word = words.get(i);
+			List<String> wordVariants = variants.get(word);
+			writeWord(recordData, word,
+					wordVariants != null ? wordVariants : new ArrayList<String>());
+		}
+		recordData.flush();
+
+		ByteArrayOutputStream table = new ByteArrayOutputStream();
+		DataOutputStream tableData = new DataOutputStream(table);
+		for (String string : strings.keySet()) {
+			writeString(tableData, string);
+		}
+		tableData.flush();
+
+		DataOutputStream data = new DataOutputStream(out);
+		data.writeInt(LexiconFile.MAGIC);
+		data.writeShort(LexiconFile.VERSION);
+		writeString(data, lexicon.getLanguage().code);
+		data.writeInt(strings.size());
+		data.writeInt(featureNames);
+		data.writeInt(table.size());
+		table.writeTo(data);
+		data.writeInt(offsets.length);
+		for (int offset : offsets) {
+			data.writeInt(offset);
+		}
+		records.writeTo(data);
+		data.flush();
+	}
+
+	/**
+	 * Turns the index from variants to words around, keeping the order in
+	 * which the variants appear in the index.
+	 *
+	 * @param lexicon
+	 * @return the variants of each word
+	 */
+	private static Map<WordElement, List<String>> collectVariants(XMLLexicon lexicon) {
+		// words are compared by identity, distinct entries may be equal
+		Map<WordElement, List<String>> variants = new IdentityHashMap<WordElement, List<String>>();
+		for (Map.Entry<String, List<WordElement>> entry : lexicon.getVariantIndex().entrySet()) {
+			for (WordElement word : entry.getValue()) {
+				List<String> wordVariants = variants.get(word);
+				if (wordVariants == null) {
+					wordVariants = new ArrayList<String>();
+					variants.put(word, wordVariants);
+				}
+				if (!wordVariants.contains(entry.getKey())) {
+					wordVariants.add(entry.getKey());
+				}
+			}
+		}
+		return variants;
+	}
+
+	/**
+	 * Writes one word record.
+	 */
+	private void writeWord(DataOutputStream data, WordElement word,
+			List<String> variants) throws IOException {
+		data.writeInt(reference(word.getBaseForm()));
+		data.writeInt(reference(((LexicalCategory) word.getCategory()).name()));
+		data.writeInt(reference(word.getId()));
+
+		data.writeInt(variants.size());
+		for (String variant : variants) {
+			data.writeInt(reference(variant));
+		}
+
+		Map<String, Object> features = word.getAllFeatures();
+		data.writeInt(features.size());
+		for (Map.Entry<String, Object> feature : features.entrySet()) {
+			data.writeInt(reference(feature.getKey()));
+			writeValue(data, word, feature.getKey(), feature.getValue());
+		}
+	}
+
+	/**
+	 * Writes a feature value preceded by its type tag.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the value has a type the format cannot hold
+	 */
+	private void writeValue(DataOutputStream data, WordElement word,
+			String feature, Object value) throws IOException {
+		if (value instanceof String) {
+			data.writeByte(LexiconFile.TAG_STRING);
+			data.writeInt(reference((String) value));
+		} else if (value instanceof Boolean) {
+			data.writeByte(((Boolean) value).booleanValue()
+					? LexiconFile.TAG_TRUE : LexiconFile.TAG_FALSE);
+		} else if (value instanceof Enum<?>) {
+			Enum<?> constant = (Enum<?>) value;
+			data.writeByte(LexiconFile.TAG_ENUM);
+			data.writeInt(reference(constant.getDeclaringClass().getName()));
+			data.writeInt(reference(constant.name()));
+		} else if (value instanceof List<?> && isStringList((List<?>) value)) {
+			List<?> list = (List<?>) value;
+			data.writeByte(LexiconFile.TAG_STRING_LIST);
+			data.writeInt(list.size());
+			for (Object element : list) {
+				data.writeInt(reference((String) element));
+			}
+		} else {
+			throw new IllegalArgumentException("cannot compile value " + value
+					+ " of feature " + feature + " of " + word.getBaseForm());
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if all the elements of the list are strings
+	 */
+	private static boolean isStringList(List<?> list) {
+		for (Object element : list) {
+			if (!(element instanceof String)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return the index of a string in the table, adding it if necessary, or
+	 *         <code>NO_STRING</code> for <code>null</code>
+	 */
+	private int reference(String string) {
+		if (string == null) {
+			return LexiconFile.NO_STRING;
+		}
+		Integer index = strings.get(string);
+		if (index == null) {
+			index = strings.size();
+			strings.put(string, index);
+		}
+		return index;
+	}
+
+	/**
+	 * Writes a string as its length in bytes followed by its UTF-8 encoding.
+	 */
+	private static void writeString(DataOutputStream data, String string) throws IOException {
+		byte[] bytes = string.getBytes(LexiconFile.UTF8);
+		data.writeInt(bytes.length);
+		data.write(bytes);
+	}
+
+	/**
+	 * Compiles an XML lexicon from the command line, exiting with status 1 if
+	 * the arguments are wrong or the lexicon cannot be written.
+	 *
+	 * @param args
+	 *            the ISO 639-1 code of the language of the lexicon, the XML
+	 *            lexicon and the file to write
+	 */
+	public static void main(String[] args) {
+		if (args.length != 3) {
+			System.err.println("usage: LexiconCompiler <language code> <lexicon.xml> <output file>");
+			System.exit(1);
+		}
+		Language language = Language.convertCodeToLanguage(args[0]);
+		File xmlFile = new File(args[1]);
+		XMLLexicon lexicon;
+		if (language == null) {
+			System.err.println("unknown language code: " + args[0]);
+			System.exit(1);
+		}
+		switch (language) {
+		case PORTUGUESE:
+			lexicon = new simplenlg.lexicon.portuguese.XMLLexicon(xmlFile);
+			break;
+		case FRENCH:
+			lexicon = new simplenlg.lexicon.french.XMLLexicon(xmlFile);
+			break;
+		default:
+			lexicon = new simplenlg.lexicon.english.XMLLexicon(xmlFile);
+		}
+		try {
+			compile(lexicon, new File(args[2]));
+		} catch (IOException ex) {
+			System.err.println(ex.toString());
+			System.exit(1);
+		}
+	}
+}
@@ -0,0 +1,516 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Pierre-Luc Vaudry.
+ */
+
+package simplenlg.lexicon;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import simplenlg.framework.Language;
+import simplenlg.framework.LexicalCategory;
+import simplenlg.framework.WordElement;
+
+/**
+ * This class gives access to the content of a lexicon written by
+ * {@link LexiconCompiler}: its header, its string table and its word records.
+ * All reads use absolute positions in the buffer, so one instance can be read
+ * from several threads at once. The layout of the file is described in
+ * <code>LexiconCompiler</code>.
+ *
+ * @author R. de Oliveira
+ */
+class LexiconFile {
+
+	/** First four bytes of a compiled lexicon: "SNLX". */
+	static final int MAGIC = 0x534E4C58;
+
+	/** Version of the format written by this release. */
+	static final short VERSION = 1;
+
+	// tags of the feature value types
+	static final byte TAG_STRING = 1;
+	static final byte TAG_TRUE = 2;
+	static final byte TAG_FALSE = 3;
+	static final byte TAG_STRING_LIST = 4;
+	static final byte TAG_ENUM = 5;
+
+	/** Reference to the absence of a string, such as a word without ID. */
+	static final int NO_STRING = -1;
+
+	/** Encoding of the strings of the file. */
+	static final Charset UTF8 = Charset.forName("UTF-8");
+
+	// position of the fields of a word record that come before the variants
+	private static final int RECORD_BASE = 0;
+	private static final int RECORD_CATEGORY = 4;
+	private static final int RECORD_ID = 8;
+	private static final int RECORD_VARIANTS = 12;
+
+	private final ByteBuffer buffer;
+
+	private final Language language;
+
+	// position of the length of each string
+	private final int[] stringPositions;
+
+	// strings already decoded; feature names always are
+	private final String[] strings;
+
+	private final int wordCount;
+
+	// position of the offset table and of the first word record
+	private final int offsetTable;
+	private final int firstRecord;
+
+	// enum constants already restored, by class name and then by constant name
+	private final ConcurrentMap<String, Map<String, Enum<?>>> enums =
+			new ConcurrentHashMap<String, Map<String, Enum<?>>>();
+
+	/**
+	 * Reads the header and locates the strings and the words.
+	 *
+	 * @param buffer
+	 *            the compiled lexicon, from its first byte
+	 * @throws IOException
+	 *             if the buffer does not hold a compiled lexicon of this
+	 *             version
+	 */
+	LexiconFile(ByteBuffer buffer) throws IOException {
+		this.buffer = buffer;
+		int start = buffer.position();
+		if (buffer.remaining() < 6 || buffer.getInt(start) != MAGIC) {
+			throw new IOException("not a compiled lexicon");
+		}
+		short version = buffer.getShort(start + 4);
+		if (version != VERSION) {
+			throw new IOException("unsupported compiled lexicon version "
+					+ version + ", expected " + VERSION);
+		}
+		int position = start + 6;
+		this.language = Language.convertCodeToLanguage(decode(position));
+		if (this.language == null) {
+			throw new IOException("unknown language in compiled lexicon");
+		}
+		position += 4 + buffer.getInt(position);
+
+		int stringCount = buffer.getInt(position);
+		int featureNames = buffer.getInt(position + 4);
+		position += 12;
+		this.stringPositions = new int[stringCount];
+		this.strings = new String[stringCount];
+		for (int i = 0; i < stringCount; i++) {
+			this.stringPositions[i] = position;
+			if (i < featureNames) {
+				// the same objects as the feature constants
+				this.strings[i] = decode(position).intern();
+			}
+			position += 4 + buffer.getInt(position);
+		}
+
+		this.wordCount = buffer.getInt(position);
+		this.offsetTable = position + 4;
+		this.firstRecord = this.offsetTable + 4 * this.wordCount;
+	}
+
+	/**
+	 * Maps a file into memory.
+	 *
+	 * @param file
+	 * @return a read-only buffer over the whole file
+	 * @throws IOException
+	 */
+	static ByteBuffer map(File file) throws IOException {
+		FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		try {
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		} finally {
+			// the mapping stays valid once the channel is closed
+			channel.close();
+		}
+	}
+
+	/**
+	 * Maps a URI into memory if it names a file, or reads it whole otherwise.
+	 *
+	 * @param uri
+	 * @return a buffer over the whole content
+	 * @throws IOException
+	 */
+	static ByteBuffer map(URI uri) throws IOException {
+		if ("file".equalsIgnoreCase(uri.getScheme())) {
+			return map(Paths.get(uri).toFile());
+		}
+		InputStream in = uri.toURL().openStream();
+		try {
+			ByteArrayOutputStream content = new ByteArrayOutputStream();
+			byte[] chunk = new byte[8192];
+			int read;
+			while ((read = in.read(chunk)) != -1) {
+				content.write(chunk, 0, read);
+			}
+			return ByteBuffer.wrap(content.toByteArray());
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * @return the language of the lexicon
+	 */
+	Language getLanguage() {
+		return this.language;
+	}
+
+	/**
+	 * @return the number of words in the file
+	 */
+	int getWordCount() {
+		return this.wordCount;
+	}
+
+	/**
+	 * @return the number of strings in the string table
+	 */
+	int getStringCount() {
+		return this.strings.length;
+	}
+
+	/**
+	 * Decodes every string of the table and keeps them, so that words read
+	 * afterwards share equal strings.
+	 */
+	void decodeAllStrings() {
+		for (int i = 0; i < this.strings.length; i++) {
+			if (this.strings[i] == null) {
+				this.strings[i] = decode(this.stringPositions[i]);
+			}
+		}
+	}
+
+	/**
+	 * @param index
+	 *            index in the string table, or <code>NO_STRING</code>
+	 * @return the string, or <code>null</code> for <code>NO_STRING</code>
+	 */
+	String getString(int index) {
+		if (index == NO_STRING) {
+			return null;
+		}
+		String string = this.strings[index];
+		return string != null ? string : decode(this.stringPositions[index]);
+	}
+
+	/**
+	 * Hashes a string of the table without decoding it.
+	 *
+	 * @param index
+	 *            index in the string table
+	 * @return the same value as <code>hash()</code> of the UTF-8 encoding
+	 */
+	int hashString(int index) {
+		int position = this.stringPositions[index];
+		int length = this.buffer.getInt(position);
+		int hash = 0x811C9DC5;
+		for (int i = position + 4; i < position + 4 + length; i++) {
+			hash = (hash ^ (this.buffer.get(i) & 0xFF)) * 0x01000193;
+		}
+		return hash;
+	}
+
+	/**
+	 * FNV-1a hash of a byte sequence, the hash used by
+	 * <code>hashString()</code>.
+	 *
+	 * @param bytes
+	 * @return the hash
+	 */
+	static int hash(byte[] bytes) {
+		int hash = 0x811C9DC5;
+		for (byte b : bytes) {
+			hash = (hash ^ (b & 0xFF)) * 0x01000193;
+		}
+		return hash;
+	}
+
+	/**
+	 * Compares a string of the table with a UTF-8 encoded string without
+	 * decoding it.
+	 *
+	 * @param index
+	 *            index in the string table
+	 * @param bytes
+	 *            the encoded string
+	 * @return <code>true</code> if they are the same string
+	 */
+	boolean stringEquals(int index, byte[] bytes) {
+		int position = this.stringPositions[index];
+		if (this.buffer.getInt(position) != bytes.length) {
+			return false;
+		}
+		for (int i = 0; i < bytes.length; i++) {
+			if (this.buffer.get(position + 4 + i) != bytes[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return the position of the record of a word
+	 */
+	private int recordPosition(int word) {
+		return this.firstRecord + this.buffer.getInt(this.offsetTable + 4 * word);
+	}
+
+	/**
+	 * @return the string index of the base form of a word
+	 */
+	int getBaseReference(int word) {
+		return this.buffer.getInt(recordPosition(word) + RECORD_BASE);
+	}
+
+	/**
+	 * @return the string index of the category name of a word
+	 */
+	int getCategoryReference(int word) {
+		return this.buffer.getInt(recordPosition(word) + RECORD_CATEGORY);
+	}
+
+	/**
+	 * @return the string index of the ID of a word, or <code>NO_STRING</code>
+	 */
+	int getIdReference(int word) {
+		return this.buffer.getInt(recordPosition(word) + RECORD_ID);
+	}
+
+	/**
+	 * @return the string indexes of the variants of a word
+	 */
+	int[] getVariantReferences(int word) {
+		int position = recordPosition(word) + RECORD_VARIANTS;
+		int[] variants = new int[this.buffer.getInt(position)];
+		for (int i = 0; i < variants.length; i++) {
+			variants[i] = this.buffer.getInt(position + 4 + 4 * i);
+		}
+		return variants;
+	}
+
+	/**
+	 * Reads one word record: base form, category, ID, variants and features.
+	 *
+	 * @param word
+	 *            the index of the word in the file
+	 * @param lexicon
+	 *            the lexicon the word belongs to
+	 * @param variants
+	 *            list to which the variants of the word are added, or
+	 *            <code>null</code> if they are not needed
+	 * @return the word
+	 * @throws IOException
+	 *             if a feature value cannot be restored
+	 */
+	WordElement readWord(int word, Lexicon lexicon, List<String> variants) throws IOException {
+		ByteBuffer in = this.buffer.duplicate();
+		in.position(recordPosition(word));
+
+		String base = getString(in.getInt());
+		LexicalCategory category = LexicalCategory.valueOf(getString(in.getInt()));
+		String id = getString(in.getInt());
+		WordElement element = new WordElement(base, category, id, lexicon);
+
+		int variantCount = in.getInt();
+		if (variants == null) {
+			in.position(in.position() + 4 * variantCount);
+		} else {
+			for (int i = 0; i < variantCount; i++) {
+				variants.add(getString(in.getInt()));
+			}
+		}
+
+		int featureCount = in.getInt();
+		for (int i = 0; i < featureCount; i++) {
+			String feature = getString(in.getInt());
+			element.setFeature(feature, readValue(in, feature, base));
+		}
+		return element;
+	}
+
+	/**
+	 * Reads one feature of a word record without reading the others or
+	 * building the word.
+	 *
+	 * @param word
+	 *            the index of the word in the file
+	 * @param feature
+	 *            the name of the feature
+	 * @return the value of the feature, or <code>null</code> if the word does
+	 *         not have it
+	 * @throws IOException
+	 *             if the value cannot be restored
+	 */
+	Object readFeature(int word, String feature) throws IOException {
+		ByteBuffer in = this.buffer.duplicate();
+		int position = recordPosition(word) + RECORD_VARIANTS;
+		in.position(position + 4 + 4 * this.buffer.getInt(position));
+
+		int featureCount = in.getInt();
+		for (int i = 0; i < featureCount; i++) {
+			String name = getString(in.getInt());
+			if (name.equals(feature)) {
+				return readValue(in, name, getString(getBaseReference(word)));
+			}
+			skipValue(in);
+		}
+		return null;
+	}
+
+	/**
+	 * Reads a feature value at the position of a buffer, after the name of
+	 * the feature.
+	 *
+	 * @param feature
+	 *            the name of the feature, for error messages
+	 * @param base
+	 *            the base form of the word, for error messages
+	 * @return the value
+	 * @throws IOException
+	 *             if the value cannot be restored
+	 */
+	private Object readValue(ByteBuffer in, String feature, String base) throws IOException {
+		byte tag = in.get();
+		switch (tag) {
+		case TAG_STRING:
+			return getString(in.getInt());
+		case TAG_TRUE:
+			return Boolean.TRUE;
+		case TAG_FALSE:
+			return Boolean.FALSE;
+		case TAG_STRING_LIST:
+			int size = in.getInt();
+			List<String> list = new ArrayList<String>(size);
+			for (int j = 0; j < size; j++) {
+				list.add(getString(in.getInt()));
+			}
+			return list;
+		case TAG_ENUM:
+			String className = getString(in.getInt());
+			return getEnum(className, getString(in.getInt()));
+		default:
+			throw new IOException("unknown value tag " + tag
+					+ " for feature " + feature + " of " + base);
+		}
+	}
+
+	/**
+	 * Moves the position of a buffer past a feature value.
+	 *
+	 * @throws IOException
+	 *             if the value has an unknown tag
+	 */
+	private static void skipValue(ByteBuffer in) throws IOException {
+		byte tag = in.get();
+		switch (tag) {
+		case TAG_STRING:
+			in.position(in.position() + 4);
+			break;
+		case TAG_TRUE:
+		case TAG_FALSE:
+			break;
+		case TAG_STRING_LIST:
+			in.position(in.position() + 4 + 4 * in.getInt(in.position()));
+			break;
+		case TAG_ENUM:
+			in.position(in.position() + 8);
+			break;
+		default:
+			throw new IOException("unknown value tag " + tag);
+		}
+	}
+
+	/**
+	 * Restores an enum constant from its class and constant names. The
+	 * constants of each class are looked up once and kept in a concurrent map,
+	 * so that readers do not wait for each other.
+	 *
+	 * @param className
+	 * @param constantName
+	 * @return the enum constant
+	 * @throws IOException
+	 *             if the class no longer exists or is not an enum, or if the
+	 *             constant no longer exists
+	 */
+	private Enum<?> getEnum(String className, String constantName) throws IOException {
+		Map<String, Enum<?>> constants = this.enums.get(className);
+		if (constants == null) {
+			Class<?> enumClass;
+			try {
+				enumClass = Class.forName(className);
+			} catch (ClassNotFoundException ex) {
+				throw new IOException("unknown enum class " + className, ex);
+			}
+			if (!enumClass.isEnum()) {
+				throw new IOException("not an enum class " + className);
+			}
+			constants = new HashMap<String, Enum<?>>();
+			for (Object constant : enumClass.getEnumConstants()) {
+				constants.put(((Enum<?>) constant).name(), (Enum<?>) constant);
+			}
+			Map<String, Enum<?>> previous = this.enums.putIfAbsent(className, constants);
+			if (previous != null) {
+				constants = previous;
+			}
+		}
+		Enum<?> value = constants.get(constantName);
+		if (value == null) {
+			throw new IOException("unknown constant " + constantName
+					+ " of enum " + className);
+		}
+		return value;
+	}
+
+	/**
+	 * Decodes a string written as its length in bytes followed by its UTF-8
+	 * encoding.
+	 *
+	 * @param position
+	 *            the position of the length
+	 * @return the string
+	 */
+	private String decode(int position) {
+		byte[] bytes = new byte[this.buffer.getInt(position)];
+		ByteBuffer in = this.buffer.duplicate();
+		in.position(position + 4);
+		in.get(bytes);
+		return new String(bytes, UTF8);
+	}
+}
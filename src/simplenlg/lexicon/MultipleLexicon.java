@@ -201,6 +201,48 @@ public class MultipleLexicon extends Lexicon {
 		return result;
 	}
 
+	/* (non-Javadoc)
+	 * Returns the first match of the first lexicon having one, which is also
+	 * the first word getWords() returns whether or not all lexicons are
+	 * searched. Lexicons after it are not queried.
+	 * @see simplenlg.lexicon.Lexicon#findWord(java.lang.String, simplenlg.features.LexicalCategory)
+	 */
+	@Override
+	protected WordElement findWord(String baseForm, LexicalCategory category) {
+		for (Lexicon lex: lexiconList) {
+			WordElement word = lex.findWord(baseForm, category);
+			if (word != null)
+				return word;
+		}
+		return null;
+	}
+
+	/* (non-Javadoc)
+	 * @see simplenlg.lexicon.Lexicon#findWordByID(java.lang.String)
+	 */
+	@Override
+	protected WordElement findWordByID(String id) {
+		for (Lexicon lex: lexiconList) {
+			WordElement word = lex.findWordByID(id);
+			if (word != null)
+				return word;
+		}
+		return null;
+	}
+
+	/* (non-Javadoc)
+	 * @see simplenlg.lexicon.Lexicon#findWordFromVariant(java.lang.String, simplenlg.features.LexicalCategory)
+	 */
+	@Override
+	protected WordElement findWordFromVariant(String variant, LexicalCategory category) {
+		for (Lexicon lex: lexiconList) {
+			WordElement word = lex.findWordFromVariant(variant, category);
+			if (word != null)
+				return word;
+		}
+		return null;
+	}
+
 
 	/**
 	 * Creates a default WordElement with the specified category
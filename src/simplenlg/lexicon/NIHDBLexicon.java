@@ -20,6 +20,7 @@ package simplenlg.lexicon;
 
 import gov.nih.nlm.nls.lexAccess.Api.LexAccessApi;
 import gov.nih.nlm.nls.lexAccess.Api.LexAccessApiResult;
+import gov.nih.nlm.nls.lexCheck.Gram.CheckFormatEui;
 import gov.nih.nlm.nls.lexCheck.Lib.AdjEntry;
 import gov.nih.nlm.nls.lexCheck.Lib.AdvEntry;
 import gov.nih.nlm.nls.lexCheck.Lib.InflVar;
@@ -29,9 +30,17 @@ import gov.nih.nlm.nls.lexCheck.Lib.VerbEntry;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Vector;
 
 import simplenlg.features.LexicalFeature;
@@ -56,6 +65,9 @@ public class NIHDBLexicon extends Lexicon {
 	private static String DB_HSQL_EXTENSION = ".data"; // filename extension for
 	// HSQL DB
 
+	// largest number of keys in the IN list of one batched query
+	private static final int BATCH_SIZE = 500;
+
 	// class variables
 	private Connection conn = null; // DB connection
 	private LexAccessApi lexdb = null; // Lexicon access object
@@ -207,6 +219,295 @@ public class NIHDBLexicon extends Lexicon {
 		return null;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#findWord(java.lang.String,
+	 * simplenlg.features.LexicalCategory)
+	 */
+	@Override
+	protected WordElement findWord(String baseForm, LexicalCategory category) {
+		try {
+			LexAccessApiResult lexResult = lexdb.GetLexRecordsByBase(baseForm,
+					LexAccessApi.B_EXACT);
+			return getFirstWordFromLexResult(category, lexResult);
+		} catch (SQLException ex) {
+			System.out.println("Lexical DB error: " + ex.toString());
+			// probably should thrown an exception
+		}
+		return null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#findWordByID(java.lang.String)
+	 */
+	@Override
+	protected WordElement findWordByID(String id) {
+		try {
+			LexAccessApiResult lexResult = lexdb.GetLexRecords(id);
+			return getFirstWordFromLexResult(LexicalCategory.ANY, lexResult);
+		} catch (SQLException ex) {
+			System.out.println("Lexical DB error: " + ex.toString());
+			// probably should thrown an exception
+		}
+		return null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#findWordFromVariant(java.lang.String,
+	 * simplenlg.features.LexicalCategory)
+	 */
+	@Override
+	protected WordElement findWordFromVariant(String variant,
+			LexicalCategory category) {
+		try {
+			LexAccessApiResult lexResult = lexdb.GetLexRecords(variant);
+			return getFirstWordFromLexResult(category, lexResult);
+		} catch (SQLException ex) {
+			System.out.println("Lexical DB error: " + ex.toString());
+			// probably should thrown an exception
+		}
+		return null;
+	}
+
+	/**
+	 * Looks for a word by base form, variant and ID (in this order). Variants
+	 * and IDs are both looked up with the same lexAccess query, so this makes
+	 * at most two queries to the DB instead of the three of the default
+	 * method, and only the word returned is built.
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#resolveWord(java.lang.String,
+	 *      simplenlg.features.LexicalCategory)
+	 */
+	@Override
+	public WordElement resolveWord(String baseForm, LexicalCategory category) {
+		try {
+			LexAccessApiResult lexResult = lexdb.GetLexRecordsByBase(baseForm,
+					LexAccessApi.B_EXACT);
+			WordElement word = getFirstWordFromLexResult(category, lexResult);
+			if (word == null) {
+				lexResult = lexdb.GetLexRecords(baseForm);
+				// matching variant, or else matching ID of any category
+				word = getFirstWordFromLexResult(category, lexResult);
+				if (word == null)
+					word = getFirstWordFromLexResult(LexicalCategory.ANY,
+							lexResult);
+			}
+			return word;
+		} catch (SQLException ex) {
+			System.out.println("Lexical DB error: " + ex.toString());
+			// probably should thrown an exception
+		}
+		return null;
+	}
+
+	/****************************************************************************/
+	// batched retrieval of words from DB
+	/****************************************************************************/
+
+	/**
+	 * get the words of several base forms at once. This gives the same words
+	 * as calling <code>getWords(baseForm, LexicalCategory.ANY)</code> for each
+	 * base form, but makes a single query to the DB for up to 500 base forms.
+	 * 
+	 * @param baseForms
+	 *            - base forms of words, eg "be" or "dog" (not "is" or "dogs")
+	 * @return map from each base form to its words (empty list if none), or
+	 *         <code>null</code> if the DB cannot be queried
+	 */
+	public Map<String, List<WordElement>> getWordsByBase(
+			Collection<String> baseForms) {
+		// same query as lexAccess GetLexRecordsByBase with B_EXACT
+		Map<String, StringBuilder> records = new LinkedHashMap<String, StringBuilder>();
+		for (String baseForm : baseForms)
+			if (baseForm != null && baseForm.length() > 0)
+				records.put(baseForm, new StringBuilder());
+		try {
+			queryRecords("SELECT base, lexRecord FROM LEX_RECORD WHERE lastAction <> 3 AND base IN (",
+					records.keySet(), records);
+		} catch (SQLException ex) {
+			System.out.println("Lexical DB error: " + ex.toString());
+			// probably should thrown an exception
+			return null;
+		}
+
+		Map<String, List<WordElement>> result = new HashMap<String, List<WordElement>>();
+		for (String baseForm : baseForms)
+			result.put(baseForm, getWordsFromRecords(records.get(baseForm)));
+		return result;
+	}
+
+	/**
+	 * get the words having each of several terms as inflectional variant, or
+	 * as ID. This gives the same words as calling
+	 * <code>getWordsFromVariant(term, LexicalCategory.ANY)</code> for each
+	 * term, which for IDs is also <code>getWordsByID(term)</code>, but makes
+	 * two queries to the DB for up to 500 terms.
+	 * 
+	 * @param terms
+	 *            - inflectional variants or IDs of words
+	 * @return map from each term to its words (empty list if none), or
+	 *         <code>null</code> if the DB cannot be queried
+	 */
+	public Map<String, List<WordElement>> getWordsByTerm(Collection<String> terms) {
+		// as lexAccess GetLexRecords, IDs are looked up directly and other
+		// terms through the table of lowercased inflectional variants
+		Map<String, Set<String>> idsByVariant = new LinkedHashMap<String, Set<String>>();
+		Set<String> ids = new LinkedHashSet<String>();
+		for (String term : terms) {
+			if (term == null || term.length() == 0)
+				continue;
+			if (CheckFormatEui.IsValidEui(term))
+				ids.add(term);
+			else
+				idsByVariant.put(term.toLowerCase(), new LinkedHashSet<String>());
+		}
+
+		Map<String, StringBuilder> records = new HashMap<String, StringBuilder>();
+		try {
+			queryIDs(idsByVariant);
+			for (Set<String> variantIDs : idsByVariant.values())
+				ids.addAll(variantIDs);
+			for (String id : ids)
+				records.put(id, new StringBuilder());
+			queryRecords("SELECT eui, lexRecord FROM LEX_RECORD WHERE lastAction <> 3 AND eui IN (",
+					ids, records);
+		} catch (SQLException ex) {
+			System.out.println("Lexical DB error: " + ex.toString());
+			// probably should thrown an exception
+			return null;
+		}
+
+		Map<String, List<WordElement>> result = new HashMap<String, List<WordElement>>();
+		for (String term : terms) {
+			StringBuilder termRecords = null;
+			if (term != null && term.length() > 0) {
+				if (CheckFormatEui.IsValidEui(term)) {
+					termRecords = records.get(term);
+				} else {
+					termRecords = new StringBuilder();
+					for (String id : idsByVariant.get(term.toLowerCase()))
+						termRecords.append(records.get(id));
+				}
+			}
+			result.put(term, getWordsFromRecords(termRecords));
+		}
+		return result;
+	}
+
+	/**
+	 * run a query whose first column is a key and second column a lexical
+	 * record, appending the records to those of their key
+	 * 
+	 * @param query
+	 *            - the query, up to and including the opening parenthesis of
+	 *            its IN list
+	 * @param keys
+	 *            - the keys, sent in batches of BATCH_SIZE
+	 * @param records
+	 *            - the records of each key
+	 * @throws SQLException
+	 */
+	private void queryRecords(String query, Collection<String> keys,
+			Map<String, StringBuilder> records) throws SQLException {
+		for (List<String> batch : batches(keys)) {
+			PreparedStatement statement = conn.prepareStatement(query
+					+ placeholders(batch.size()) + ")");
+			try {
+				for (int i = 0; i < batch.size(); i++)
+					statement.setString(i + 1, batch.get(i));
+				ResultSet resultSet = statement.executeQuery();
+				while (resultSet.next()) {
+					StringBuilder keyRecords = records.get(resultSet.getString(1));
+					if (keyRecords != null)
+						keyRecords.append(resultSet.getString(2));
+				}
+				resultSet.close();
+			} finally {
+				statement.close();
+			}
+		}
+	}
+
+	/**
+	 * find the IDs of the words having each lowercased inflectional variant,
+	 * without repetition and in the order of the DB, as lexAccess does
+	 * 
+	 * @param idsByVariant
+	 *            - the variants, with the set their IDs are added to
+	 * @throws SQLException
+	 */
+	private void queryIDs(Map<String, Set<String>> idsByVariant)
+			throws SQLException {
+		for (List<String> batch : batches(idsByVariant.keySet())) {
+			PreparedStatement statement = conn
+					.prepareStatement("SELECT inflVarLc, eui FROM INFL_VARS WHERE inflVarLc IN ("
+							+ placeholders(batch.size()) + ")");
+			try {
+				for (int i = 0; i < batch.size(); i++)
+					statement.setString(i + 1, batch.get(i));
+				ResultSet resultSet = statement.executeQuery();
+				while (resultSet.next()) {
+					Set<String> ids = idsByVariant.get(resultSet.getString(1));
+					if (ids != null)
+						ids.add(resultSet.getString(2));
+				}
+				resultSet.close();
+			} finally {
+				statement.close();
+			}
+		}
+	}
+
+	/**
+	 * split keys into lists of at most BATCH_SIZE keys
+	 */
+	private static List<List<String>> batches(Collection<String> keys) {
+		List<List<String>> batches = new ArrayList<List<String>>();
+		List<String> batch = null;
+		for (String key : keys) {
+			if (batch == null || batch.size() == BATCH_SIZE) {
+				batch = new ArrayList<String>(BATCH_SIZE);
+				batches.add(batch);
+			}
+			batch.add(key);
+		}
+		return batches;
+	}
+
+	/**
+	 * @return "?, ?, ..., ?" with the number of parameters given
+	 */
+	private static String placeholders(int count) {
+		StringBuilder placeholders = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			if (i > 0)
+				placeholders.append(", ");
+			placeholders.append('?');
+		}
+		return placeholders.toString();
+	}
+
+	/**
+	 * make WordElements from the text of lexical records, as lexAccess
+	 * results are made
+	 * 
+	 * @param records
+	 *            - the records, or <code>null</code>
+	 * @return list of WordElement
+	 */
+	private List<WordElement> getWordsFromRecords(CharSequence records) {
+		if (records == null || records.length() == 0)
+			return new ArrayList<WordElement>();
+		LexAccessApiResult lexResult = new LexAccessApiResult();
+		lexResult.SetText(records.toString());
+		return getWordsFromLexResult(LexicalCategory.ANY, lexResult);
+	}
+
 	/****************************************************************************/
 	// other methods
 	/****************************************************************************/
@@ -301,6 +602,27 @@ public class NIHDBLexicon extends Lexicon {
 		return wordElements;
 	}
 
+	/**
+	 * return the first WordElement from LexAccessApiResult, without making
+	 * WordElements of the other records
+	 * 
+	 * @param category
+	 *            - desired category (eg, NOUN) (this filters list)
+	 * @param lexResult
+	 *            - the LexAccessApiResult
+	 * @return first matching WordElement, or <code>null</code> if there is
+	 *         none
+	 */
+	private WordElement getFirstWordFromLexResult(LexicalCategory category,
+			LexAccessApiResult lexResult) {
+		for (LexRecord record : lexResult.GetJavaObjs()) {
+			if (category == LexicalCategory.ANY
+					|| category == getSimplenlgCategory(record))
+				return makeWord(record);
+		}
+		return null;
+	}
+
 	/**
 	 * check if this record has a standard (regular) inflection
 	 * 
@@ -0,0 +1,175 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Pierre-Luc Vaudry.
+ */
+
+package simplenlg.lexicon;
+
+import simplenlg.framework.BoundedCache;
+import simplenlg.framework.LexicalCategory;
+import simplenlg.framework.WordElement;
+
+/**
+ * <p>
+ * This class holds the words a <code>Lexicon</code> created for lookups of
+ * words it does not contain, under the {@link UnknownWordPolicy#OVERLAY}
+ * policy. Words are kept by base form and category, and the least recently
+ * used ones are evicted once the capacity is reached. The overlay is separate
+ * from the indexes of the lexicon, which it never changes.
+ * </p>
+ *
+ * <p>
+ * It also counts its hits, misses and evictions, so that its size and hit
+ * rate can be monitored. All methods may be called from several threads.
+ * </p>
+ *
+ * @author R. de Oliveira
+ */
+public class UnknownWordOverlay {
+
+	/** Capacity of the overlay unless specified otherwise. */
+	public static final int DEFAULT_CAPACITY = 1000;
+
+	// the words, least recently used first
+	private final BoundedCache<Key, WordElement> words;
+
+	/**
+	 * Creates an empty overlay.
+	 *
+	 * @param capacity
+	 *            the largest number of words kept
+	 */
+	public UnknownWordOverlay(int capacity) {
+		this.words = new BoundedCache<Key, WordElement>(capacity);
+	}
+
+	/**
+	 * Returns the word kept for a base form and category, creating it with
+	 * the lexicon if it is not in the overlay.
+	 *
+	 * @param lexicon
+	 *            the lexicon creating the word
+	 * @param baseForm
+	 *            base form of the word
+	 * @param category
+	 *            category of the word, or <code>null</code> if none was given
+	 * @return the word
+	 */
+	synchronized WordElement getWord(Lexicon lexicon, String baseForm,
+			LexicalCategory category) {
+		Key key = new Key(baseForm, category);
+		WordElement word = this.words.get(key);
+		if (word == null) {
+			word = category != null ? lexicon.createWord(baseForm, category)
+					: lexicon.createWord(baseForm);
+			this.words.put(key, word);
+		}
+		return word;
+	}
+
+	/**
+	 * Sets the largest number of words kept, evicting the least recently
+	 * used words if there are more.
+	 *
+	 * @param capacity
+	 *            the new capacity, 0 to keep no word
+	 */
+	public void setCapacity(int capacity) {
+		this.words.setCapacity(capacity);
+	}
+
+	/**
+	 * @return the largest number of words kept
+	 */
+	public int getCapacity() {
+		return this.words.getCapacity();
+	}
+
+	/**
+	 * @return the number of words currently kept
+	 */
+	public int size() {
+		return this.words.size();
+	}
+
+	/**
+	 * @return the number of lookups that found their word in the overlay
+	 */
+	public long getHitCount() {
+		return this.words.getHitCount();
+	}
+
+	/**
+	 * @return the number of lookups that had to create their word
+	 */
+	public long getMissCount() {
+		return this.words.getMissCount();
+	}
+
+	/**
+	 * @return the number of words evicted to respect the capacity
+	 */
+	public long getEvictionCount() {
+		return this.words.getEvictionCount();
+	}
+
+	/**
+	 * @return the proportion of lookups that found their word in the
+	 *         overlay, or 0 if there were none
+	 */
+	public double getHitRate() {
+		return this.words.getHitRate();
+	}
+
+	/**
+	 * Removes all the words and resets the counts.
+	 */
+	public void clear() {
+		this.words.clear();
+	}
+
+	/**
+	 * Base form and category of an unknown word.
+	 */
+	private static final class Key {
+
+		private final String baseForm;
+		private final LexicalCategory category;
+
+		Key(String baseForm, LexicalCategory category) {
+			this.baseForm = baseForm;
+			this.category = category;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) o;
+			return this.category == other.category
+					&& (this.baseForm == null ? other.baseForm == null
+							: this.baseForm.equals(other.baseForm));
+		}
+
+		@Override
+		public int hashCode() {
+			int hash = this.baseForm == null ? 0 : this.baseForm.hashCode();
+			return 31 * hash + (this.category == null ? 0 : this.category.hashCode());
+		}
+	}
+}
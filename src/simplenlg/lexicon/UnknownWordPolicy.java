@@ -0,0 +1,48 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Pierre-Luc Vaudry.
+ */
+
+package simplenlg.lexicon;
+
+/**
+ * <p>
+ * This enumeration lists the ways a <code>Lexicon</code> can handle the words
+ * it does not contain, when one of its lookup methods has to return a word
+ * anyway (<code>lookupWord</code>, <code>getWord</code>,
+ * <code>getWordFromVariant</code> and <code>getWordByID</code>). In both
+ * cases the word is created by the lexicon's <code>createWord</code> and is
+ * never added to the indexes of the lexicon, so that lookups of free text do
+ * not make it grow.
+ * </p>
+ *
+ * @author R. de Oliveira
+ */
+public enum UnknownWordPolicy {
+
+	/**
+	 * A new word is created at each lookup and is not kept.
+	 */
+	TRANSIENT,
+
+	/**
+	 * Words created are kept in an {@link UnknownWordOverlay} of bounded
+	 * size, so that repeated lookups of the same unknown word return the same
+	 * element until it is evicted. This is the default.
+	 */
+	OVERLAY;
+}
@@ -19,24 +19,26 @@
 package simplenlg.lexicon;
 
 import java.io.File;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
@@ -65,7 +67,7 @@ public class XMLLexicon extends Lexicon {
 			"reg", "irreg", "uncount", "inv", "metareg", "glreg", "nonCount", "sing", "groupuncount" });
 
 	// lexicon
-	private Set<WordElement> words; // set of words
+	private Set<WordElement> words; // set of words, in the order they were added
 	private Map<String, WordElement> indexByID; // map from ID to word
 	private Map<String, List<WordElement>> indexByBase; // map from base to set
 	// of words with this
@@ -78,6 +80,10 @@ public class XMLLexicon extends Lexicon {
 	// added by vaudrypl
 	protected Map<LexicalCategory, List<WordElement>> indexByCategory; // map from variants
 
+	// indexes answering getWords(category, features), built on first use
+	private final Map<LexicalCategory, FeatureIndex> featureIndexes =
+			new EnumMap<LexicalCategory, FeatureIndex>(LexicalCategory.class);
+
 	
 	/**********************************************************************/
 	// constructors
@@ -233,45 +239,69 @@ public class XMLLexicon extends Lexicon {
 		createLexicon(lexiconURI);
 	}
 
+	/**
+	 * Creates an empty lexicon with the associated language. Subclasses that
+	 * do not load their words from XML fill it with <code>addWord()</code>.
+	 * 
+	 * @param language
+	 *            the associated language
+	 * @param expectedWords
+	 *            the number of words that will be added, used to size the
+	 *            indexes
+	 */
+	protected XMLLexicon(Language language, int expectedWords) {
+		super(language);
+		initIndexes(expectedWords);
+	}
+
+	/**
+	 * creates the empty indexes
+	 * 
+	 * @param expectedWords
+	 *            the number of words expected, or 0 if unknown
+	 */
+	private void initIndexes(int expectedWords) {
+		int capacity = Math.max(16, expectedWords * 4 / 3 + 1);
+		words = new LinkedHashSet<WordElement>(capacity);
+		indexByID = new HashMap<String, WordElement>(capacity);
+		indexByBase = new HashMap<String, List<WordElement>>(capacity);
+		indexByVariant = new HashMap<String, List<WordElement>>(capacity);
+		// added by vaudrypl
+		indexByCategory = new EnumMap<LexicalCategory, List<WordElement>>(LexicalCategory.class);
+	}
+
 	/**
 	 * method to actually load and index the lexicon from a URI
 	 * 
 	 * vaudrypl removed call to addSpecialCases() and moved this
 	 * method to simplenlg.lexicon.english.XMLLexicon
 	 * 
+	 * The file is read with a streaming parser and each word is converted
+	 * and indexed as soon as its element is closed, so no document tree of
+	 * the whole lexicon is built.
+	 * 
 	 * @param uri
 	 */
 	private void createLexicon(URI lexiconURI) {
 		// initialise objects
 //		long startTime = System.nanoTime();
 //		System.out.println("building lexicon");
-		words = new HashSet<WordElement>();
-		indexByID = new HashMap<String, WordElement>();
-		indexByBase = new HashMap<String, List<WordElement>>();
-		indexByVariant = new HashMap<String, List<WordElement>>();
-		// added by vaudrypl
-		indexByCategory = new EnumMap<LexicalCategory, List<WordElement>>(LexicalCategory.class);
+		initIndexes(0);
 
 		try {
-			DocumentBuilderFactory factory = DocumentBuilderFactory
-					.newInstance();
-			DocumentBuilder builder = factory.newDocumentBuilder();
-			Document doc = builder.parse(lexiconURI.toString());
-
-			if (doc != null) {
-				Element lexRoot = doc.getDocumentElement();
-				NodeList wordNodes = lexRoot.getChildNodes();
-				for (int i = 0; i < wordNodes.getLength(); i++) {
-					Node wordNode = wordNodes.item(i);
-					// ignore things that aren't elements
-					if (wordNode.getNodeType() == Node.ELEMENT_NODE) {
-						WordElement word = convertNodeToWord(wordNode);
-						if (word != null) {
-							words.add(word);
-							IndexWord(word);
-						}
-					}
+			InputStream in = lexiconURI.toURL().openStream();
+			try {
+				XMLInputFactory factory = XMLInputFactory.newInstance();
+				factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+				XMLStreamReader reader = factory.createXMLStreamReader(
+						lexiconURI.toString(), in);
+				try {
+					readWords(reader);
+				} finally {
+					reader.close();
 				}
+			} finally {
+				in.close();
 			}
 		} catch (Exception ex) {
 			ex.printStackTrace();
@@ -282,9 +312,87 @@ public class XMLLexicon extends Lexicon {
 //		System.out.println("elapsed time: "+elapsed+" seconds");
 	}
 
+	/**
+	 * Reads the children of the root element of a lexicon XML file one at a
+	 * time and adds those that are words to the lexicon.
+	 * 
+	 * The name and text of each child of a word element are collected as in
+	 * <code>convertNodeToWord()</code>: the text includes that of nested
+	 * elements, and both are passed to <code>convertFeaturesToWord()</code>.
+	 * 
+	 * @param reader
+	 *            reader positioned before the root element
+	 * @throws XMLStreamException
+	 */
+	private void readWords(XMLStreamReader reader) throws XMLStreamException {
+		// 1 inside the root, 2 inside a word, 3 and more inside a feature
+		int depth = 0;
+		boolean inWord = false;
+		List<String> names = new ArrayList<String>();
+		List<String> values = new ArrayList<String>();
+		StringBuilder text = new StringBuilder();
+
+		while (reader.hasNext()) {
+			switch (reader.next()) {
+			case XMLStreamConstants.START_ELEMENT:
+				depth++;
+				if (depth == 2) {
+					inWord = qualifiedName(reader).equalsIgnoreCase(XML_WORD);
+					names.clear();
+					values.clear();
+				} else if (depth == 3 && inWord) {
+					names.add(qualifiedName(reader).trim());
+					text.setLength(0);
+				}
+				break;
+
+			case XMLStreamConstants.CHARACTERS:
+			case XMLStreamConstants.CDATA:
+			case XMLStreamConstants.SPACE:
+				if (depth >= 3 && inWord) {
+					text.append(reader.getText());
+				}
+				break;
+
+			case XMLStreamConstants.END_ELEMENT:
+				if (depth == 3 && inWord) {
+					values.add(text.toString());
+				} else if (depth == 2 && inWord) {
+					WordElement word = convertFeaturesToWord(names, values);
+					if (word != null) {
+						words.add(word);
+						IndexWord(word);
+					}
+				}
+				depth--;
+				break;
+
+			default:
+				// comments, processing instructions and the like are ignored
+				break;
+			}
+		}
+	}
+
+	/**
+	 * @return the name of the current element as the DOM gives it, with its
+	 *         prefix if it has one
+	 */
+	private static String qualifiedName(XMLStreamReader reader) {
+		String prefix = reader.getPrefix();
+		if (prefix == null || prefix.length() == 0)
+			return reader.getLocalName();
+		return prefix + ":" + reader.getLocalName();
+	}
+
 	/**
 	 * create a simplenlg WordElement from a Word node in a lexicon XML file
 	 * 
+	 * The lexicon is no longer loaded through this method, which is kept for
+	 * callers that already hold a DOM node. Subclasses that need to adjust the
+	 * features of the words loaded should override
+	 * <code>convertFeaturesToWord()</code> instead.
+	 * 
 	 * @param wordNode
 	 * @return
 	 * @throws XPathUtilException
@@ -297,6 +405,32 @@ public class XMLLexicon extends Lexicon {
 		if (!wordNode.getNodeName().equalsIgnoreCase(XML_WORD))
 			return null;		
 
+		List<String> names = new ArrayList<String>();
+		List<String> values = new ArrayList<String>();
+		NodeList nodes = wordNode.getChildNodes();
+		for (int i = 0; i < nodes.getLength(); i++) {
+			Node featureNode = nodes.item(i);
+
+			if (featureNode.getNodeType() == Node.ELEMENT_NODE) {
+				names.add(featureNode.getNodeName().trim());
+				values.add(featureNode.getTextContent());
+			}
+		}
+		return convertFeaturesToWord(names, values);
+	}
+
+	/**
+	 * create a simplenlg WordElement from the children of a Word element in
+	 * a lexicon XML file
+	 * 
+	 * @param names
+	 *            the names of the child elements, in document order
+	 * @param values
+	 *            the text content of each child element
+	 * @return the word
+	 */
+	protected WordElement convertFeaturesToWord(List<String> names,
+			List<String> values) {
 		// // if there is no base, flag an error and return null
 		// String base = XPathUtil.extractValue(wordNode, Constants.XML_BASE);
 		// if (base == null) {
@@ -309,42 +443,36 @@ public class XMLLexicon extends Lexicon {
 		List<String> inflections = new ArrayList<String>();
 		
 		// now copy features
-		NodeList nodes = wordNode.getChildNodes();
-		for (int i = 0; i < nodes.getLength(); i++) {
-			Node featureNode = nodes.item(i);
+		for (int i = 0; i < names.size(); i++) {
+			String feature = names.get(i);
+			String value = values.get(i);
 
-			if (featureNode.getNodeType() == Node.ELEMENT_NODE) {
-				String feature = featureNode.getNodeName().trim();
-				String value = featureNode.getTextContent();
-
-				if (value != null)
-					value = value.trim();
+			if (value != null)
+				value = value.trim();
 
-				if (feature == null) {
-					System.out.println("Error in XML lexicon node for "
-							+ word.toString());
-					break;
-				}
-
-				if (feature.equalsIgnoreCase(XML_BASE)) {
-					word.setBaseForm(value);
-				} else if (feature.equalsIgnoreCase(XML_CATEGORY))
-					word.setCategory(LexicalCategory.valueOf(value
-							.toUpperCase()));
-				else if (feature.equalsIgnoreCase(XML_ID))
-					word.setId(value);
-				else if (value == null || value.equals("")) {
-					if (INFL_CODES.contains(feature)) {
-						// if this is an infl code, add it to inflections
-						inflections.add(feature);
-					} else {
-						//otherwise assume it's a boolean feature
-						word.setFeature(feature, true);
-					}
-				} else
-					word.setFeature(feature, value);
+			if (feature == null) {
+				System.out.println("Error in XML lexicon node for "
+						+ word.toString());
+				break;
 			}
 
+			if (feature.equalsIgnoreCase(XML_BASE)) {
+				word.setBaseForm(value);
+			} else if (feature.equalsIgnoreCase(XML_CATEGORY))
+				word.setCategory(LexicalCategory.valueOf(value
+						.toUpperCase()));
+			else if (feature.equalsIgnoreCase(XML_ID))
+				word.setId(value);
+			else if (value == null || value.equals("")) {
+				if (INFL_CODES.contains(feature)) {
+					// if this is an infl code, add it to inflections
+					inflections.add(feature);
+				} else {
+					//otherwise assume it's a boolean feature
+					word.setFeature(feature, true);
+				}
+			} else
+				word.setFeature(feature, value);
 		}
 		
 		//if no infl specified, assume regular
@@ -362,12 +490,38 @@ public class XMLLexicon extends Lexicon {
 		return word;
 	}
 
+	/**
+	 * Adds a word to the lexicon with a given set of variants, instead of the
+	 * variants computed by <code>getVariants()</code>. Used when the variants
+	 * were worked out beforehand, for instance by the lexicon compiler.
+	 * 
+	 * @param word
+	 *            the word to add
+	 * @param variants
+	 *            the forms under which the word is indexed as a variant
+	 */
+	protected void addWord(WordElement word, Collection<String> variants) {
+		words.add(word);
+		IndexWord(word, variants);
+	}
+
 	/**
 	 * add word to internal indices
 	 * 
 	 * @param word
 	 */
 	private void IndexWord(WordElement word) {
+		IndexWord(word, getVariants(word));
+	}
+
+	/**
+	 * add word to internal indices
+	 * 
+	 * @param word
+	 * @param variants
+	 *            the variants the word is indexed under
+	 */
+	private void IndexWord(WordElement word, Collection<String> variants) {
 		// first index by base form
 		String base = word.getBaseForm();
 		// shouldn't really need is, as all words have base forms
@@ -385,7 +539,7 @@ public class XMLLexicon extends Lexicon {
 		}
 
 		// now index by variant
-		for (String variant : getVariants(word)) {
+		for (String variant : variants) {
 			updateIndex(word, variant, indexByVariant);
 		}
 
@@ -400,9 +554,23 @@ public class XMLLexicon extends Lexicon {
 			indexByCategory.get(category).add(word);
 		}
 
+		// the feature indexes no longer cover all the words
+		synchronized (featureIndexes) {
+			featureIndexes.clear();
+		}
+
 		// done
 	}
 
+	/**
+	 * @return the index from variants to the words that have them, as used
+	 *         by <code>getWordsFromVariant()</code>. It includes the variants
+	 *         added by subclasses outside of <code>getVariants()</code>.
+	 */
+	Map<String, List<WordElement>> getVariantIndex() {
+		return Collections.unmodifiableMap(indexByVariant);
+	}
+
 	/**
 	 * routine for getting morph variants, should be overridden by subclass
 	 * for specific language
@@ -430,43 +598,6 @@ public class XMLLexicon extends Lexicon {
 		index.get(base).add(word);
 	}
 
-	/**
-	 * creates a default WordElement and adds it to the lexicon
-	 * 
-	 * @param baseForm
-	 *            - base form of word
-	 * @param category
-	 *            - category of word
-	 * @return WordElement entry for specified info
-	 * @author vaudrypl
-	 */
-	@Override
-	protected WordElement createWord(String baseForm, LexicalCategory category) {
-		WordElement newWord = super.createWord(baseForm, category);
-		words.add(newWord);
-		IndexWord(newWord);
-		return newWord; // return default
-		// WordElement of this
-		// baseForm, category
-	}
-
-	/**
-	 * creates a default WordElement and adds it to the lexicon
-	 * 
-	 * @param baseForm
-	 *            - base form of word
-	 * @return WordElement entry for specified info
-	 * @author vaudrypl
-	 */
-	@Override
-	protected WordElement createWord(String baseForm) {
-		WordElement newWord = super.createWord(baseForm);
-		words.add(newWord);
-		IndexWord(newWord);
-		return newWord;  // return default WordElement of this
-		// baseForm
-	}
-
 	/******************************************************************************************/
 	// main methods to get data from lexicon
 	/******************************************************************************************/
@@ -536,6 +667,62 @@ public class XMLLexicon extends Lexicon {
 		return getWordsFromIndex(variant, category, indexByVariant);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#findWord(java.lang.String,
+	 * simplenlg.features.LexicalCategory)
+	 */
+	@Override
+	protected WordElement findWord(String baseForm, LexicalCategory category) {
+		return findWordInIndex(baseForm, category, indexByBase);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#findWordByID(java.lang.String)
+	 */
+	@Override
+	protected WordElement findWordByID(String id) {
+		return indexByID.get(id);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#findWordFromVariant(java.lang.String,
+	 * simplenlg.features.LexicalCategory)
+	 */
+	@Override
+	protected WordElement findWordFromVariant(String variant,
+			LexicalCategory category) {
+		return findWordInIndex(variant, category, indexByVariant);
+	}
+
+	/**
+	 * get the first word of an index entry matching the category, without
+	 * building a list of all matches
+	 * 
+	 * @param indexKey
+	 * @param category
+	 * @param indexMap
+	 * @return the first matching word, or <code>null</code> if there is none
+	 */
+	private WordElement findWordInIndex(String indexKey,
+			LexicalCategory category, Map<String, List<WordElement>> indexMap) {
+		List<WordElement> entry = indexMap.get(indexKey);
+		if (entry != null) {
+			for (int i = 0; i < entry.size(); i++) {
+				WordElement word = entry.get(i);
+				if (category == LexicalCategory.ANY
+						|| word.getCategory() == category)
+					return word;
+			}
+		}
+		return null;
+	}
+
 	/**
 	 * Looks for all words in the lexicon matching the category and features
 	 * provided. If some of the features provided have a value of null or Boolean.FALSE,
@@ -554,7 +741,6 @@ public class XMLLexicon extends Lexicon {
 			Map<String, Object> features) {
 		List<WordElement> result = new ArrayList<WordElement>();
 		Collection<WordElement> collection = null;
-		Iterator<WordElement> iterator = null;
 
 		if (category == LexicalCategory.ANY) {
 			// use the whole lexicon
@@ -563,40 +749,38 @@ public class XMLLexicon extends Lexicon {
 			collection = indexByCategory.get(category);
 		}
 		
-		if (collection != null) iterator = collection.iterator();
-		
 		// if the index by category doesn't contain the category wanted,
 		// skip this part and return an empty list
-		if (iterator != null) {
+		if (collection != null) {
 			if (features == null) {
 				result.addAll(collection);
-			}else {
-				// must convert map to set to use contains()
-				Set<Map.Entry<String, Object>> featuresToCheck = features.entrySet();
-				while (iterator.hasNext()) {
-					WordElement currentWord = iterator.next();
-					Map<String, Object> currentFeaturesMap = currentWord.getAllFeatures();
-					Set<Map.Entry<String, Object>> currentFeaturesSet = currentFeaturesMap.entrySet();
-	
-	/*				Doesn't add a word to the list if the following is not true for
-					at least one feature received as argument :
-					The word has this feature and its corresponding value OR
-					The value of this feature is null or Boolean.FALSE and the word
-					doesn't have this feature at all.
-	*/				boolean addWord = true;
-					for (Map.Entry<String, Object> entry : featuresToCheck) {
-						if ( !( currentFeaturesSet.contains( entry ) || 
-							((entry.getValue() == null || entry.getValue() == Boolean.FALSE)
-									&& !currentFeaturesMap.containsKey(entry.getKey())) ) ) {
-							addWord = false;
-							break;
-						}
-					}
-					if (addWord) result.add(currentWord);
-				}
+			} else {
+				result = getFeatureIndex(category, collection).getWords(features);
 			}
 		}
 
 		return result;
 	}
+
+	/**
+	 * Gets the index answering feature queries on a category, creating it if
+	 * necessary.
+	 * 
+	 * @param category
+	 *            the category, or <code>ANY</code> for the whole lexicon
+	 * @param collection
+	 *            the words of the category
+	 * @return the index
+	 */
+	private FeatureIndex getFeatureIndex(LexicalCategory category,
+			Collection<WordElement> collection) {
+		synchronized (featureIndexes) {
+			FeatureIndex index = featureIndexes.get(category);
+			if (index == null) {
+				index = FeatureIndex.of(collection);
+				featureIndexes.put(category, index);
+			}
+			return index;
+		}
+	}
 }
\ No newline at end of file
@@ -22,10 +22,9 @@ package simplenlg.lexicon.french;
 import java.io.File;
 import java.net.URI;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
 
-import org.w3c.dom.Node;
-
 import simplenlg.framework.ElementCategory;
 import simplenlg.framework.Language;
 import simplenlg.framework.LexicalCategory;
@@ -88,16 +87,18 @@ public class XMLLexicon extends simplenlg.lexicon.XMLLexicon {
 	}
 
 	/**
-	 * create a simplenlg WordElement from a Word node in a lexicon XML file
+	 * create a simplenlg WordElement from the children of a Word element in
+	 * a lexicon XML file
 	 * based on superclass
 	 * 
-	 * @param wordNode
+	 * @param names
+	 * @param values
 	 * @return
-	 * @throws XPathUtilException
 	 */
 	@Override
-	protected WordElement convertNodeToWord(Node wordNode) {
-		WordElement word = super.convertNodeToWord( wordNode );
+	protected WordElement convertFeaturesToWord(List<String> names,
+			List<String> values) {
+		WordElement word = super.convertFeaturesToWord( names, values );
 		
 		// converts String to Gender value for feature LexicalFeature.GENDER
 		if (word.hasFeature(LexicalFeature.GENDER)) {
@@ -21,28 +21,25 @@ package simplenlg.lexicon.portuguese;
 
 import java.io.File;
 import java.net.URI;
-import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
 
-import org.w3c.dom.Node;
-
 import simplenlg.framework.ElementCategory;
 import simplenlg.framework.Language;
 import simplenlg.framework.LexicalCategory;
 import simplenlg.framework.WordElement;
 import simplenlg.framework.InflectedWordElement;
 
-import simplenlg.features.Form;
 import simplenlg.features.InternalFeature;
 import simplenlg.features.Feature;
 import simplenlg.features.LexicalFeature;
 import simplenlg.features.Gender;
 import simplenlg.features.NumberAgreement;
 import simplenlg.features.Person;
-import simplenlg.features.Tense;
 import simplenlg.features.DiscourseFunction;
 import simplenlg.features.portuguese.PortugueseLexicalFeature;
 import simplenlg.features.portuguese.PronounType;
+import simplenlg.morphology.portuguese.VerbParadigm;
 
 /**
  * Extension of simplenlg.lexicon.XMLLexicon for Portuguese.
@@ -89,16 +86,18 @@ public class XMLLexicon extends simplenlg.lexicon.XMLLexicon {
 	}
 
 	/**
-	 * create a simplenlg WordElement from a Word node in a lexicon XML file
+	 * create a simplenlg WordElement from the children of a Word element in
+	 * a lexicon XML file
 	 * based on superclass
 	 * 
-	 * @param wordNode
+	 * @param names
+	 * @param values
 	 * @return
-	 * @throws XPathUtilException
 	 */
 	@Override
-	protected WordElement convertNodeToWord(Node wordNode) {
-		WordElement word = super.convertNodeToWord( wordNode );
+	protected WordElement convertFeaturesToWord(List<String> names,
+			List<String> values) {
+		WordElement word = super.convertFeaturesToWord( names, values );
 		
 		// converts String to Gender value for feature LexicalFeature.GENDER
 		if (word.hasFeature(LexicalFeature.GENDER)) {
@@ -176,39 +175,9 @@ public class XMLLexicon extends simplenlg.lexicon.XMLLexicon {
 				break;
 
 			case VERB:
-//				// indicative, varying tense, person and number
-//				for (Tense tense : Tense.values()) {
-//					for (Person person : Person.values()) {
-//						for (NumberAgreement number : Arrays.asList(NumberAgreement.SINGULAR, NumberAgreement.PLURAL)) {
-//							inflected.setFeature(Feature.TENSE, tense);
-//							inflected.setFeature(Feature.PERSON, person);
-//							inflected.setFeature(Feature.NUMBER, number);
-//							addVarriant(variants, inflected);
-//						}
-//					}
-//				}
-//				// imperative present, varying person and number
-//				inflected.setFeature(Feature.FORM, Form.IMPERATIVE);
-//				inflected.setFeature(Feature.TENSE, Tense.PRESENT);
-//				for (Person person : Person.values()) {
-//					for (NumberAgreement number : Arrays.asList(NumberAgreement.SINGULAR, NumberAgreement.PLURAL)) {
-//						inflected.setFeature(Feature.PERSON, person);
-//						inflected.setFeature(Feature.NUMBER, number);
-//						addVarriant(variants, inflected);
-//					}
-//				}
-//				// participles, varying gender and number
-//				inflected = new InflectedWordElement(word);
-//				for (Form form : Arrays.asList(Form.PRESENT_PARTICIPLE, Form.PAST_PARTICIPLE)) {
-//					for (Gender gender : Arrays.asList(Gender.MASCULINE,Gender.FEMININE)) {
-//						for (NumberAgreement number : Arrays.asList(NumberAgreement.SINGULAR, NumberAgreement.PLURAL)) {
-//							inflected.setFeature(Feature.FORM, form);
-//							inflected.setFeature(LexicalFeature.GENDER, gender);
-//							inflected.setFeature(Feature.NUMBER, number);
-//							addVarriant(variants, inflected);
-//						}
-//					}
-//				}
+				// all tenses, persons and numbers, infinitive, gerund and
+				// participles, built in one pass
+				variants.addAll(VerbParadigm.getForms(word));
 				break;
 			
 			default:
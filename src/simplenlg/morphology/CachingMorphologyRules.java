@@ -0,0 +1,311 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Pierre-Luc Vaudry.
+ */
+
+package simplenlg.morphology;
+
+import java.util.Arrays;
+
+import simplenlg.features.Feature;
+import simplenlg.features.LexicalFeature;
+import simplenlg.framework.BoundedCache;
+import simplenlg.framework.InflectedWordElement;
+import simplenlg.framework.LexicalCategory;
+import simplenlg.framework.NLGElement;
+import simplenlg.framework.StringElement;
+import simplenlg.framework.WordElement;
+import simplenlg.morphology.portuguese.MorphologyRules;
+
+/**
+ * <p>
+ * This class remembers the forms built by another set of morphology rules, so
+ * that a word inflected in the same way again is not inflected from scratch.
+ * The forms of nouns and verbs are kept, by base word, base form and the
+ * values of the inflectional features: tense, person, number, form, pattern,
+ * particle, gender, proper and plural. The least recently used forms are
+ * evicted once the capacity is reached. Other categories are always passed to
+ * the rules.
+ * </p>
+ *
+ * <p>
+ * The cache is only correct for rules whose noun and verb forms depend on
+ * nothing else, the other features of the inflected word being those it took
+ * from its base word, which is the case of the Portuguese rules. Other rule
+ * sets read more features, such as the possessive of English nouns or the
+ * parent of French participles, so they are rejected. A noun whose gender
+ * differs from that of its base word is not cached, as the rules may replace
+ * it by the word of the other gender.
+ * </p>
+ *
+ * <p>
+ * A rule set is used for a language once it is registered with
+ * <code>InflectedWordElement.setMorphologyRuleSet()</code>. The cache counts
+ * its hits, misses and evictions, and all methods may be called from several
+ * threads.
+ * </p>
+ *
+ * @author R. de Oliveira
+ */
+public class CachingMorphologyRules implements MorphologyRulesInterface {
+
+	/** Capacity of the cache unless specified otherwise. */
+	public static final int DEFAULT_CAPACITY = 10000;
+
+	// the features whose values the forms are kept by
+	private static final String[] KEY_FEATURES = { Feature.TENSE, Feature.PERSON,
+			Feature.NUMBER, Feature.FORM, Feature.PATTERN, Feature.PARTICLE,
+			LexicalFeature.GENDER, LexicalFeature.PROPER, LexicalFeature.PLURAL };
+
+	private final MorphologyRulesInterface rules;
+
+	// the forms, least recently used first
+	private final BoundedCache<Key, String> forms;
+
+	/**********************************************************************/
+	// constructors
+	/**********************************************************************/
+
+	/**
+	 * Creates a cache of the default capacity in front of some rules.
+	 *
+	 * @param rules
+	 *            the Portuguese rules building the forms
+	 * @throws IllegalArgumentException
+	 *             if the rules are not the Portuguese rules
+	 */
+	public CachingMorphologyRules(MorphologyRulesInterface rules) {
+		this(rules, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a cache in front of some rules.
+	 *
+	 * @param rules
+	 *            the Portuguese rules building the forms
+	 * @param capacity
+	 *            the largest number of forms kept
+	 * @throws IllegalArgumentException
+	 *             if the rules are not the Portuguese rules
+	 */
+	public CachingMorphologyRules(MorphologyRulesInterface rules, int capacity) {
+		if (rules == null) {
+			throw new IllegalArgumentException("no morphology rules to cache");
+		}
+		if (rules.getClass() != MorphologyRules.class) {
+			throw new IllegalArgumentException("only the Portuguese morphology rules can be cached, not "
+					+ rules.getClass().getName());
+		}
+		this.rules = rules;
+		this.forms = new BoundedCache<Key, String>(capacity);
+	}
+
+	/**********************************************************************/
+	// morphology
+	/**********************************************************************/
+
+	@Override
+	public StringElement doNounMorphology(InflectedWordElement element,
+			WordElement baseWord) {
+		Key key = null;
+		if (baseWord != null && isSameGender(element, baseWord)) {
+			key = new Key(LexicalCategory.NOUN, element, baseWord);
+			String form = this.forms.get(key);
+			if (form != null) {
+				return new StringElement(form, element);
+			}
+		}
+		StringElement realised = this.rules.doNounMorphology(element, baseWord);
+		putForm(key, realised);
+		return realised;
+	}
+
+	@Override
+	public NLGElement doVerbMorphology(InflectedWordElement element,
+			WordElement baseWord) {
+		Key key = null;
+		if (baseWord != null) {
+			key = new Key(LexicalCategory.VERB, element, baseWord);
+			String form = this.forms.get(key);
+			if (form != null) {
+				return new StringElement(form, element);
+			}
+		}
+		NLGElement realised = this.rules.doVerbMorphology(element, baseWord);
+		putForm(key, realised);
+		return realised;
+	}
+
+	@Override
+	public NLGElement doAdjectiveMorphology(InflectedWordElement element,
+			WordElement baseWord) {
+		return this.rules.doAdjectiveMorphology(element, baseWord);
+	}
+
+	@Override
+	public NLGElement doAdverbMorphology(InflectedWordElement element,
+			WordElement baseWord) {
+		return this.rules.doAdverbMorphology(element, baseWord);
+	}
+
+	@Override
+	public NLGElement doPronounMorphology(InflectedWordElement element) {
+		return this.rules.doPronounMorphology(element);
+	}
+
+	@Override
+	public NLGElement doDeterminerMorphology(InflectedWordElement element) {
+		return this.rules.doDeterminerMorphology(element);
+	}
+
+	/**
+	 * @return <code>true</code> if the inflected word has the gender of its
+	 *         base word
+	 */
+	private static boolean isSameGender(InflectedWordElement element, WordElement baseWord) {
+		Object gender = element.getFeature(LexicalFeature.GENDER);
+		Object baseGender = baseWord.getFeature(LexicalFeature.GENDER);
+		return gender == null ? baseGender == null : gender.equals(baseGender);
+	}
+
+	/**
+	 * Keeps the form built by the rules, if it is a plain string element.
+	 */
+	private void putForm(Key key, NLGElement realised) {
+		if (key != null && realised instanceof StringElement
+				&& realised.getRealisation() != null) {
+			this.forms.put(key, realised.getRealisation());
+		}
+	}
+
+	/**********************************************************************/
+	// cache management
+	/**********************************************************************/
+
+	/**
+	 * @return the rules building the forms
+	 */
+	public MorphologyRulesInterface getRules() {
+		return this.rules;
+	}
+
+	/**
+	 * Sets the largest number of forms kept, evicting the least recently used
+	 * forms if there are more.
+	 *
+	 * @param capacity
+	 *            the new capacity, 0 to keep no form
+	 */
+	public void setCapacity(int capacity) {
+		this.forms.setCapacity(capacity);
+	}
+
+	/**
+	 * @return the largest number of forms kept
+	 */
+	public int getCapacity() {
+		return this.forms.getCapacity();
+	}
+
+	/**
+	 * @return the number of forms currently kept
+	 */
+	public int size() {
+		return this.forms.size();
+	}
+
+	/**
+	 * @return the number of inflections that found their form in the cache
+	 */
+	public long getHitCount() {
+		return this.forms.getHitCount();
+	}
+
+	/**
+	 * @return the number of cacheable inflections that had to be done by the
+	 *         rules
+	 */
+	public long getMissCount() {
+		return this.forms.getMissCount();
+	}
+
+	/**
+	 * @return the number of forms evicted to respect the capacity
+	 */
+	public long getEvictionCount() {
+		return this.forms.getEvictionCount();
+	}
+
+	/**
+	 * @return the proportion of cacheable inflections that found their form
+	 *         in the cache, or 0 if there were none
+	 */
+	public double getHitRate() {
+		return this.forms.getHitRate();
+	}
+
+	/**
+	 * Removes all the forms and resets the counts.
+	 */
+	public void clear() {
+		this.forms.clear();
+	}
+
+	/**
+	 * Category, base word, base form and inflectional features of an
+	 * inflected word. Base words are compared by identity.
+	 */
+	private static final class Key {
+
+		private final LexicalCategory category;
+		private final WordElement baseWord;
+		private final String baseForm;
+		private final Object[] values = new Object[KEY_FEATURES.length];
+		private final int hash;
+
+		Key(LexicalCategory category, InflectedWordElement element, WordElement baseWord) {
+			this.category = category;
+			this.baseWord = baseWord;
+			this.baseForm = element.getBaseForm();
+			for (int i = 0; i < KEY_FEATURES.length; i++) {
+				this.values[i] = element.getFeature(KEY_FEATURES[i]);
+			}
+			int hash = System.identityHashCode(baseWord);
+			hash = 31 * hash + category.hashCode();
+			hash = 31 * hash + (this.baseForm == null ? 0 : this.baseForm.hashCode());
+			this.hash = 31 * hash + Arrays.hashCode(this.values);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) o;
+			return this.baseWord == other.baseWord
+					&& this.category == other.category
+					&& (this.baseForm == null ? other.baseForm == null
+							: this.baseForm.equals(other.baseForm))
+					&& Arrays.equals(this.values, other.values);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hash;
+		}
+	}
+}
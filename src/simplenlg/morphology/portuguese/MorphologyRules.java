@@ -49,6 +49,9 @@ import simplenlg.morphology.MorphologyRulesInterface;
  */
 public class MorphologyRules extends simplenlg.morphology.english.NonStaticMorphologyRules
 		implements MorphologyRulesInterface {
+
+	// the rules of the regular plurals, shared by all instances
+	private static final PluralRules PLURAL_RULES = PluralRules.createPortugueseRules();
 	
 	/**
 	 * This method performs the morphology for determiners.
@@ -276,67 +279,14 @@ public class MorphologyRules extends simplenlg.morphology.english.NonStaticMorph
 	 * Source: Bechara, Evanildo. Moderna Gramática Portuguesa, pp. 117-123. 
 	 * Nova Fronteira, 2009.
 	 * 
+	 * The rules are those of <code>PluralRules.createPortugueseRules()</code>.
+	 * 
 	 * @author R. de Oliveira, University of Aberdeen.
 	 * @param form form being realised on which to apply the plural morphology
 	 * @return the plural form
 	 */
 	public String buildRegularPlural(String form) {
-		
-//		System.out.println("building regular plural");
-		//TODO this method is being called several times for a single sentence 		
-		
-		// TODO improve rule for "ão";  too generic rule as it is
-		//if form ends in "ão", delete "ão" and add "ões"
-		if(form.endsWith("ão")){
-			form = form.substring(0, form.length()-2) + "ões";
-			
-		//if form ends in "s"...
-		} else if(form.endsWith("s")){
-			// and vowel is stressed "a", unstress "a" and add "es"
-			if(form.substring(form.length()-2, form.length()-1).matches("[áãâ]")){
-				form = form.substring(0, form.length()-2) + "ases";
-			}
-			// and vowel is stressed "e" or "i", just add "es"
-			if(form.substring(form.length()-2, form.length()-1).matches("[éêí]")){
-				form = form + "es";
-			}
-			// and vowel is stressed "o", unstress "o" and add "es"
-			if(form.substring(form.length()-2, form.length()-1).matches("[óõô]")){
-				form = form.substring(0, form.length()-2) + "oses";
-			}
-			// and vowel is stressed "u", unstress "u" and add "es"
-			if(form.substring(form.length()-2, form.length()-1).matches("[ú]")){
-				form = form.substring(0, form.length()-2) + "uses";
-			// but if vowels are not stressed
-			} else {
-				// do nothing, since plural form equals singular form
-			}
-
-		// if ending is "l", delete "l" and add "is" (too generic rule)
-	    // TODO improve rule for "l" 
-		} else if (form.endsWith("l")) {
-				form = form.substring(0, form.length()-1) + "is";
-		// if ending is "x"...
-		} else if (form.endsWith("x")) {
-				// do nothing, since plural form equals singular form 
-		// if ending is "m", delete "m" and add "ns"
-		} else if (form.endsWith("m")) {
-			form = form.substring(0, form.length()-1) + "ns";
-		// now same rule for multiple endings...
-		} else {
-		
-			// get the last character of form as ending
-			String ending = form.substring(form.length()-1);
-			
-			// if ending is -n or any vowel and the word is not 'que', add "s"
-			if (ending.matches("[aáãeéiíoóõuún]") && !form.equals("que")) {
-				form += "s";
-			// if ending is "r" or "z", add "es"
-			} else if (ending.matches("[rz]")) {
-				form += "es";
-			}		
-		}
-		return form;
+		return PLURAL_RULES.pluralise(form);
 	}
 
 	/**
@@ -436,42 +386,24 @@ public class MorphologyRules extends simplenlg.morphology.english.NonStaticMorph
 		String realised = null;
 		
 		Object tenseValue = element.getFeature(Feature.TENSE);
-		String t = null;
 		// default tense is PRESENT
 		Tense tense = Tense.PRESENT;
 		if (tenseValue instanceof Tense) {
 			tense = (Tense) tenseValue;
-			t = tense.name().toLowerCase();
 		}
 		
 		Object personValue = element.getFeature(Feature.PERSON);
-		String p = null;
 		// default person is THIRD
 		Person person = Person.THIRD;
 		if (personValue instanceof Person) {
 			person = (Person) personValue;
-			p = person.name();
-			if (p.equals("FIRST")){
-				p = "1";
-			} else if (p.equals("SECOND")){
-				p = "2";
-			} else if (p.equals("THIRD")){
-				p = "3";
-			}
 		}
 		
 		Object numberValue = element.getFeature(Feature.NUMBER);
-		String n = null;
 		// default number is SINGULAR
 		NumberAgreement number = NumberAgreement.SINGULAR;
 		if (numberValue instanceof NumberAgreement) {
 			number = (NumberAgreement) numberValue;
-			n = number.name();
-			if (n.equals("SINGULAR")){
-				n = "s";
-			} else if (n.equals("PLURAL")){
-				n = "p";
-				}
 		}
 		
 		Object genderValue = element.getFeature(LexicalFeature.GENDER);
@@ -487,65 +419,23 @@ public class MorphologyRules extends simplenlg.morphology.english.NonStaticMorph
 		// base form from baseWord if it exists, otherwise from element
 		String baseForm = getBaseForm(element, baseWord);
 
-		String realisedFromLexicon = baseWord.getFeatureAsString(t+p+n);
+		// forms in the lexicon are only looked up when tense, person and
+		// number are all given, and the number is singular or plural
+		String realisedFromLexicon = null;
+		if (tenseValue instanceof Tense && personValue instanceof Person
+				&& (numberValue == NumberAgreement.SINGULAR
+						|| numberValue == NumberAgreement.PLURAL)) {
+			realisedFromLexicon = baseWord.getFeatureAsString(
+					VerbRules.getInflectionFeature(tense, person, number));
+		}
 		
 		if (Form.BARE_INFINITIVE.equals(formValue)) {
 			realised = baseForm;
-		// TODO make this method neater and move it to verb rules
 		} else if (Form.PRESENT_PARTICIPLE.equals(formValue) || Form.GERUND.equals(formValue)){
-			String radical = VerbRules.getVerbRadical(baseForm, tense);
-			String thematicVowel = "";
-			int conjugationType = VerbRules.getConjugationType(baseForm);
-			switch (conjugationType){
-			case 1:
-				thematicVowel = "a";
-				break;
-			case 2:
-				thematicVowel = "e";
-				break;
-			case 3:
-				thematicVowel = "i";
-				break;
-			}
-			realised = radical+thematicVowel+"ndo";
-		// TODO make this method neater and move it to verb rules
+			realised = VerbRules.buildGerund(baseForm, tense);
 		// TODO include gender
 		} else if (Form.PAST_PARTICIPLE.equals(formValue)){
-			String radical = VerbRules.getVerbRadical(baseForm, tense);
-			String thematicVowel = "";
-			String suffix = "";
-			int conjugationType = VerbRules.getConjugationType(baseForm);
-			switch (conjugationType){
-			case 1:
-				thematicVowel = "a";
-				break;
-			case 2: case 3:
-				thematicVowel = "i";
-				break;
-			}
-			switch (number){
-			case SINGULAR: case BOTH:
-				switch (gender){
-				case MASCULINE: case NEUTER:
-					suffix = "o";
-					break;
-				case FEMININE:
-					suffix = "a";
-					break;
-				}
-				break;
-			case PLURAL:
-				switch (gender){
-				case MASCULINE: case NEUTER:
-					suffix = "os";
-					break;
-				case FEMININE:
-					suffix = "as";
-					break;
-				}
-				break;
-			}
-			realised = radical+thematicVowel+"d"+suffix;
+			realised = VerbRules.buildPastParticiple(baseForm, tense, number, gender);
 		//TODO once debugged auxiliary creation in VerbPhraseHelper, delete these (and
 		// called methods
 		// here begins a list of irregular verbs, that is far from complete
@@ -556,70 +446,9 @@ public class MorphologyRules extends simplenlg.morphology.english.NonStaticMorph
 			realised = realisedFromLexicon;
 			StringElement realisedElement = new StringElement(realised, element);
 			return realisedElement;
-		}else if(baseForm.equals("estar")){
-			realised = VerbRules.conjugateEstar(number, person, tense);
-		} else if(baseForm.equals("ser")){
-			realised = VerbRules.conjugateSer(number, person, tense);
-		} else if(baseForm.equals("ter")){
-			realised = VerbRules.conjugateTer(number, person, tense);
-		} else if(baseForm.equals("ir")){
-			realised = VerbRules.conjugateIr(number, person, tense);
-		} else if(baseForm.equals("dar")){
-			realised = VerbRules.conjugateDar(number, person, tense);
-		// here begins the set of regular verb conjugations
 		} else {
-			switch (tense) {
-			case CONDITIONAL:
-				realised = VerbRules.buildConditionalRegularVerb(
-						baseForm, number, person);
-				break;
-			case FUTURE:
-				realised = VerbRules.buildFutureRegularVerb(
-						baseForm, number, person);
-				break;
-			// same mechanism as subjunctive present 
-			case IMPERATIVE:
-				realised = VerbRules.buildSubjunctivePresentRegularVerb(
-						baseForm, number, person);
-				break;
-			case IMPERFECT:
-				realised = VerbRules.buildImperfectRegularVerb(
-						baseForm, number, person);
-				break;
-			// no morphological mechanism required
-			case IMPERSONAL_INFINITIVE:
-				realised = baseForm;
-				break;
-			case PAST:
-				realised = VerbRules.buildPastRegularVerb(
-						baseForm, number, person);
-				break;
-			// same mechanism as subjunctive future
-			case PERSONAL_INFINITIVE:
-				realised = VerbRules.buildSubjunctiveFutureRegularVerb(
-						baseForm, number, person);
-				break;
-			case PLUPERFECT:
-				realised = VerbRules.buildPluperfectRegularVerb(
-						baseForm, number, person);
-				break;
-			case PRESENT:
-				realised = VerbRules.buildPresentRegularVerb(
-						baseForm, number, person);
-				break;
-			case SUBJUNCTIVE_FUTURE:
-				realised = VerbRules.buildSubjunctiveFutureRegularVerb(
-						baseForm, number, person);
-				break;
-			case SUBJUNCTIVE_IMPERFECT:
-				realised = VerbRules.buildSubjunctiveImperfectRegularVerb(
-						baseForm, number, person);
-				break;
-			case SUBJUNCTIVE_PRESENT:
-				realised = VerbRules.buildSubjunctivePresentRegularVerb(
-						baseForm, number, person);
-				break;			
-			}
+			// irregular verbs known to the rules, then regular conjugations
+			realised = VerbRules.buildFiniteVerb(baseForm, number, person, tense);
 //			if(tense == Tense.PRESENT) {
 ////				System.out.println(baseForm+" tense is present");
 //				realised = VerbRules.buildPresentRegularVerb(baseForm, number, 
@@ -0,0 +1,246 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Pierre-Luc Vaudry.
+ */
+
+package simplenlg.morphology.portuguese;
+
+import java.io.IOException;
+
+/**
+ * <p>
+ * This class builds plural forms from a set of suffix rules. Each rule
+ * replaces an ending of the singular form: it removes some of its last
+ * characters and adds a new ending. When several rules match a form, the rule
+ * with the longest suffix is applied; when none matches, the plural is the
+ * same as the singular. Exceptions are rules that only apply to a whole form.
+ * </p>
+ *
+ * <p>
+ * The suffixes are kept in a trie read from the end of the form, so that a
+ * plural is found by reading the last characters of the form once, without
+ * regular expressions and without cutting the form into substrings. A set of
+ * rules is meant to be built once and then shared; it may be used by several
+ * threads once it is complete.
+ * </p>
+ *
+ * Source: Bechara, Evanildo. Moderna Gramática Portuguesa, pp. 117-123.
+ * Nova Fronteira, 2009.
+ *
+ * @author R. de Oliveira
+ */
+public class PluralRules {
+
+	// the trie of the reversed suffixes
+	private final Node root = new Node();
+
+	/**
+	 * Creates a set of rules with no rule; every form is its own plural.
+	 */
+	public PluralRules() {
+		// rules are added afterwards
+	}
+
+	/**
+	 * Creates the rules of the regular plurals of Portuguese nouns and
+	 * adjectives.
+	 *
+	 * @return a new set of rules.
+	 */
+	public static PluralRules createPortugueseRules() {
+		PluralRules rules = new PluralRules();
+		// TODO improve rule for "ão";  too generic rule as it is
+		rules.addRule("ão", 2, "ões");
+		// forms ending in "s" keep it, unless the last vowel is stressed:
+		// then the vowel loses its accent and "es" is added
+		rules.addRule("s", 0, "");
+		rules.addRule("ás", 2, "ases");
+		rules.addRule("ãs", 2, "ases");
+		rules.addRule("âs", 2, "ases");
+		rules.addRule("és", 0, "es");
+		rules.addRule("ês", 0, "es");
+		rules.addRule("ís", 0, "es");
+		rules.addRule("ós", 2, "oses");
+		rules.addRule("õs", 2, "oses");
+		rules.addRule("ôs", 2, "oses");
+		rules.addRule("ús", 2, "uses");
+		// TODO improve rule for "l" (too generic rule)
+		rules.addRule("l", 1, "is");
+		rules.addRule("m", 1, "ns");
+		// -n or any vowel: add "s"
+		for (String ending : new String[] {"a", "á", "ã", "e", "é", "i", "í",
+				"o", "ó", "õ", "u", "ú", "n"}) {
+			rules.addRule(ending, 0, "s");
+		}
+		rules.addRule("r", 0, "es");
+		rules.addRule("z", 0, "es");
+		rules.addException("que", "que");
+		return rules;
+	}
+
+	/**
+	 * Adds a rule, replacing any rule with the same suffix.
+	 *
+	 * @param suffix
+	 *            the ending of the singular forms the rule applies to.
+	 * @param removed
+	 *            the number of characters removed from the end of the form.
+	 * @param added
+	 *            the ending then added.
+	 * @throws IllegalArgumentException
+	 *             if more characters would be removed than the suffix has.
+	 */
+	public void addRule(String suffix, int removed, String added) {
+		if (removed < 0 || removed > suffix.length()) {
+			throw new IllegalArgumentException("cannot remove " + removed
+					+ " characters of suffix " + suffix);
+		}
+		getNode(suffix).rule = new Rule(removed, added);
+	}
+
+	/**
+	 * Adds an exception, which gives the plural of one whole form.
+	 *
+	 * @param form
+	 *            the singular form.
+	 * @param plural
+	 *            its plural.
+	 */
+	public void addException(String form, String plural) {
+		getNode(form).exception = new Rule(form.length(), plural);
+	}
+
+	/**
+	 * Writes the plural of a form.
+	 *
+	 * @param form
+	 *            the singular form.
+	 * @param out
+	 *            where the plural is appended.
+	 * @throws IOException
+	 *             if the plural cannot be appended.
+	 */
+	public void pluralise(CharSequence form, Appendable out) throws IOException {
+		Rule match = null;
+		Node node = this.root;
+		for (int i = form.length() - 1; i >= 0; i--) {
+			node = node.getChild(form.charAt(i));
+			if (node == null) {
+				break;
+			}
+			if (node.rule != null) {
+				match = node.rule;
+			}
+			if (i == 0 && node.exception != null) {
+				match = node.exception;
+			}
+		}
+
+		if (match == null) {
+			out.append(form);
+		} else {
+			out.append(form, 0, form.length() - match.removed).append(match.added);
+		}
+	}
+
+	/**
+	 * Builds the plural of a form.
+	 *
+	 * @param form
+	 *            the singular form.
+	 * @return the plural form.
+	 */
+	public String pluralise(CharSequence form) {
+		StringBuilder plural = new StringBuilder(form.length() + 4);
+		try {
+			pluralise(form, plural);
+		} catch (IOException ex) {
+			// a StringBuilder does not throw it
+			throw new IllegalStateException(ex);
+		}
+		return plural.toString();
+	}
+
+	/**
+	 * Returns the node of a suffix, creating the nodes on its way.
+	 */
+	private Node getNode(String suffix) {
+		Node node = this.root;
+		for (int i = suffix.length() - 1; i >= 0; i--) {
+			node = node.addChild(suffix.charAt(i));
+		}
+		return node;
+	}
+
+	/**
+	 * A rule: the number of characters to remove and the ending to add.
+	 */
+	private static class Rule {
+
+		final int removed;
+
+		final String added;
+
+		Rule(int removed, String added) {
+			this.removed = removed;
+			this.added = added;
+		}
+	}
+
+	/**
+	 * A node of the trie, reached by reading a suffix from its end.
+	 */
+	private static class Node {
+
+		// the characters leading to the children, and the children
+		char[] labels = new char[0];
+
+		Node[] children = new Node[0];
+
+		// the rule for the suffix read so far, if any
+		Rule rule;
+
+		// the rule for the whole form read so far, if any
+		Rule exception;
+
+		Node getChild(char label) {
+			for (int i = 0; i < this.labels.length; i++) {
+				if (this.labels[i] == label) {
+					return this.children[i];
+				}
+			}
+			return null;
+		}
+
+		Node addChild(char label) {
+			Node child = getChild(label);
+			if (child == null) {
+				child = new Node();
+				int size = this.labels.length;
+				char[] labels = new char[size + 1];
+				Node[] children = new Node[size + 1];
+				System.arraycopy(this.labels, 0, labels, 0, size);
+				System.arraycopy(this.children, 0, children, 0, size);
+				labels[size] = label;
+				children[size] = child;
+				this.labels = labels;
+				this.children = children;
+			}
+			return child;
+		}
+	}
+}
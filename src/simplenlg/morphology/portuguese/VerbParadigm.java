@@ -0,0 +1,92 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Pierre-Luc Vaudry.
+ */
+
+package simplenlg.morphology.portuguese;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import simplenlg.features.Gender;
+import simplenlg.features.NumberAgreement;
+import simplenlg.features.Person;
+import simplenlg.features.Tense;
+import simplenlg.framework.WordElement;
+
+/**
+ * This class builds all the forms of a Portuguese verb at once: the finite
+ * forms of every tense, person and number, the infinitive, the gerund and the
+ * past participles. The forms are those <code>MorphologyRules</code> realises,
+ * taken from the lexicon entry when it gives them and built by
+ * <code>VerbRules</code> otherwise, but without creating an
+ * <code>InflectedWordElement</code> for each of them.
+ * 
+ * It is used by the Portuguese lexicon to index verbs under their inflected
+ * forms, so that a form such as "cantaríamos" leads back to its verb.
+ * 
+ * @author R. de Oliveira, University of Aberdeen.
+ */
+public class VerbParadigm {
+
+	private static final Tense[] TENSES = Tense.values();
+	private static final Person[] PERSONS = Person.values();
+	private static final NumberAgreement[] NUMBERS = { NumberAgreement.SINGULAR,
+			NumberAgreement.PLURAL };
+	private static final Gender[] GENDERS = { Gender.MASCULINE, Gender.FEMININE };
+
+	/**
+	 * Builds the distinct forms of a verb.
+	 * 
+	 * @param verb
+	 *            the verb as found in the lexicon.
+	 * @return the forms, starting with the base form.
+	 */
+	public static Set<String> getForms(WordElement verb) {
+		String baseForm = verb.getBaseForm();
+		Set<String> forms = new LinkedHashSet<String>();
+		forms.add(baseForm);
+
+		// finite forms, as given in the lexicon or built by the rules
+		String[] ruleForms = null;
+		for (Tense tense : TENSES) {
+			for (Person person : PERSONS) {
+				for (NumberAgreement number : NUMBERS) {
+					String form = verb.getFeatureAsString(
+							VerbRules.getInflectionFeature(tense, person, number));
+					if (form == null) {
+						if (ruleForms == null) {
+							ruleForms = VerbRules.buildFiniteForms(baseForm);
+						}
+						form = ruleForms[VerbRules.getFormIndex(tense, person, number)];
+					}
+					forms.add(form);
+				}
+			}
+		}
+
+		// non-finite forms, realised with the default tense
+		forms.add(VerbRules.buildGerund(baseForm, Tense.PRESENT));
+		for (Gender gender : GENDERS) {
+			for (NumberAgreement number : NUMBERS) {
+				forms.add(VerbRules.buildPastParticiple(baseForm, Tense.PRESENT,
+						number, gender));
+			}
+		}
+		return forms;
+	}
+}
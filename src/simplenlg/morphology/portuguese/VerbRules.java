@@ -3,6 +3,11 @@
  */
 package simplenlg.morphology.portuguese;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import simplenlg.features.Gender;
 import simplenlg.features.NumberAgreement;
 import simplenlg.features.Person;
 import simplenlg.features.Tense;
@@ -22,6 +27,95 @@ import simplenlg.features.Tense;
  */
 public class VerbRules {
 
+	/** Largest number of verbs whose radicals are remembered. */
+	static final int MAX_ANALYSED_VERBS = 4096;
+
+	// suffixes of the regular verbs, by tense, conjugation type, number
+	// (singular or plural) and person; conjugation type 0 has no suffixes
+	private static final String[][][][] REGULAR_SUFFIXES = new String[Tense.values().length][][][];
+
+	// index of each number agreement in the suffix table
+	private static final int[] NUMBER_INDEX = new int[NumberAgreement.values().length];
+
+	// number of finite forms of a verb: tenses, persons, singular and plural
+	private static final int FORM_COUNT = Tense.values().length * Person.values().length * 2;
+
+	// name of the lexicon feature giving each finite form, by form index
+	private static final String[] INFLECTION_FEATURES = new String[FORM_COUNT];
+
+	// finite forms of the irregular verbs known to the rules, by base form
+	// and form index
+	private static final Map<String, String[]> IRREGULAR_PARADIGMS = new HashMap<String, String[]>();
+
+	// analysis of the verbs conjugated since the map was last cleared, by base
+	// form; read without locking on every conjugation, and cleared when full
+	private static final Map<String, RegularVerb> ANALYSED_VERBS =
+			new ConcurrentHashMap<String, RegularVerb>();
+
+	static {
+		NUMBER_INDEX[NumberAgreement.PLURAL.ordinal()] = 1;
+
+		setSuffixes(Tense.PRESENT,
+				conjugation("o", "as", "a", "amos", "ais", "am"),
+				conjugation("o", "es", "e", "emos", "eis", "em"),
+				conjugation("o", "es", "e", "imos", "is", "em"));
+		setSuffixes(Tense.PAST,
+				conjugation("ei", "aste", "ou", "amos", "astes", "aram"),
+				conjugation("i", "este", "eu", "emos", "estes", "eram"),
+				conjugation("i", "iste", "iu", "imos", "istes", "iram"));
+		setSuffixes(Tense.IMPERFECT,
+				conjugation("ava", "avas", "ava", "ávamos", "áveis", "avam"),
+				conjugation("ia", "ias", "ia", "íamos", "íeis", "iam"),
+				conjugation("ia", "ias", "ia", "íamos", "íeis", "iam"));
+		setSuffixes(Tense.FUTURE,
+				conjugation("arei", "arás", "ará", "aremos", "areis", "arão"),
+				conjugation("erei", "erás", "erá", "eremos", "ereis", "erão"),
+				conjugation("irei", "irás", "irá", "iremos", "ireis", "irão"));
+		setSuffixes(Tense.CONDITIONAL,
+				conjugation("aria", "arias", "aria", "aríamos", "aríeis", "ariam"),
+				conjugation("eria", "erias", "eria", "eríamos", "eríeis", "eriam"),
+				conjugation("iria", "irias", "iria", "iríamos", "iríeis", "iriam"));
+		setSuffixes(Tense.PLUPERFECT,
+				conjugation("ara", "aras", "ara", "áramos", "áreis", "aram"),
+				conjugation("era", "eras", "era", "êramos", "êreis", "eram"),
+				conjugation("ira", "iras", "ira", "íramos", "íreis", "iram"));
+		setSuffixes(Tense.SUBJUNCTIVE_PRESENT,
+				conjugation("e", "es", "e", "emos", "eis", "em"),
+				conjugation("a", "as", "a", "amos", "ais", "am"),
+				conjugation("a", "as", "a", "amos", "ais", "am"));
+		setSuffixes(Tense.SUBJUNCTIVE_IMPERFECT,
+				conjugation("asse", "asses", "asse", "ássemos", "ásseis", "assem"),
+				conjugation("esse", "esses", "esse", "êssemos", "êsseis", "essem"),
+				conjugation("isse", "isses", "isse", "íssemos", "ísseis", "issem"));
+		setSuffixes(Tense.SUBJUNCTIVE_FUTURE,
+				conjugation("ar", "ares", "ar", "armos", "ardes", "arem"),
+				conjugation("er", "eres", "er", "ermos", "erdes", "erem"),
+				conjugation("ir", "ires", "ir", "irmos", "irdes", "irem"));
+		// same mechanism as subjunctive present
+		REGULAR_SUFFIXES[Tense.IMPERATIVE.ordinal()] =
+				REGULAR_SUFFIXES[Tense.SUBJUNCTIVE_PRESENT.ordinal()];
+		// same mechanism as subjunctive future
+		REGULAR_SUFFIXES[Tense.PERSONAL_INFINITIVE.ordinal()] =
+				REGULAR_SUFFIXES[Tense.SUBJUNCTIVE_FUTURE.ordinal()];
+		// no morphological mechanism required
+		setSuffixes(Tense.IMPERSONAL_INFINITIVE,
+				conjugation("", "", "", "", "", ""),
+				conjugation("", "", "", "", "", ""),
+				conjugation("", "", "", "", "", ""));
+
+		for (Tense tense : Tense.values()) {
+			for (Person person : Person.values()) {
+				INFLECTION_FEATURES[getFormIndex(tense, person, NumberAgreement.SINGULAR)] =
+						tense.name().toLowerCase() + (person.ordinal() + 1) + "s";
+				INFLECTION_FEATURES[getFormIndex(tense, person, NumberAgreement.PLURAL)] =
+						tense.name().toLowerCase() + (person.ordinal() + 1) + "p";
+			}
+		}
+		for (String baseForm : new String[] {"estar", "ser", "ter", "ir", "dar"}) {
+			IRREGULAR_PARADIGMS.put(baseForm, buildIrregularParadigm(baseForm));
+		}
+	}
+
 	//TODO delete this?
 	/**
 	 * Adds a radical and a suffix applying phonological rules
@@ -59,78 +153,124 @@ public class VerbRules {
 	}
 
 	/**
-	 * Builds the indicative conditional form for regular verbs. 
+	 * Puts the suffixes of a tense in the table, after the empty suffixes of
+	 * conjugation type 0.
+	 *
+	 * @param tense
+	 * @param conjugations
+	 *            the suffixes of the -ar, -er and -ir verbs.
+	 */
+	private static void setSuffixes(Tense tense, String[][]... conjugations) {
+		String[][][] suffixes = new String[conjugations.length + 1][][];
+		suffixes[0] = conjugation("", "", "", "", "", "");
+		System.arraycopy(conjugations, 0, suffixes, 1, conjugations.length);
+		REGULAR_SUFFIXES[tense.ordinal()] = suffixes;
+	}
+
+	/**
+	 * Arranges the suffixes of one conjugation by number and person.
+	 *
+	 * @param forms
+	 *            the suffixes of the 1st, 2nd and 3rd persons singular, then
+	 *            of the 1st, 2nd and 3rd persons plural.
+	 * @return the suffixes by number and person.
+	 */
+	private static String[][] conjugation(String... forms) {
+		return new String[][] {
+				{forms[0], forms[1], forms[2]},
+				{forms[3], forms[4], forms[5]}};
+	}
+
+	/**
+	 * Builds the finite form of a regular verb in any tense, as the radical of
+	 * the verb for that tense followed by the suffix found in the table. The
+	 * conjugation type and the radicals of each verb are worked out the first
+	 * time it is conjugated and remembered.
 	 *
 	 * @param baseForm
 	 *            the base form of the word.
 	 * @param number
 	 * @param person
+	 * @param tense
 	 * @return the inflected word.
 	 */
-	protected static String buildConditionalRegularVerb(String baseForm, NumberAgreement number, Person person) {
-		int conjugationType = getConjugationType(baseForm);
-		String radical = getVerbRadical(baseForm, Tense.CONDITIONAL);
-		String suffix = "";
-		if(conjugationType != 0) {
-			switch(number){
-			case SINGULAR :
-			case BOTH :
-				switch(person){
-				case FIRST :
-				case THIRD :
-					if(conjugationType == 1) {
-						suffix = "aria";
-					} else if(conjugationType == 2) {
-						suffix = "eria";
-					} else if(conjugationType == 3) {
-						suffix = "iria";
-					}
-					break;
-				case SECOND :
-					if(conjugationType == 1) {
-						suffix = "arias";
-					} else if(conjugationType == 2) {
-						suffix = "erias";
-					} else if(conjugationType == 3) {
-						suffix = "irias";
-					}
-					break;
-				}
-				break;
-			case PLURAL :
-				switch(person){
-				case FIRST :
-					if(conjugationType == 1) {
-						suffix = "aríamos";
-					} else if(conjugationType == 2) {
-						suffix = "eríamos";
-					} else if(conjugationType == 3) {
-						suffix = "iríamos";
-					}
-					break;
-				case SECOND :
-					if(conjugationType == 1) {
-						suffix = "aríeis";
-					} else if(conjugationType == 2) {
-						suffix = "eríeis";
-					} else if(conjugationType == 3) {
-						suffix = "iríeis";
-					}
-					break;
-				case THIRD :
-					if(conjugationType == 1) {
-						suffix = "ariam";
-					} else if(conjugationType == 2) {
-						suffix = "eriam";
-					} else if(conjugationType == 3) {
-						suffix = "iriam";
-					}
-					break;
-				}
+	protected static String buildRegularVerb(String baseForm, NumberAgreement number,
+			Person person, Tense tense) {
+		return analyseVerb(baseForm).conjugate(number, person, tense);
+	}
+
+	/**
+	 * Returns the conjugation type and radicals of a regular verb, working
+	 * them out if the verb has not been conjugated recently.
+	 *
+	 * @param baseForm
+	 *            the base form of the word.
+	 */
+	private static RegularVerb analyseVerb(String baseForm) {
+		RegularVerb verb = ANALYSED_VERBS.get(baseForm);
+		if (verb == null) {
+			verb = new RegularVerb(baseForm);
+			if (ANALYSED_VERBS.size() >= MAX_ANALYSED_VERBS) {
+				ANALYSED_VERBS.clear();
+			}
+			ANALYSED_VERBS.put(baseForm, verb);
+		}
+		return verb;
+	}
+
+	/**
+	 * The conjugation type of a regular verb and its radical in each tense.
+	 */
+	private static class RegularVerb {
+
+		final int conjugationType;
+
+		final String[] radicals;
+
+		RegularVerb(String baseForm) {
+			this.conjugationType = getConjugationType(baseForm);
+			this.radicals = new String[Tense.values().length];
+			for (Tense tense : Tense.values()) {
+				this.radicals[tense.ordinal()] = getVerbRadical(baseForm, getRadicalTense(tense));
 			}
+			// the infinitive is the base form itself
+			this.radicals[Tense.IMPERSONAL_INFINITIVE.ordinal()] = baseForm;
 		}
 
-		return addSuffix(radical, suffix);
+		String conjugate(NumberAgreement number, Person person, Tense tense) {
+			return addSuffix(this.radicals[tense.ordinal()],
+					REGULAR_SUFFIXES[tense.ordinal()][this.conjugationType]
+							[NUMBER_INDEX[number.ordinal()]][person.ordinal()]);
+		}
+	}
+
+	/**
+	 * Returns the tense whose radical a tense uses: the imperative and the
+	 * personal infinitive are built like the subjunctive present and the
+	 * subjunctive future.
+	 */
+	private static Tense getRadicalTense(Tense tense) {
+		switch (tense) {
+		case IMPERATIVE:
+			return Tense.SUBJUNCTIVE_PRESENT;
+		case PERSONAL_INFINITIVE:
+			return Tense.SUBJUNCTIVE_FUTURE;
+		default:
+			return tense;
+		}
+	}
+
+	/**
+	 * Builds the indicative conditional form for regular verbs. 
+	 *
+	 * @param baseForm
+	 *            the base form of the word.
+	 * @param number
+	 * @param person
+	 * @return the inflected word.
+	 */
+	protected static String buildConditionalRegularVerb(String baseForm, NumberAgreement number, Person person) {
+		return buildRegularVerb(baseForm, number, person, Tense.CONDITIONAL);
 	}
 
 	/**
@@ -143,76 +283,7 @@ public class VerbRules {
 	 * @return the inflected word.
 	 */
 	protected static String buildFutureRegularVerb(String baseForm, NumberAgreement number, Person person) {
-		int conjugationType = getConjugationType(baseForm);
-		String radical = getVerbRadical(baseForm, Tense.FUTURE);
-		String suffix = "";
-		if(conjugationType != 0) {
-			switch(number){
-			case SINGULAR :
-			case BOTH :
-				switch(person){
-				case FIRST :
-					if(conjugationType == 1) {
-						suffix = "arei";
-					} else if(conjugationType == 2) {
-						suffix = "erei";
-					} else if(conjugationType == 3) {
-						suffix = "irei";
-					}
-					break;
-				case SECOND :
-					if(conjugationType == 1) {
-						suffix = "arás";
-					} else if(conjugationType == 2) {
-						suffix = "erás";
-					} else if(conjugationType == 3) {
-						suffix = "irás";
-					}
-					break;
-				case THIRD :
-					if(conjugationType == 1) {
-						suffix = "ará";
-					} else if(conjugationType == 2) {
-						suffix = "erá";
-					} else if(conjugationType == 3) {
-						suffix = "irá";
-					}
-					break;
-				}
-				break;
-			case PLURAL :
-				switch(person){
-				case FIRST :
-					if(conjugationType == 1) {
-						suffix = "aremos";
-					} else if(conjugationType == 2) {
-						suffix = "eremos";
-					} else if(conjugationType == 3) {
-						suffix = "iremos";
-					}
-					break;
-				case SECOND :
-					if(conjugationType == 1) {
-						suffix = "areis";
-					} else if(conjugationType == 2) {
-						suffix = "ereis";
-					} else if(conjugationType == 3) {
-						suffix = "ireis";
-					}
-					break;
-				case THIRD :
-					if(conjugationType == 1) {
-						suffix = "arão";
-					} else if(conjugationType == 2) {
-						suffix = "erão";
-					} else if(conjugationType == 3) {
-						suffix = "irão";
-					}
-					break;
-				}
-			}
-		}
-		return addSuffix(radical, suffix);
+		return buildRegularVerb(baseForm, number, person, Tense.FUTURE);
 	}
 
 	/**	 
@@ -226,63 +297,7 @@ public class VerbRules {
 	 * @return the inflected word.
 	 */
 	protected static String buildImperfectRegularVerb(String baseForm, NumberAgreement number, Person person) {
-		int conjugationType = getConjugationType(baseForm);
-		String radical = getVerbRadical(baseForm, Tense.IMPERFECT);
-		String suffix = "";
-		if(conjugationType != 0) {
-			switch(number){
-			case SINGULAR :
-			case BOTH :
-				switch(person){
-				case FIRST :
-				case THIRD : {
-					if(conjugationType == 1) {
-						suffix = "ava";
-					} else {
-						suffix = "ia";
-					}
-				}
-					break;
-				case SECOND : {
-					if(conjugationType == 1) {
-						suffix = "avas";
-					} else {
-						suffix = "ias";
-					}
-				}
-				}
-				break;
-			case PLURAL :
-				if(conjugationType == 1) {
-					switch(person){
-					case FIRST :
-						suffix = "ávamos";
-						break;
-					case SECOND :
-						suffix = "áveis";
-						break;
-					case THIRD :
-						suffix = "avam";
-						break;
-					}
-				} else {
-					switch(person){
-					case FIRST :
-						suffix = "íamos";
-						break;
-					case SECOND :
-						suffix = "íeis";
-						break;
-					case THIRD :
-						suffix = "iam";
-						break;
-					}
-					break;
-				}
-			}
-		}
-
-		return addSuffix(radical, suffix);
+		return buildRegularVerb(baseForm, number, person, Tense.IMPERFECT);
 	}
 
 	/**
@@ -295,94 +310,7 @@ public class VerbRules {
 	 * @return the inflected word.
 	 */
 	protected static String buildPastRegularVerb(String baseForm, NumberAgreement number, Person person) {
-		int conjugationType = getConjugationType(baseForm);
-		String radical = getVerbRadical(baseForm, Tense.PAST);
-		String suffix = "";
-		if(conjugationType != 0) {
-			switch(number){
-			case SINGULAR :
-			case BOTH :
-				if(conjugationType == 1) {
-					switch(person){
-					case FIRST :
-						suffix = "ei";
-						break;
-					case SECOND :
-						suffix = "aste";
-						break;
-					case THIRD :
-						suffix = "ou";
-						break;
-					}
-				} else if(conjugationType == 2) {
-					switch(person){
-					case FIRST :
-						suffix = "i";
-						break;
-					case SECOND :
-						suffix = "este";
-						break;
-					case THIRD :
-						suffix = "eu";
-						break;
-					}
-				} else if(conjugationType == 3) {
-					switch(person){
-					case FIRST :
-						suffix = "i";
-						break;
-					case SECOND :
-						suffix = "iste";
-						break;
-					case THIRD :
-						suffix = "iu";
-						break;
-					}
-				}
-				break;
-			case PLURAL :
-				if(conjugationType == 1) {
-					switch(person){
-					case FIRST :
-						suffix = "amos";
-						break;
-					case SECOND :
-						suffix = "astes";
-						break;
-					case THIRD :
-						suffix = "aram";
-						break;
-					}
-				} else if(conjugationType == 2) {
-					switch(person){
-					case FIRST :
-						suffix = "emos";
-						break;
-					case SECOND :
-						suffix = "estes";
-						break;
-					case THIRD :
-						suffix = "eram";
-						break;
-					}
-				} else if(conjugationType == 3) {
-					switch(person){
-					case FIRST :
-						suffix = "imos";
-						break;
-					case SECOND :
-						suffix = "istes";
-						break;
-					case THIRD :
-						suffix = "iram";
-						break;
-					}
-					break;
-				}
-			}
-		}
-
-		return addSuffix(radical, suffix);
+		return buildRegularVerb(baseForm, number, person, Tense.PAST);
 	}
 
 	/**
@@ -395,87 +323,7 @@ public class VerbRules {
 	 * @return the inflected word.
 	 */
 	protected static String buildPluperfectRegularVerb(String baseForm, NumberAgreement number, Person person) {
-		int conjugationType = getConjugationType(baseForm);
-		String radical = getVerbRadical(baseForm, Tense.PLUPERFECT);
-		String suffix = "";
-		if(conjugationType != 0) {
-			switch(number){
-			case SINGULAR :
-			case BOTH :
-				if(conjugationType == 1) {
-					switch(person){
-					case FIRST :
-					case THIRD :
-						suffix = "ara";
-						break;
-					case SECOND :
-						suffix = "aras";
-						break;
-					}
-				} else if(conjugationType == 2) {
-					switch(person){
-					case FIRST :
-					case THIRD :
-						suffix = "era";
-						break;
-					case SECOND :
-						suffix = "eras";
-						break;
-					}
-				} else if(conjugationType == 3) {
-					switch(person){
-					case FIRST :
-					case THIRD :
-						suffix = "ira";
-						break;
-					case SECOND :
-						suffix = "iras";
-						break;
-					}
-				}
-				break;
-			case PLURAL :
-				if(conjugationType == 1) {
-					switch(person){
-					case FIRST :
-						suffix = "áramos";
-						break;
-					case SECOND :
-						suffix = "áreis";
-						break;
-					case THIRD :
-						suffix = "aram";
-						break;
-					}
-				} else if(conjugationType == 2) {
-					switch(person){
-					case FIRST :
-						suffix = "êramos";
-						break;
-					case SECOND :
-						suffix = "êreis";
-						break;
-					case THIRD :
-						suffix = "eram";
-						break;
-					}
-				} else if(conjugationType == 3) {
-					switch(person){
-					case FIRST :
-						suffix = "íramos";
-						break;
-					case SECOND :
-						suffix = "íreis";
-						break;
-					case THIRD :
-						suffix = "iram";
-						break;
-					}
-				}
-			}
-		}
-
-		return addSuffix(radical, suffix);
+		return buildRegularVerb(baseForm, number, person, Tense.PLUPERFECT);
 	}
 
 	/**
@@ -487,308 +335,241 @@ public class VerbRules {
 	 * @return the inflected word.
 	 */
 	protected static String buildPresentRegularVerb(String baseForm, NumberAgreement number, Person person) {
+		return buildRegularVerb(baseForm, number, person, Tense.PRESENT);
+	}
 
-		int conjugationType = getConjugationType(baseForm);
-		String radical = getVerbRadical(baseForm, Tense.PRESENT);
-		String suffix = "";
+	/**
+	 * Builds the subjunctive future form for regular verbs. 
+	 *
+	 * @param baseForm
+	 *            the base form of the word.
+	 * @param number
+	 * @param person
+	 * @return the inflected word.
+	 */
+	protected static String buildSubjunctiveFutureRegularVerb(String baseForm, NumberAgreement number, Person person) {
+		return buildRegularVerb(baseForm, number, person, Tense.SUBJUNCTIVE_FUTURE);
+	}
 
-		if(conjugationType != 0) {
-			switch(number){
-			case SINGULAR :
-			case BOTH :
-				switch(conjugationType){
-				case 1 :
-					switch(person){
-					case FIRST :
-						suffix = "o";
-						break;
-					case SECOND :
-						suffix = "as";
-						break;
-					case THIRD :
-						suffix = "a";
-						break;
-					}
-					break;
-				case 2 :
-				case 3 :
-					switch(person){
-					case FIRST :
-						suffix = "o";
-						break;
-					case SECOND :
-						suffix = "es";
-						break;
-					case THIRD :
-						suffix = "e";
-						break;
-					}
-					break;
-				}
-				break;
-			case PLURAL :
-				switch(conjugationType){
-				case 1 :
-					switch(person){
-					case FIRST :
-						suffix = "amos";
-						break;
-					case SECOND :
-						suffix = "ais";
-						break;
-					case THIRD :
-						suffix = "am";
-						break;
-					}
-					break;
-				case 2 :
-					switch(person){
-					case FIRST :
-						suffix = "emos";
-						break;
-					case SECOND :
-						suffix = "eis";
-						break;
-					case THIRD :
-						suffix = "em";
-						break;
-					}
-					break;
-				case 3 :
-					switch(person){
-					case FIRST :
-						suffix = "imos";
-						break;
-					case SECOND :
-						suffix = "is";
-						break;
-					case THIRD :
-						suffix = "em";
-						break;
-					}
-					break;
-				}
-				break;
-			}
-		}
+	/**
+	 * Builds the subjunctive imperfect form for regular verbs. 
+	 *
+	 * @param baseForm
+	 *            the base form of the word.
+	 * @param number
+	 * @param person
+	 * @return the inflected word.
+	 */
+	protected static String buildSubjunctiveImperfectRegularVerb(String baseForm, NumberAgreement number, Person person) {
+		return buildRegularVerb(baseForm, number, person, Tense.SUBJUNCTIVE_IMPERFECT);
+	}
 
-		return addSuffix(radical, suffix);
+	/**
+	 * Builds the subjunctive present or imperative form for regular verbs. 
+	 *
+	 * @param baseForm
+	 *            the base form of the word.
+	 * @param number
+	 * @param person
+	 * @return the inflected word.
+	 */
+	protected static String buildSubjunctivePresentRegularVerb(String baseForm, NumberAgreement number, Person person) {
+		return buildRegularVerb(baseForm, number, person, Tense.SUBJUNCTIVE_PRESENT);
 	}
 
 	/**
-	 * Builds the subjunctive future form for regular verbs. 
+	 * Builds the finite form of a verb from the rules, for the irregular verbs
+	 * these rules know and for regular verbs. Forms given in the lexicon are
+	 * not considered. The paradigms of the irregular verbs are built once,
+	 * when the class is loaded, so that their forms are found by position.
 	 *
 	 * @param baseForm
 	 *            the base form of the word.
 	 * @param number
 	 * @param person
+	 * @param tense
 	 * @return the inflected word.
 	 */
-	protected static String buildSubjunctiveFutureRegularVerb(String baseForm, NumberAgreement number, Person person) {
-		int conjugationType = getConjugationType(baseForm);
-		String radical = getVerbRadical(baseForm, Tense.SUBJUNCTIVE_FUTURE);
-		String suffix = "";
-		switch(number){
-		case SINGULAR :
-		case BOTH :
-			switch(person){
-			case FIRST :
-			case THIRD :
-				if(conjugationType == 1) {
-					suffix = "ar";
-				} else if(conjugationType == 2) {
-					suffix = "er";
-				} else if(conjugationType == 3) {
-					suffix = "ir";
-				}
-				break;
-			case SECOND :
-				if(conjugationType == 1) {
-					suffix = "ares";
-				} else if(conjugationType == 2) {
-					suffix = "eres";
-				} else if(conjugationType == 3) {
-					suffix = "ires";
+	protected static String buildFiniteVerb(String baseForm, NumberAgreement number,
+			Person person, Tense tense) {
+		String realised = null;
+		String[] paradigm = IRREGULAR_PARADIGMS.get(baseForm);
+		if(paradigm != null){
+			realised = paradigm[getFormIndex(tense, person, number)];
+		// no morphological mechanism required
+		} else if(tense == Tense.IMPERSONAL_INFINITIVE){
+			realised = baseForm;
+		// here begins the set of regular verb conjugations
+		} else {
+			realised = buildRegularVerb(baseForm, number, person, tense);
+		}
+		return realised;
+	}
+
+	/**
+	 * Builds all the finite forms of a verb from the rules, as
+	 * <code>buildFiniteVerb()</code> does, for building the paradigm of a
+	 * verb of the lexicon. The analysis of a regular verb is not remembered,
+	 * as the paradigm of each verb is built only once.
+	 *
+	 * @param baseForm
+	 *            the base form of the word.
+	 * @return the forms, by form index.
+	 */
+	static String[] buildFiniteForms(String baseForm) {
+		String[] paradigm = IRREGULAR_PARADIGMS.get(baseForm);
+		if (paradigm != null) {
+			return paradigm.clone();
+		}
+		RegularVerb verb = new RegularVerb(baseForm);
+		String[] forms = new String[FORM_COUNT];
+		for (Tense tense : Tense.values()) {
+			for (Person person : Person.values()) {
+				for (NumberAgreement number : new NumberAgreement[] {
+						NumberAgreement.SINGULAR, NumberAgreement.PLURAL }) {
+					forms[getFormIndex(tense, person, number)] =
+							tense == Tense.IMPERSONAL_INFINITIVE ? baseForm
+									: verb.conjugate(number, person, tense);
 				}
-				break;
 			}
+		}
+		return forms;
+	}
+
+	/**
+	 * Builds the gerund (present participle) of a verb. 
+	 *
+	 * @param baseForm
+	 *            the base form of the word.
+	 * @param tense
+	 *            the tense, which may change the radical.
+	 * @return the inflected word.
+	 */
+	protected static String buildGerund(String baseForm, Tense tense) {
+		String radical = getVerbRadical(baseForm, tense);
+		String thematicVowel = "";
+		switch (getConjugationType(baseForm)){
+		case 1:
+			thematicVowel = "a";
 			break;
-		case PLURAL :
-			switch(person){
-			case FIRST :
-				if(conjugationType == 1) {
-					suffix = "armos";
-				} else if(conjugationType == 2) {
-					suffix = "ermos";
-				} else if(conjugationType == 3) {
-					suffix = "irmos";
-				}
-				break;
-			case SECOND :
-				if(conjugationType == 1) {
-					suffix = "ardes";
-				} else if(conjugationType == 2) {
-					suffix = "erdes";
-				} else if(conjugationType == 3) {
-					suffix = "irdes";
-				}
-				break;
-			case THIRD :
-				if(conjugationType == 1) {
-					suffix = "arem";
-				} else if(conjugationType == 2) {
-					suffix = "erem";
-				} else if(conjugationType == 3) {
-					suffix = "irem";
-				}
-				break;
-			}
+		case 2:
+			thematicVowel = "e";
+			break;
+		case 3:
+			thematicVowel = "i";
 			break;
-
 		}
-		return addSuffix(radical, suffix);
+		return radical+thematicVowel+"ndo";
 	}
 
 	/**
-	 * Builds the subjunctive imperfect form for regular verbs. 
+	 * Builds the past participle of a verb, which agrees in gender and number. 
 	 *
 	 * @param baseForm
 	 *            the base form of the word.
+	 * @param tense
+	 *            the tense, which may change the radical.
 	 * @param number
-	 * @param person
+	 * @param gender
 	 * @return the inflected word.
 	 */
-	protected static String buildSubjunctiveImperfectRegularVerb(String baseForm, NumberAgreement number, Person person) {
-		int conjugationType = getConjugationType(baseForm);
-		String radical = getVerbRadical(baseForm, Tense.SUBJUNCTIVE_IMPERFECT);
+	protected static String buildPastParticiple(String baseForm, Tense tense,
+			NumberAgreement number, Gender gender) {
+		String radical = getVerbRadical(baseForm, tense);
+		String thematicVowel = "";
 		String suffix = "";
-		switch(number){
-		case SINGULAR :
-		case BOTH :
-			switch(person){
-			case FIRST :
-			case THIRD :
-				if(conjugationType == 1) {
-					suffix = "asse";
-				} else if(conjugationType == 2) {
-					suffix = "esse";
-				} else if(conjugationType == 3) {
-					suffix = "isse";
-				}
+		switch (getConjugationType(baseForm)){
+		case 1:
+			thematicVowel = "a";
+			break;
+		case 2: case 3:
+			thematicVowel = "i";
+			break;
+		}
+		switch (number){
+		case SINGULAR: case BOTH:
+			switch (gender){
+			case MASCULINE: case NEUTER:
+				suffix = "o";
 				break;
-			case SECOND :
-				if(conjugationType == 1) {
-					suffix = "asses";
-				} else if(conjugationType == 2) {
-					suffix = "esses";
-				} else if(conjugationType == 3) {
-					suffix = "isses";
-				}
+			case FEMININE:
+				suffix = "a";
 				break;
 			}
 			break;
-		case PLURAL :
-			switch(person){
-			case FIRST :
-				if(conjugationType == 1) {
-					suffix = "ássemos";
-				} else if(conjugationType == 2) {
-					suffix = "êssemos";
-				} else if(conjugationType == 3) {
-					suffix = "íssemos";
-				}
+		case PLURAL:
+			switch (gender){
+			case MASCULINE: case NEUTER:
+				suffix = "os";
 				break;
-			case SECOND :
-				if(conjugationType == 1) {
-					suffix = "ásseis";
-				} else if(conjugationType == 2) {
-					suffix = "êsseis";
-				} else if(conjugationType == 3) {
-					suffix = "ísseis";
-				}
-				break;
-			case THIRD :
-				if(conjugationType == 1) {
-					suffix = "assem";
-				} else if(conjugationType == 2) {
-					suffix = "essem";
-				} else if(conjugationType == 3) {
-					suffix = "issem";
-				}
+			case FEMININE:
+				suffix = "as";
 				break;
 			}
 			break;
-
 		}
-		return addSuffix(radical, suffix);
+		return radical+thematicVowel+"d"+suffix;
 	}
 
 	/**
-	 * Builds the subjunctive present or imperative form for regular verbs. 
+	 * Returns the name of the lexicon feature giving the form of an irregular
+	 * verb in a tense, person and number, such as "present1s".
 	 *
-	 * @param baseForm
-	 *            the base form of the word.
+	 * @param tense
+	 * @param person
 	 * @param number
+	 *            singular or plural.
+	 * @return the feature name.
+	 */
+	protected static String getInflectionFeature(Tense tense, Person person,
+			NumberAgreement number) {
+		return INFLECTION_FEATURES[getFormIndex(tense, person, number)];
+	}
+
+	/**
+	 * Returns the position of a finite form in the paradigm of a verb. Both
+	 * singular and plural is taken as singular.
+	 *
+	 * @param tense
 	 * @param person
-	 * @return the inflected word.
+	 * @param number
+	 * @return the index of the form.
 	 */
-	protected static String buildSubjunctivePresentRegularVerb(String baseForm, NumberAgreement number, Person person) {
-		int conjugationType = getConjugationType(baseForm);
-		String radical = getVerbRadical(baseForm, Tense.SUBJUNCTIVE_PRESENT);
-		String suffix = "";
-		if(conjugationType != 0) {
-			switch(number){
-			case SINGULAR :
-			case BOTH :
-				switch(person){
-				case FIRST :
-				case THIRD :
-					if(conjugationType == 1) {
-						suffix = "e";
-					} else {
-						suffix = "a";
-					}
-					break;
-				case SECOND :
-					if(conjugationType == 1) {
-						suffix = "es";
-					} else {
-						suffix = "as";
-					}
-					break;
-				}
-				break;
-			case PLURAL :
-				if(conjugationType == 1) {
-					switch(person){
-					case FIRST :
-						suffix = "emos";
-						break;
-					case SECOND :
-						suffix = "eis";
-						break;
-					case THIRD :
-						suffix = "em";
-						break;
-					}
-				} else {
-					switch(person){
-					case FIRST :
-						suffix = "amos";
-						break;
-					case SECOND :
-						suffix = "ais";
-						break;
-					case THIRD :
-						suffix = "am";
-						break;
+	protected static int getFormIndex(Tense tense, Person person, NumberAgreement number) {
+		return (tense.ordinal() * Person.values().length + person.ordinal()) * 2
+				+ NUMBER_INDEX[number.ordinal()];
+	}
+
+	/**
+	 * Builds all the finite forms of one of the irregular verbs the rules know.
+	 *
+	 * @param baseForm
+	 *            "estar", "ser", "ter", "ir" or "dar".
+	 * @return the forms, by form index.
+	 */
+	private static String[] buildIrregularParadigm(String baseForm) {
+		String[] paradigm = new String[FORM_COUNT];
+		for (Tense tense : Tense.values()) {
+			for (Person person : Person.values()) {
+				for (NumberAgreement number : new NumberAgreement[] {
+						NumberAgreement.SINGULAR, NumberAgreement.PLURAL}) {
+					String form = null;
+					if(baseForm.equals("estar")){
+						form = conjugateEstar(number, person, tense);
+					} else if(baseForm.equals("ser")){
+						form = conjugateSer(number, person, tense);
+					} else if(baseForm.equals("ter")){
+						form = conjugateTer(number, person, tense);
+					} else if(baseForm.equals("ir")){
+						form = conjugateIr(number, person, tense);
+					} else if(baseForm.equals("dar")){
+						form = conjugateDar(number, person, tense);
 					}
-					break;
+					paradigm[getFormIndex(tense, person, number)] = form;
 				}
 			}
 		}
-
-		return addSuffix(radical, suffix);
+		return paradigm;
 	}
 
 	//TODO if not debugged in auxiliary creation in VerbPhraseHelper, finish method for
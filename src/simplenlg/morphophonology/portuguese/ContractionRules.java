@@ -0,0 +1,300 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Pierre-Luc Vaudry.
+ */
+
+package simplenlg.morphophonology.portuguese;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * This class contracts a preposition with the word following it, as "de" and
+ * "o" make "do". The rules are kept in a table keyed on the preposition, or on
+ * the last word of a prepositional complex such as "longe de"; each entry
+ * holds the contractions for whole following words, those for the words
+ * beginning with some letter, and one for any other word. A contraction is
+ * therefore found with one lookup in a hash table and at most two more,
+ * without regular expressions.
+ * </p>
+ *
+ * <p>
+ * Rules may be added by code or read from text, one rule per line:
+ * </p>
+ *
+ * <pre>
+ * # preposition  following word  contraction
+ * ...de          *               d*
+ * em             *               n*
+ * ...a           o*              ao
+ * por            a               pela
+ * </pre>
+ *
+ * <p>
+ * A preposition written with a leading <code>...</code> also contracts when
+ * it ends a prepositional complex. The following word is either a whole word,
+ * a letter followed by <code>*</code> for the words beginning with it, or
+ * <code>*</code> for any word. In the contraction, which replaces both words,
+ * a <code>*</code> stands for the following word. A set of rules is meant to
+ * be built once and then shared; it may be used by several threads once it
+ * is complete.
+ * </p>
+ *
+ * Source: Bechara, Evanildo. Moderna Gramática Portuguesa, pp. 302-304.
+ * Nova Fronteira, 2009.
+ *
+ * @author R. de Oliveira
+ */
+public class ContractionRules {
+
+	/** Marks a preposition that also contracts at the end of a complex. */
+	public static final String COMPLEX_MARK = "...";
+
+	/** Stands for any following word, or for the following word itself. */
+	public static final char WILDCARD = '*';
+
+	// the rules of each preposition
+	private final Map<String, Preposition> prepositions = new HashMap<String, Preposition>();
+
+	/**
+	 * Creates a set of rules with no rule; no preposition is contracted.
+	 */
+	public ContractionRules() {
+		// rules are added afterwards
+	}
+
+	/**
+	 * Creates the rules of the contractions of Portuguese prepositions with
+	 * determiners, adverbs and relative pronouns. As before, "a" and "por"
+	 * absorb the following word even when there is no contraction for it.
+	 *
+	 * @return a new set of rules.
+	 */
+	public static ContractionRules createPortugueseRules() {
+		ContractionRules rules = new ContractionRules();
+		// "de" and "em" are joined to any word: "do", "daqui", "neste"
+		rules.addRule("de", true, "*", "d*");
+		rules.addRule("em", false, "*", "n*");
+		// "a" + beginning with "a" = "à", "a" + beginning with "o" = "ao"
+		rules.addRule("a", true, "a*", "à");
+		rules.addRule("a", true, "o*", "ao");
+		rules.addRule("a", true, "*", "a");
+		rules.addRule("por", false, "a", "pela");
+		rules.addRule("por", false, "o", "pelo");
+		rules.addRule("por", false, "*", "por");
+		return rules;
+	}
+
+	/**
+	 * Adds a rule, replacing any rule of the same preposition for the same
+	 * following words.
+	 *
+	 * @param preposition
+	 *            the preposition, of a single word.
+	 * @param complex
+	 *            whether the rule also applies when the preposition ends a
+	 *            prepositional complex, as "de" in "longe de"; this holds for
+	 *            all the rules of the preposition once set for one of them.
+	 * @param following
+	 *            the following word, a letter and <code>*</code> for the words
+	 *            beginning with it, or <code>*</code> for any word.
+	 * @param contraction
+	 *            the word replacing the preposition and the following word, in
+	 *            which <code>*</code> stands for the following word.
+	 * @throws IllegalArgumentException
+	 *             if the preposition is empty or has a space, or if a
+	 *             <code>*</code> is misplaced.
+	 */
+	public void addRule(String preposition, boolean complex, String following, String contraction) {
+		if (preposition.length() == 0 || preposition.indexOf(' ') >= 0) {
+			throw new IllegalArgumentException("not a single word: \"" + preposition + "\"");
+		}
+		Contraction rule = new Contraction(contraction);
+		Preposition entry = this.prepositions.get(preposition);
+		if (entry == null) {
+			entry = new Preposition();
+			this.prepositions.put(preposition, entry);
+		}
+		entry.complex |= complex;
+
+		int wildcard = following.indexOf(WILDCARD);
+		if (wildcard < 0) {
+			entry.words.put(following, rule);
+		} else if (following.length() == 1) {
+			entry.otherWords = rule;
+		} else if (following.length() == 2 && wildcard == 1) {
+			entry.initials.put(following.charAt(0), rule);
+		} else {
+			throw new IllegalArgumentException("not a word, a letter followed by "
+					+ WILDCARD + " or " + WILDCARD + ": \"" + following + "\"");
+		}
+	}
+
+	/**
+	 * Reads rules, one per line, as described above. Blank lines and lines
+	 * beginning with <code>#</code> are ignored.
+	 *
+	 * @param in
+	 *            the text of the rules.
+	 * @throws IOException
+	 *             if the text cannot be read.
+	 * @throws IllegalArgumentException
+	 *             if a line is not a rule.
+	 */
+	public void addRules(Reader in) throws IOException {
+		BufferedReader lines = new BufferedReader(in);
+		int lineNumber = 0;
+		for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+			lineNumber++;
+			line = line.trim();
+			if (line.length() == 0 || line.charAt(0) == '#') {
+				continue;
+			}
+			String[] fields = line.split("\\s+");
+			if (fields.length != 3) {
+				throw new IllegalArgumentException("line " + lineNumber
+						+ ": expected a preposition, a following word and a contraction");
+			}
+			String preposition = fields[0];
+			boolean complex = preposition.startsWith(COMPLEX_MARK);
+			if (complex) {
+				preposition = preposition.substring(COMPLEX_MARK.length());
+			}
+			try {
+				addRule(preposition, complex, fields[1], fields[2]);
+			} catch (IllegalArgumentException ex) {
+				throw new IllegalArgumentException("line " + lineNumber + ": " + ex.getMessage(), ex);
+			}
+		}
+	}
+
+	/**
+	 * Contracts a preposition with the following word.
+	 *
+	 * @param preposition
+	 *            the realisation of the preposition, which may be a
+	 *            prepositional complex such as "longe de".
+	 * @param following
+	 *            the realisation of the following word.
+	 * @return the realisation replacing both, or <code>null</code> if no rule
+	 *         applies and both are kept.
+	 */
+	public String contract(String preposition, String following) {
+		int space = preposition.lastIndexOf(' ');
+		Preposition entry;
+		if (space < 0) {
+			entry = this.prepositions.get(preposition);
+		} else if (isComplex(preposition, space)) {
+			entry = this.prepositions.get(preposition.substring(space + 1));
+			if (entry != null && !entry.complex) {
+				entry = null;
+			}
+		} else {
+			entry = null;
+		}
+		if (entry == null) {
+			return null;
+		}
+
+		Contraction rule = entry.words.get(following);
+		if (rule == null && following.length() > 0) {
+			rule = entry.initials.get(following.charAt(0));
+		}
+		if (rule == null) {
+			rule = entry.otherWords;
+		}
+		if (rule == null) {
+			return null;
+		}
+
+		StringBuilder contracted = new StringBuilder(preposition.length() + following.length());
+		contracted.append(preposition, 0, space + 1).append(rule.prefix);
+		if (rule.withFollowing) {
+			contracted.append(following).append(rule.suffix);
+		}
+		return contracted.toString();
+	}
+
+	/**
+	 * Checks that the words before the last space of a preposition make a
+	 * prepositional complex: they are not empty and hold a single line.
+	 */
+	private static boolean isComplex(String preposition, int space) {
+		if (space == 0) {
+			return false;
+		}
+		for (int i = 0; i < space; i++) {
+			switch (preposition.charAt(i)) {
+			case '\n':
+			case '\r':
+			case '\u0085':
+			case '\u2028':
+			case '\u2029':
+				return false;
+			default:
+				break;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * The rules of one preposition.
+	 */
+	private static class Preposition {
+
+		// whether the rules apply at the end of a prepositional complex
+		boolean complex;
+
+		// the rules for whole following words
+		final Map<String, Contraction> words = new HashMap<String, Contraction>();
+
+		// the rules for the following words beginning with a letter
+		final Map<Character, Contraction> initials = new HashMap<Character, Contraction>();
+
+		// the rule for any other word, if any
+		Contraction otherWords;
+	}
+
+	/**
+	 * A contraction: the text before and after the following word, if the
+	 * following word is kept.
+	 */
+	private static class Contraction {
+
+		final String prefix;
+
+		final boolean withFollowing;
+
+		final String suffix;
+
+		Contraction(String contraction) {
+			int wildcard = contraction.indexOf(WILDCARD);
+			if (wildcard >= 0 && contraction.indexOf(WILDCARD, wildcard + 1) >= 0) {
+				throw new IllegalArgumentException("more than one " + WILDCARD
+						+ " in contraction \"" + contraction + "\"");
+			}
+			this.withFollowing = wildcard >= 0;
+			this.prefix = this.withFollowing ? contraction.substring(0, wildcard) : contraction;
+			this.suffix = this.withFollowing ? contraction.substring(wildcard + 1) : "";
+		}
+	}
+}
@@ -37,7 +37,36 @@ import simplenlg.morphophonology.MorphophonologyRulesInterface;
  * @author R. de Oliveira, University of Aberdeen.
  */
 public class MorphophonologyRules implements MorphophonologyRulesInterface {
-	
+
+	// the contractions of prepositions, looked up for each pair of words
+	private final ContractionRules contractions;
+
+	/**
+	 * Creates the rules with the contractions of Portuguese.
+	 */
+	public MorphophonologyRules() {
+		this(ContractionRules.createPortugueseRules());
+	}
+
+	/**
+	 * Creates the rules with some set of contractions.
+	 *
+	 * @param contractions
+	 *            the contractions of prepositions with the following word.
+	 */
+	public MorphophonologyRules(ContractionRules contractions) {
+		this.contractions = contractions;
+	}
+
+	/**
+	 * @return the contractions of prepositions, to which rules read with
+	 *         <code>ContractionRules.addRules(Reader)</code> may be added
+	 *         before realising
+	 */
+	public ContractionRules getContractionRules() {
+		return this.contractions;
+	}
+
 	//TODO: demonstrative pronouns, which are not prepositions, are not yet
 	//entirely implemented; generation should succeed nonetheless if one defines
 	//things like "este" or "aquele" as the specifier of the NP inside the PP.
@@ -47,7 +76,8 @@ public class MorphophonologyRules implements MorphophonologyRulesInterface {
 	 * and "por" or prepositional complexes ending in those, such as "próximo
 	 * a" or "longe de". Note that "desde", a preposition, ends with -de but
 	 * should not undergo contraction. The same applies for "contra" and "para";
-	 * both end in -a but should not undergo contraction.
+	 * both end in -a but should not undergo contraction. The contractions are
+	 * looked up in the <code>ContractionRules</code> of these rules.
 	 */
 	 public void doMorphophonology(StringElement leftWord, StringElement rightWord) {		
 		ElementCategory leftCategory = leftWord.getCategory();
@@ -64,45 +94,9 @@ public class MorphophonologyRules implements MorphophonologyRulesInterface {
 							|| LexicalCategory.ADVERB.equalTo(rightCategory))
 								|| rightWord.getFeature(PortugueseLexicalFeature.PRONOUN_TYPE)
 									== PronounType.RELATIVE)) {
-				// edited by de Oliveira
-				// if the preposition is "de" or ends with " de"
-				if (leftRealisation.matches("(.+ |)de\\z")) {
-					String temp = leftRealisation.substring(0,
-							leftRealisation.length()-1);
-					leftWord.setRealisation(temp + rightRealisation);
-					rightWord.setRealisation(null);
-				}
-				// if the preposition is "em", transform to "n
-				if (leftRealisation.matches("em")) {
-					leftWord.setRealisation("n" + rightRealisation);
-					rightWord.setRealisation(null);
-				}
-				// if the preposition is "a" or ends with " a"
-				if (leftRealisation.matches("(.+ |)a\\z")) {
-					// "a" + beginning with "a" = "à"
-					if (rightRealisation.startsWith("a")) {
-						String temp = leftRealisation.substring(0,
-								leftRealisation.length()-1);
-						leftWord.setRealisation(temp + "à");
-					}
-					// "a" + beginning with "o" = "ao"
-					if (rightRealisation.startsWith("o")) {
-						String temp = leftRealisation.substring(0,
-								leftRealisation.length()-1);
-						leftWord.setRealisation(temp + "ao");
-					}
-					rightWord.setRealisation(null);
-				}
-				// if the preposition is "por"
-				if (leftRealisation.matches("por")) {
-					// "por" + "a" = "pela"
-					if (rightRealisation.equals("a")) {
-						leftWord.setRealisation("pela");
-					}
-					// "por" + "o" = "pelo"
-					if (rightRealisation.equals("o")) {
-						leftWord.setRealisation("pelo");
-					}
+				String contracted = this.contractions.contract(leftRealisation, rightRealisation);
+				if (contracted != null) {
+					leftWord.setRealisation(contracted);
 					rightWord.setRealisation(null);
 				}
 			}
@@ -0,0 +1,181 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Pierre-Luc Vaudry.
+ */
+
+package simplenlg.realiser;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import simplenlg.features.Feature;
+import simplenlg.format.english.TextFormatter;
+import simplenlg.framework.DocumentCategory;
+import simplenlg.framework.DocumentElement;
+import simplenlg.framework.NLGElement;
+
+/**
+ * <p>
+ * This formatter realises a document one part at a time, as it writes it.
+ * The document, its sections, paragraphs and lists are not realised as a
+ * whole: when the formatter reaches one of their other components, such as
+ * a sentence or a list item, it takes the component alone through all the
+ * realisation stages and writes its text at once. The output is flushed
+ * after each such component if it is <code>Flushable</code>. The first
+ * sentence of a document is thus written as soon as it is realised, and only
+ * the realised trees of one component are kept at a time.
+ * </p>
+ * 
+ * <p>
+ * The text is the one <code>TextFormatter</code> makes of the document
+ * realised as a whole, except that the morphophonology of a component is
+ * done on its own: the last word of a sentence and the first word of the
+ * next are not contracted, as they otherwise could be.
+ * </p>
+ * 
+ * @author R. de Oliveira
+ */
+class IncrementalFormatter extends TextFormatter {
+
+	// the settings of the realisation
+	private final RealisationContext context;
+
+	// where the text is written
+	private final Appendable out;
+
+	// the number of components realised by prepareComponent() being written
+	private int componentDepth = 0;
+
+	/**
+	 * Creates a formatter for one realisation.
+	 * 
+	 * @param context
+	 *            the settings used for the realisation.
+	 * @param out
+	 *            where the text is written.
+	 */
+	IncrementalFormatter(RealisationContext context, Appendable out) {
+		this.context = context;
+		this.out = out;
+	}
+
+	/**
+	 * Realises an element and writes its text.
+	 * 
+	 * @param element
+	 *            the element to realise, which may be modified unless the
+	 *            context preserves the input.
+	 * @throws IOException
+	 *             if the text cannot be written.
+	 */
+	void realiseDocument(NLGElement element) throws IOException {
+		if (isDivision(element)) {
+			if (!element.getFeatureAsBoolean(Feature.ELIDED).booleanValue()) {
+				realise(element, this.out);
+			}
+		} else {
+			if (this.context.isPreserveInput()) {
+				element = element.copyTree();
+			}
+			realise(Realiser.realiseStages(element, this.context), this.out);
+		}
+	}
+
+	/**
+	 * Takes a component through the stages it would go through as part of
+	 * its document, unless it is itself a division of the document.
+	 */
+	@Override
+	protected List<NLGElement> prepareComponent(NLGElement component) {
+		if (isDivision(component)) {
+			if (component.getFeatureAsBoolean(Feature.ELIDED).booleanValue()) {
+				return Collections.emptyList();
+			}
+			return Collections.singletonList(component);
+		}
+
+		if (component == null) {
+			return Collections.emptyList();
+		}
+		if (this.context.isPreserveInput()) {
+			// the copy keeps the parent of the component
+			component = component.copyTree();
+		}
+		this.context.printTree("INITIAL TREE", component); //$NON-NLS-1$
+		List<NLGElement> realised = new ArrayList<NLGElement>(1);
+		realised.add(component);
+		realised = component.realiseSyntax(realised);
+		printTrees("\nPOST-SYNTAX TREE", realised); //$NON-NLS-1$
+		realised = component.realiseMorphology(realised);
+		printTrees("\nPOST-MORPHOLOGY TREE", realised); //$NON-NLS-1$
+		for (int index = 0; index < realised.size(); index++) {
+			realised.set(index, Realiser.realiseMorphophonology(realised.get(index), this.context));
+		}
+		printTrees("\nPOST-MORPHOPHONOLOGY TREE", realised); //$NON-NLS-1$
+		realised = component.realiseOrthography(realised);
+		printTrees("\nPOST-ORTHOGRAPHY TREE", realised); //$NON-NLS-1$
+		return realised;
+	}
+
+	/**
+	 * Writes the text of an element, and flushes the output once the text of
+	 * a component realised by <code>prepareComponent()</code> is written.
+	 */
+	@Override
+	public void realise(NLGElement element, Appendable out) throws IOException {
+		if (isDivision(element)) {
+			super.realise(element, out);
+		} else {
+			this.componentDepth++;
+			try {
+				super.realise(element, out);
+			} finally {
+				this.componentDepth--;
+			}
+			if (this.componentDepth == 0 && out instanceof Flushable) {
+				((Flushable) out).flush();
+			}
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if the element is a document, a section, a
+	 *         paragraph or a list, whose components are realised one by one
+	 */
+	private static boolean isDivision(NLGElement element) {
+		if (!(element instanceof DocumentElement)) {
+			return false;
+		}
+		Object category = element.getCategory();
+		return category == DocumentCategory.DOCUMENT
+				|| category == DocumentCategory.SECTION
+				|| category == DocumentCategory.PARAGRAPH
+				|| category == DocumentCategory.LIST;
+	}
+
+	/**
+	 * Prints the trees of a stage in debug mode.
+	 */
+	private void printTrees(String heading, List<NLGElement> elements) {
+		for (NLGElement each : elements) {
+			this.context.printTree(heading, each);
+		}
+	}
+}
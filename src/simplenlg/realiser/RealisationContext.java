@@ -0,0 +1,165 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Pierre-Luc Vaudry.
+ */
+
+package simplenlg.realiser;
+
+import java.io.PrintStream;
+
+import simplenlg.framework.NLGElement;
+import simplenlg.framework.NLGModule;
+
+/**
+ * <p>
+ * This class holds the settings used by a single call to
+ * <code>Realiser.realise()</code>. A context is created from the current
+ * settings of the <code>Realiser</code> at the start of each call and is not
+ * shared with any other call, so changing the formatter or the debug mode of
+ * the realiser while other threads are realising never affects a realisation
+ * already under way.
+ * </p>
+ *
+ * <p>
+ * Instances are immutable.
+ * </p>
+ *
+ * @author R. de Oliveira
+ */
+public class RealisationContext {
+
+	/** The formatter applied after orthography, or <code>null</code> for none. */
+	private final NLGModule formatter;
+
+	/** Whether the intermediate trees are printed. */
+	private final boolean debug;
+
+	/** Whether a copy of the input tree is realised instead of the input. */
+	private final boolean preserveInput;
+
+	/** The stream the intermediate trees are printed to in debug mode. */
+	private final PrintStream debugStream;
+
+	/** Whether the morphophonology is done in a single walk of the tree. */
+	private final boolean singlePassMorphophonology;
+
+	/**
+	 * Creates a context that prints debug output to <code>System.out</code>.
+	 *
+	 * @param formatter
+	 *            the formatter to apply after orthography, or
+	 *            <code>null</code> for none.
+	 * @param debug
+	 *            <code>true</code> if the intermediate trees are to be printed.
+	 */
+	public RealisationContext(NLGModule formatter, boolean debug) {
+		this(formatter, debug, false, System.out);
+	}
+
+	/**
+	 * Creates a context doing the morphophonology recursively.
+	 *
+	 * @param formatter
+	 *            the formatter to apply after orthography, or
+	 *            <code>null</code> for none.
+	 * @param debug
+	 *            <code>true</code> if the intermediate trees are to be printed.
+	 * @param preserveInput
+	 *            <code>true</code> if the input tree must be left unchanged.
+	 * @param debugStream
+	 *            the stream the intermediate trees are printed to.
+	 */
+	public RealisationContext(NLGModule formatter, boolean debug,
+			boolean preserveInput, PrintStream debugStream) {
+		this(formatter, debug, preserveInput, debugStream, false);
+	}
+
+	/**
+	 * Creates a context.
+	 *
+	 * @param formatter
+	 *            the formatter to apply after orthography, or
+	 *            <code>null</code> for none.
+	 * @param debug
+	 *            <code>true</code> if the intermediate trees are to be printed.
+	 * @param preserveInput
+	 *            <code>true</code> if the input tree must be left unchanged.
+	 * @param debugStream
+	 *            the stream the intermediate trees are printed to.
+	 * @param singlePassMorphophonology
+	 *            <code>true</code> if the morphophonology is done in a single
+	 *            walk of the tree.
+	 */
+	public RealisationContext(NLGModule formatter, boolean debug,
+			boolean preserveInput, PrintStream debugStream,
+			boolean singlePassMorphophonology) {
+		this.formatter = formatter;
+		this.debug = debug;
+		this.preserveInput = preserveInput;
+		this.debugStream = debugStream;
+		this.singlePassMorphophonology = singlePassMorphophonology;
+	}
+
+	/**
+	 * @return the formatter to apply after orthography, or <code>null</code>
+	 *         if the orthography output is returned as is.
+	 */
+	public NLGModule getFormatter() {
+		return this.formatter;
+	}
+
+	/**
+	 * @return <code>true</code> if the intermediate trees are to be printed.
+	 */
+	public boolean isDebug() {
+		return this.debug;
+	}
+
+	/**
+	 * @return <code>true</code> if the realisation works on a copy of the
+	 *         input tree, which is then left unchanged.
+	 */
+	public boolean isPreserveInput() {
+		return this.preserveInput;
+	}
+
+	/**
+	 * @return <code>true</code> if the morphophonology is done by
+	 *         <code>NLGElement.realiseMorphophonologyInOnePass()</code> rather
+	 *         than <code>NLGElement.realiseMorphophonology()</code>.
+	 */
+	public boolean isSinglePassMorphophonology() {
+		return this.singlePassMorphophonology;
+	}
+
+	/**
+	 * Prints one intermediate tree in debug mode. The heading and the tree are
+	 * written in a single call so that the output of concurrent realisations
+	 * is not interleaved line by line.
+	 *
+	 * @param heading
+	 *            the name of the stage that produced the tree.
+	 * @param element
+	 *            the tree to print, may be <code>null</code>.
+	 */
+	void printTree(String heading, NLGElement element) {
+		if (this.debug && this.debugStream != null) {
+			String tree = element != null ? element.printTree(null) : null;
+			this.debugStream.println(heading + "\n\n" + tree); //$NON-NLS-1$
+		}
+	}
+}
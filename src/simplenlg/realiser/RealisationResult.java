@@ -0,0 +1,108 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Pierre-Luc Vaudry.
+ */
+
+package simplenlg.realiser;
+
+import simplenlg.framework.NLGElement;
+
+/**
+ * <p>
+ * This class holds the outcome of realising one element of a batch with
+ * <code>Realiser.realiseAll()</code> or <code>Realiser.realiseStream()</code>.
+ * A failure while realising one element is recorded in its result instead of
+ * aborting the rest of the batch. Results are returned in the order of the
+ * elements of the batch.
+ * </p>
+ * 
+ * @author R. de Oliveira
+ */
+public class RealisationResult {
+
+	/** The element that was realised. */
+	private final NLGElement element;
+
+	/** The realisation, or <code>null</code> if it failed. */
+	private final String realisation;
+
+	/** The exception thrown while realising, or <code>null</code>. */
+	private final RuntimeException failure;
+
+	/**
+	 * Creates the result of a successful realisation.
+	 * 
+	 * @param element
+	 *            the element that was realised.
+	 * @param realisation
+	 *            its realisation as a sentence.
+	 */
+	public RealisationResult(NLGElement element, String realisation) {
+		this.element = element;
+		this.realisation = realisation;
+		this.failure = null;
+	}
+
+	/**
+	 * Creates the result of a failed realisation.
+	 * 
+	 * @param element
+	 *            the element that could not be realised.
+	 * @param failure
+	 *            the exception thrown while realising it.
+	 */
+	public RealisationResult(NLGElement element, RuntimeException failure) {
+		this.element = element;
+		this.realisation = null;
+		this.failure = failure;
+	}
+
+	/**
+	 * @return the element that was realised
+	 */
+	public NLGElement getElement() {
+		return this.element;
+	}
+
+	/**
+	 * @return the realisation of the element as a sentence, or
+	 *         <code>null</code> if the realisation failed
+	 */
+	public String getRealisation() {
+		return this.realisation;
+	}
+
+	/**
+	 * @return the exception thrown while realising the element, or
+	 *         <code>null</code> if the realisation succeeded
+	 */
+	public RuntimeException getFailure() {
+		return this.failure;
+	}
+
+	/**
+	 * @return <code>true</code> if the element was realised without error
+	 */
+	public boolean isSuccessful() {
+		return this.failure == null;
+	}
+
+	@Override
+	public String toString() {
+		return isSuccessful() ? this.realisation : "<" + this.failure + ">"; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+}
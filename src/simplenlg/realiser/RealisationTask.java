@@ -0,0 +1,88 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Pierre-Luc Vaudry.
+ */
+
+package simplenlg.realiser;
+
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+import simplenlg.framework.NLGElement;
+
+/**
+ * This fork/join task realises a range of the elements of a batch, splitting
+ * it in halves until each task is left with a few sentences. Each result is
+ * stored at the position of its element so the output keeps the input order.
+ * 
+ * @author R. de Oliveira
+ */
+class RealisationTask extends RecursiveAction {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Ranges of at most this many elements are realised without splitting. */
+	static final int SEQUENTIAL_THRESHOLD = 4;
+
+	private final Realiser realiser;
+	private final RealisationContext context;
+	private final List<NLGElement> elements;
+	private final RealisationResult[] results;
+	private final int start;
+	private final int end;
+
+	/**
+	 * @param realiser
+	 *            the realiser doing the work.
+	 * @param context
+	 *            the settings shared by the whole batch.
+	 * @param elements
+	 *            the batch.
+	 * @param results
+	 *            the array receiving one result per element.
+	 * @param start
+	 *            the first position of the range (inclusive).
+	 * @param end
+	 *            the last position of the range (exclusive).
+	 */
+	RealisationTask(Realiser realiser, RealisationContext context,
+			List<NLGElement> elements, RealisationResult[] results, int start,
+			int end) {
+		this.realiser = realiser;
+		this.context = context;
+		this.elements = elements;
+		this.results = results;
+		this.start = start;
+		this.end = end;
+	}
+
+	@Override
+	protected void compute() {
+		if (this.end - this.start <= SEQUENTIAL_THRESHOLD) {
+			for (int index = this.start; index < this.end; index++) {
+				this.results[index] = this.realiser.realiseItem(
+						this.elements.get(index), this.context);
+			}
+		} else {
+			int middle = (this.start + this.end) >>> 1;
+			invokeAll(new RealisationTask(this.realiser, this.context,
+					this.elements, this.results, this.start, middle),
+					new RealisationTask(this.realiser, this.context,
+							this.elements, this.results, middle, this.end));
+		}
+	}
+}
@@ -19,6 +19,15 @@
 
 package simplenlg.realiser;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
 import simplenlg.framework.DocumentCategory;
 import simplenlg.framework.DocumentElement;
 import simplenlg.framework.NLGElement;
@@ -33,13 +42,32 @@ import simplenlg.format.english.TextFormatter;
  * thus being language independent and needing no lexicon.
  * It uses the same text formatter.
  * 
+ * <p>
+ * A single <code>Realiser</code> can be shared by all the threads of an
+ * application. Each call to <code>realise()</code> works with its own
+ * <code>RealisationContext</code>, taken from the formatter and debug mode in
+ * force when the call starts, and the language helpers and rule sets it uses
+ * are immutable. Concurrent calls must be given distinct input trees, and
+ * the lexicon behind them must allow concurrent lookups.
+ * </p>
+ * 
+ * <p>
+ * Realisation normally modifies the input tree. When the realiser is set to
+ * preserve its input, each call realises a copy of the tree made by
+ * <code>NLGElement.copyTree()</code> instead, so the same tree (a cached
+ * template, for instance) can be realised any number of times, including by
+ * several threads at once.
+ * </p>
+ * 
  * @author vaudrypl
  *
  */
 public class Realiser {
 
-	private NLGModule formatter = null;
-	private boolean debug = false;
+	private volatile NLGModule formatter = null;
+	private volatile boolean debug = false;
+	private volatile boolean preserveInput = false;
+	private volatile boolean singlePassMorphophonology = false;
 	
 	/**
 	 * create a realiser (no lexicon)
@@ -49,63 +77,133 @@ public class Realiser {
 	}
 	
 	public void initialise() {
-		this.formatter = new TextFormatter();
+		NLGModule textFormatter = new TextFormatter();
 		//AG: added call to initialise for formatter
-		this.formatter.initialise();
+		textFormatter.initialise();
+		this.formatter = textFormatter;
+	}
+
+	/**
+	 * Creates the context of a single realisation from the current settings
+	 * of this realiser.
+	 * 
+	 * @return a new <code>RealisationContext</code>
+	 */
+	public RealisationContext createContext() {
+		return new RealisationContext(this.formatter, this.debug,
+				this.preserveInput, System.out, this.singlePassMorphophonology);
 	}
 
 	public NLGElement realise(NLGElement element) {
-		if (this.debug) {
-			System.out.println("INITIAL TREE\n"); //$NON-NLS-1$
-			System.out.println(element.printTree(null));
-		}
-		NLGElement postSyntax = element.realiseSyntax();
-		// TODO
-		if (this.debug) {
-			System.out.println("\nPOST-SYNTAX TREE\n"); //$NON-NLS-1$
-			System.out.println(postSyntax.printTree(null));
-		}
-		NLGElement postMorphology = postSyntax!=null ? postSyntax.realiseMorphology() : null;
-		if (this.debug) {
-			System.out.println("\nPOST-MORPHOLOGY TREE\n"); //$NON-NLS-1$
-			System.out.println(postMorphology.printTree(null));
-		}
-		NLGElement postMorphophonology = postMorphology!=null ? postMorphology.realiseMorphophonology() : null;
-		if (this.debug) {
-			System.out.println("\nPOST-MORPHOPHONOLOGY TREE\n"); //$NON-NLS-1$
-			System.out.println(postMorphophonology.printTree(null));
-		}
-		NLGElement postOrthography = postMorphophonology!=null ? postMorphophonology.realiseOrthography() : null;
-		if (this.debug) {
-			System.out.println("\nPOST-ORTHOGRAPHY TREE\n"); //$NON-NLS-1$
-			System.out.println(postOrthography.printTree(null));
+		return realise(element, createContext());
+	}
+
+	/**
+	 * Realises the given element with the settings of the given context
+	 * rather than those of this realiser.
+	 * 
+	 * @param element
+	 *            the element to realise.
+	 * @param context
+	 *            the settings used for this realisation.
+	 * @return the realised element
+	 */
+	public NLGElement realise(NLGElement element, RealisationContext context) {
+		if (context.isPreserveInput()) {
+			element = element.copyTree();
 		}
+		return realiseTree(element, context);
+	}
+
+	/**
+	 * Runs all the realisation stages on the given tree, which they may
+	 * modify.
+	 * 
+	 * @param element
+	 *            the root of the tree to realise.
+	 * @param context
+	 *            the settings used for this realisation.
+	 * @return the realised element
+	 */
+	private NLGElement realiseTree(NLGElement element, RealisationContext context) {
+		NLGElement postOrthography = realiseStages(element, context);
 		NLGElement postFormatter = null;
-		if (this.formatter != null) {
-			postFormatter = this.formatter.realise(postOrthography);
-			if (this.debug) {
-				System.out.println("\nPOST-FORMATTER TREE\n"); //$NON-NLS-1$
-				System.out.println(postFormatter.printTree(null));
-			}
+		NLGModule formatter = context.getFormatter();
+		if (formatter != null) {
+			postFormatter = formatter.realise(postOrthography);
+			context.printTree("\nPOST-FORMATTER TREE", postFormatter); //$NON-NLS-1$
 		} else {
 			postFormatter = postOrthography;
 		}
 		return postFormatter;
 	}
+
+	/**
+	 * Runs the stages before the formatter on the given tree, which they may
+	 * modify.
+	 * 
+	 * @param element
+	 *            the root of the tree to realise.
+	 * @param context
+	 *            the settings used for this realisation.
+	 * @return the orthographically realised element
+	 */
+	static NLGElement realiseStages(NLGElement element, RealisationContext context) {
+		context.printTree("INITIAL TREE", element); //$NON-NLS-1$
+		NLGElement postSyntax = element.realiseSyntax();
+		// TODO
+		context.printTree("\nPOST-SYNTAX TREE", postSyntax); //$NON-NLS-1$
+		NLGElement postMorphology = postSyntax!=null ? postSyntax.realiseMorphology() : null;
+		context.printTree("\nPOST-MORPHOLOGY TREE", postMorphology); //$NON-NLS-1$
+		NLGElement postMorphophonology = postMorphology!=null ? realiseMorphophonology(postMorphology, context) : null;
+		context.printTree("\nPOST-MORPHOPHONOLOGY TREE", postMorphophonology); //$NON-NLS-1$
+		NLGElement postOrthography = postMorphophonology!=null ? postMorphophonology.realiseOrthography() : null;
+		context.printTree("\nPOST-ORTHOGRAPHY TREE", postOrthography); //$NON-NLS-1$
+		return postOrthography;
+	}
+
+	/**
+	 * Runs the morphophonology stage in the way chosen by the given context.
+	 * 
+	 * @param element
+	 *            the morphologically realised element.
+	 * @param context
+	 *            the settings used for this realisation.
+	 * @return the morphophonologically realised element
+	 */
+	static NLGElement realiseMorphophonology(NLGElement element, RealisationContext context) {
+		return context.isSinglePassMorphophonology()
+				? element.realiseMorphophonologyInOnePass()
+				: element.realiseMorphophonology();
+	}
 	
 	/** Convenience class to realise any NLGElement as a sentence
 	 * @param element
 	 * @return String realisation of the NLGElement
 	 */
 	public String realiseSentence(NLGElement element) {
+		return realiseSentence(element, createContext());
+	}
+
+	/** Convenience class to realise any NLGElement as a sentence
+	 * with the settings of the given context
+	 * @param element
+	 * @param context
+	 * @return String realisation of the NLGElement
+	 */
+	public String realiseSentence(NLGElement element, RealisationContext context) {
 		NLGElement realised = null;
+		if (context.isPreserveInput()) {
+			// copied before being added to the sentence, which sets its parent
+			element = element.copyTree();
+		}
 		if (element instanceof DocumentElement)
-			realised = realise(element);
+			realised = realiseTree(element, context);
 		else {
 			DocumentElement sentence
 				= new DocumentElement(DocumentCategory.SENTENCE, null, element.getFactory());
 			sentence.addComponent(element);
-			realised = realise(sentence);
+			realised = realiseTree(sentence, context);
 		}
 		
 		if (realised == null)
@@ -114,6 +212,122 @@ public class Realiser {
 			return realised.getRealisation();
 	}
 
+	/**
+	 * Realises a document one sentence at a time, writing the text of each
+	 * sentence or list item as soon as it is realised, so that the text
+	 * starts to come out before the rest of the document is realised and the
+	 * realised trees of the whole document are never held at once. The text
+	 * is laid out as by <code>TextFormatter</code>, whatever the formatter of
+	 * this realiser, and the output is flushed after each sentence if it is
+	 * <code>Flushable</code>. Words of two sentences are not contracted with
+	 * each other by the morphophonology, unlike in <code>realise()</code>.
+	 * 
+	 * @param element
+	 *            the document, or any other element, to realise.
+	 * @param out
+	 *            where the text is written.
+	 * @throws IOException
+	 *             if the text cannot be written.
+	 */
+	public void realiseIncrementally(NLGElement element, Appendable out) throws IOException {
+		realiseIncrementally(element, createContext(), out);
+	}
+
+	/**
+	 * Realises a document one sentence at a time with the settings of the
+	 * given context, writing the text of each sentence as soon as it is
+	 * realised. See <code>realiseIncrementally(NLGElement, Appendable)</code>.
+	 * 
+	 * @param element
+	 *            the document, or any other element, to realise.
+	 * @param context
+	 *            the settings used for this realisation.
+	 * @param out
+	 *            where the text is written.
+	 * @throws IOException
+	 *             if the text cannot be written.
+	 */
+	public void realiseIncrementally(NLGElement element, RealisationContext context,
+			Appendable out) throws IOException {
+		new IncrementalFormatter(context, out).realiseDocument(element);
+	}
+
+	/**
+	 * Realises every element of a batch as a sentence, spreading the
+	 * elements over the common fork/join pool. The elements must be
+	 * independent trees, or the realiser must preserve its input.
+	 * 
+	 * @param elements
+	 *            the elements to realise.
+	 * @return one result per element, in the order of the elements
+	 */
+	public List<RealisationResult> realiseAll(List<NLGElement> elements) {
+		return realiseAll(elements, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Realises every element of a batch as a sentence, spreading the
+	 * elements over the threads of the given pool. All the elements are
+	 * realised with the same context, taken when the call starts. An element
+	 * whose realisation fails gets a failed result and the others are still
+	 * realised.
+	 * 
+	 * @param elements
+	 *            the elements to realise.
+	 * @param pool
+	 *            the pool running the realisations.
+	 * @return one result per element, in the order of the elements
+	 */
+	public List<RealisationResult> realiseAll(List<NLGElement> elements,
+			ForkJoinPool pool) {
+		if (!(elements instanceof RandomAccess)) {
+			elements = new ArrayList<NLGElement>(elements);
+		}
+		RealisationResult[] results = new RealisationResult[elements.size()];
+		if (results.length > 0) {
+			pool.invoke(new RealisationTask(this, createContext(), elements,
+					results, 0, results.length));
+		}
+		return Arrays.asList(results);
+	}
+
+	/**
+	 * Realises a stream of elements as sentences. The returned stream is
+	 * lazy and keeps the order of the elements; it is parallel if the given
+	 * stream is. All the elements are realised with the context in force when
+	 * this method is called.
+	 * 
+	 * @param elements
+	 *            the elements to realise.
+	 * @return a stream of one result per element
+	 */
+	public Stream<RealisationResult> realiseStream(Stream<NLGElement> elements) {
+		final RealisationContext context = createContext();
+		return elements.map(new Function<NLGElement, RealisationResult>() {
+			@Override
+			public RealisationResult apply(NLGElement element) {
+				return realiseItem(element, context);
+			}
+		});
+	}
+
+	/**
+	 * Realises one element of a batch as a sentence, catching any failure.
+	 * 
+	 * @param element
+	 *            the element to realise.
+	 * @param context
+	 *            the settings shared by the batch.
+	 * @return the result for this element
+	 */
+	RealisationResult realiseItem(NLGElement element, RealisationContext context) {
+		try {
+			return new RealisationResult(element, realiseSentence(element, context));
+		} catch (RuntimeException exception) {
+			return new RealisationResult(element, exception);
+		}
+	}
+
 	public void setFormatter(NLGModule formatter) {
 		this.formatter = formatter;
 	}
@@ -121,4 +335,29 @@ public class Realiser {
 	public void setDebugMode(boolean debugOn) {
 		this.debug = debugOn;
 	}
+
+	/**
+	 * Sets whether realisation leaves its input tree unchanged by working on
+	 * a copy of it.
+	 * 
+	 * @param preserve
+	 *            <code>true</code> to realise a copy of the input tree.
+	 */
+	public void setPreserveInput(boolean preserve) {
+		this.preserveInput = preserve;
+	}
+
+	/**
+	 * Sets whether the morphophonology is done in a single walk of the
+	 * realised tree, or by the recursive
+	 * <code>NLGElement.realiseMorphophonology()</code>, which is the default.
+	 * The single walk has only been checked against the recursive pass on
+	 * contractions of prepositions and determiners.
+	 * 
+	 * @param singlePass
+	 *            <code>true</code> to gather the words of the tree once.
+	 */
+	public void setSinglePassMorphophonology(boolean singlePass) {
+		this.singlePassMorphophonology = singlePass;
+	}
 }
@@ -178,7 +178,7 @@ public abstract class AbstractClauseHelper {
 			NLGFactory phraseFactory) {
 		NLGElement currentElement = null;
 
-		if (phrase.getFeatureAsBoolean(Feature.PASSIVE).booleanValue()) {
+		if (phrase.isPassive()) {
 			List<NLGElement> allSubjects = phrase
 					.getFeatureAsElementList(InternalFeature.SUBJECTS);
 
@@ -304,7 +304,7 @@ public abstract class AbstractClauseHelper {
 		boolean feminine = true;
 		boolean atLeastOne = false;
 
-		if (phrase.getFeatureAsBoolean(Feature.PASSIVE).booleanValue()
+		if (phrase.isPassive()
 				&& verbPhrase != null
 				&& !InterrogativeType.WHAT_OBJECT.equals(phrase
 						.getFeature(Feature.INTERROGATIVE_TYPE))) {
@@ -316,9 +316,7 @@ public abstract class AbstractClauseHelper {
 				// bug in original version of simplenlg 4.2
 				// (coordinated object not realised (in subject position) in passive sentence)
 				if (/*subject.isA(PhraseCategory.NOUN_PHRASE)
-						&&*/ DiscourseFunction.OBJECT
-								.equals(subject
-										.getFeature(InternalFeature.DISCOURSE_FUNCTION))) {
+						&&*/ subject.discourseFunction() == DiscourseFunction.OBJECT) {
 					
 					// changed by vaudrypl : the PASSIVE feature is given only
 					// if the subject is a NP, and it is given to a copy of this NP
@@ -365,10 +363,9 @@ public abstract class AbstractClauseHelper {
 					// with different PERSON feature,
 					// first person is prefered over second person
 					// which is prefered over third person.
-					if (Person.FIRST.equals(subject.getFeature(Feature.PERSON))) {
+					if (subject.person() == Person.FIRST) {
 						passivePerson = Person.FIRST;
-					} else if (Person.SECOND.equals(subject
-							.getFeature(Feature.PERSON))
+					} else if (subject.person() == Person.SECOND
 							&& !Person.FIRST.equals(passivePerson)) {
 						passivePerson = Person.SECOND;
 					} else if (passivePerson == null) {
@@ -382,7 +379,7 @@ public abstract class AbstractClauseHelper {
 						feminine = false;
 					}
 
-					if (Form.GERUND.equals(phrase.getFeature(Feature.FORM))
+					if (phrase.form() == Form.GERUND
 							&& !phrase.getFeatureAsBoolean(
 									Feature.SUPPRESS_GENITIVE_IN_GERUND)
 									.booleanValue()) {
@@ -437,9 +434,9 @@ public abstract class AbstractClauseHelper {
 		// compensate for modification in realiseInterrogative().
 		Object interrogative = phrase.getFeature(Feature.INTERROGATIVE_TYPE);
 		
-		if (!Form.INFINITIVE.equals(phrase.getFeature(Feature.FORM))
-				&& !Form.IMPERATIVE.equals(phrase.getFeature(Feature.FORM))
-				&& !phrase.getFeatureAsBoolean(Feature.PASSIVE).booleanValue()
+		if (phrase.form() != Form.INFINITIVE
+				&& phrase.form() != Form.IMPERATIVE
+				&& !phrase.isPassive()
 				&& splitVerb == null
 				&& interrogative != InterrogativeType.WHO_SUBJECT) {
 			
@@ -468,7 +465,7 @@ public abstract class AbstractClauseHelper {
 
 			subject.setFeature(InternalFeature.DISCOURSE_FUNCTION,
 					DiscourseFunction.SUBJECT);
-			if (Form.GERUND.equals(phrase.getFeature(Feature.FORM))
+			if (phrase.form() == Form.GERUND
 					&& !phrase.getFeatureAsBoolean(
 							Feature.SUPPRESS_GENITIVE_IN_GERUND).booleanValue()) {
 				subject.setFeature(Feature.POSSESSIVE, true);
@@ -706,13 +703,13 @@ public abstract class AbstractClauseHelper {
 						&& ((CoordinatedPhraseElement) currentElement)
 								.checkIfPlural())
 					pluralSubjects = true;
-				else if (currentElement.getFeature(Feature.NUMBER) == NumberAgreement.PLURAL)
+				else if (currentElement.number() == NumberAgreement.PLURAL)
 					pluralSubjects = true;
 				else if (currentElement.isA(PhraseCategory.NOUN_PHRASE)) {
 					NLGElement currentHead = currentElement
 							.getFeatureAsElement(InternalFeature.HEAD);
 					person = (Person) currentElement.getFeature(Feature.PERSON);
-					if ((currentHead.getFeature(Feature.NUMBER) == NumberAgreement.PLURAL))
+					if ((currentHead.number() == NumberAgreement.PLURAL))
 						pluralSubjects = true;
 					else if (currentHead instanceof ListElement) {
 						pluralSubjects = true;
@@ -186,15 +186,15 @@ public abstract class AbstractVerbPhraseHelper {
 		ListElement indirects = new ListElement();
 		ListElement directs = new ListElement();
 		ListElement unknowns = new ListElement();
-		Object discourseValue = null;
+		DiscourseFunction discourseValue = null;
 		NLGElement currentElement = null;
 
 		for (NLGElement complement : phrase
 				.getFeatureAsElementList(InternalFeature.COMPLEMENTS)) {
 
-			discourseValue = complement.getFeature(InternalFeature.DISCOURSE_FUNCTION);
+			discourseValue = complement.discourseFunction();
 			// added by vaudrypl
-			if (!(discourseValue instanceof DiscourseFunction)) {
+			if (discourseValue == null) {
 				discourseValue = DiscourseFunction.COMPLEMENT;
 			}
 			
@@ -205,9 +205,9 @@ public abstract class AbstractVerbPhraseHelper {
 						// DiscourseFunction.COMPLEMENT);
 						discourseValue);
 
-				if (DiscourseFunction.INDIRECT_OBJECT.equals(discourseValue)) {
+				if (discourseValue == DiscourseFunction.INDIRECT_OBJECT) {
 					indirects.addComponent(currentElement);
-				} else if (DiscourseFunction.OBJECT.equals(discourseValue)) {
+				} else if (discourseValue == DiscourseFunction.OBJECT) {
 					directs.addComponent(currentElement);
 				} else {
 					unknowns.addComponent(currentElement);
@@ -218,7 +218,7 @@ public abstract class AbstractVerbPhraseHelper {
 				.getFeature(Feature.INTERROGATIVE_TYPE))) {
 			realisedElement.addComponents(indirects.getChildren());
 		}
-		if (!phrase.getFeatureAsBoolean(Feature.PASSIVE).booleanValue()) {
+		if (!phrase.isPassive()) {
 			if (!InterrogativeType.isObject(phrase
 					.getFeature(Feature.INTERROGATIVE_TYPE))) {
 				realisedElement.addComponents(directs.getChildren());
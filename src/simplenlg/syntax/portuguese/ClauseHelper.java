@@ -88,7 +88,7 @@ public class ClauseHelper extends simplenlg.syntax.english.nonstatic.ClauseHelpe
 	@Override
 	protected void checkSubjectNumberPerson(PhraseElement phrase,
 			NLGElement verbElement) {
-		boolean passive = phrase.getFeatureAsBoolean(Feature.PASSIVE);
+		boolean passive = phrase.isPassive();
 		// If the clause has a relativised subject, make subject agreement
 		// with parent noun phrase instead.
 		List<NLGElement> subjects =
@@ -357,7 +357,7 @@ public class ClauseHelper extends simplenlg.syntax.english.nonstatic.ClauseHelpe
 			NLGFactory factory = phrase.getFactory();
 			NLGElement relativePronoun;
 			NLGElement preposition = null;
-			boolean passive = phrase.getFeatureAsBoolean(Feature.PASSIVE);
+			boolean passive = phrase.isPassive();
 			switch (function) {
 			case SUBJECT:
 				relativePronoun = factory.createNounPhrase(
@@ -610,7 +610,7 @@ public class ClauseHelper extends simplenlg.syntax.english.nonstatic.ClauseHelpe
 				NLGElement relativePhrase = phrase.getFeatureAsElement(
 						FrenchFeature.RELATIVE_PHRASE);
 				Object complementiser = phrase.getFeature(Feature.COMPLEMENTISER);
-				boolean passive = phrase.getFeatureAsBoolean(Feature.PASSIVE);
+				boolean passive = phrase.isPassive();
 				
 //				phrase.setFeature( InternalFeature.CLAUSE_STATUS,
 //						ClauseStatus.SUBORDINATE);
@@ -93,7 +93,7 @@ public class VerbPhraseHelper extends simplenlg.syntax.english.nonstatic.VerbPhr
 				realiseAuxiliaries(realisedElement, auxiliaryRealisation);
 
 				NLGElement verb = mainVerbRealisation.peek();
-				Object verbForm = verb.getFeature(Feature.FORM);
+				Form verbForm = verb.form();
 				if(verbForm == Form.INFINITIVE) {
 					realiseMainVerb(phrase, mainVerbRealisation, realisedElement);
 					phrase.getPhraseHelper().realiseList(realisedElement,
@@ -215,11 +215,16 @@ public class VerbPhraseHelper extends simplenlg.syntax.english.nonstatic.VerbPhr
 		boolean prospective = phrase.getFeatureAsBoolean(Feature.PROSPECTIVE);
 		String modal = phrase.getFeatureAsString(Feature.MODAL);
 		boolean negated = phrase.getFeatureAsBoolean(Feature.NEGATED);
-		boolean passive = phrase.getFeatureAsBoolean(Feature.PASSIVE);
+		boolean passive = phrase.isPassive();
 		Object gender = phrase.getFeature(LexicalFeature.GENDER);
 
 		// gets head verb and adds it as first element in the array
 		NLGElement headVerb = phrase.getHead();
+		// the features set below must not end up on the lexicon entry,
+		// which is shared by every phrase using this verb
+		if(headVerb instanceof WordElement) {
+			headVerb = new InflectedWordElement((WordElement) headVerb);
+		}
 		if(headVerb != null) {
 			vgComponentsArray.add(headVerb);
 		} else {
@@ -397,7 +402,7 @@ public class VerbPhraseHelper extends simplenlg.syntax.english.nonstatic.VerbPhr
 	 */
 	protected NLGElement insertCliticComplementPronouns(PhraseElement phrase, Stack<NLGElement> vgComponents) {
 		List<NLGElement> complements = phrase.getFeatureAsElementList(InternalFeature.COMPLEMENTS);
-		boolean passive = phrase.getFeatureAsBoolean(Feature.PASSIVE);
+		boolean passive = phrase.isPassive();
 		NLGElement pronounEn = null, pronounY = null, directObject = null, indirectObject = null;
 
 		// identify clitic candidates
@@ -547,9 +552,9 @@ public class VerbPhraseHelper extends simplenlg.syntax.english.nonstatic.VerbPhr
 	protected boolean hasReflexiveObject(PhraseElement phrase) {
 		boolean reflexiveObjectFound = false;
 		List<NLGElement> complements = phrase.getFeatureAsElementList(InternalFeature.COMPLEMENTS);
-		boolean passive = phrase.getFeatureAsBoolean(Feature.PASSIVE);
-		Object subjectPerson = phrase.getFeature(Feature.PERSON);
-		Object subjectNumber = phrase.getFeature(Feature.NUMBER);
+		boolean passive = phrase.isPassive();
+		Person subjectPerson = phrase.person();
+		NumberAgreement subjectNumber = phrase.number();
 		if(subjectNumber != NumberAgreement.PLURAL) {
 			subjectNumber = NumberAgreement.SINGULAR;
 		}
@@ -557,10 +562,10 @@ public class VerbPhraseHelper extends simplenlg.syntax.english.nonstatic.VerbPhr
 		for(NLGElement complement : complements) {
 			if(complement != null && !complement.getFeatureAsBoolean(Feature.ELIDED)) {
 
-				Object function = complement.getFeature(InternalFeature.DISCOURSE_FUNCTION);
+				DiscourseFunction function = complement.discourseFunction();
 				boolean reflexive = complement.getFeatureAsBoolean(LexicalFeature.REFLEXIVE);
-				Object person = complement.getFeature(Feature.PERSON);
-				Object number = complement.getFeature(Feature.NUMBER);
+				Person person = complement.person();
+				NumberAgreement number = complement.number();
 				if(number != NumberAgreement.PLURAL) {
 					number = NumberAgreement.SINGULAR;
 				}
@@ -655,12 +660,9 @@ public class VerbPhraseHelper extends simplenlg.syntax.english.nonstatic.VerbPhr
 	 */
 	@Override
 	protected NumberAgreement determineNumber(NLGElement parent, PhraseElement phrase) {
-		Object numberValue = phrase.getFeature(Feature.NUMBER);
-		NumberAgreement number = null;
+		NumberAgreement number = phrase.number();
 
-		if(numberValue instanceof NumberAgreement) {
-			number = (NumberAgreement) numberValue;
-		} else {
+		if(number == null) {
 			number = NumberAgreement.SINGULAR;
 		}
 
@@ -811,7 +813,7 @@ public class VerbPhraseHelper extends simplenlg.syntax.english.nonstatic.VerbPhr
 	 * @param realisedElement	complements realisation
 	 */
 	protected void addDirectObjects(ListElement directs, PhraseElement phrase, ListElement realisedElement) {
-		boolean passive = phrase.getFeatureAsBoolean(Feature.PASSIVE);
+		boolean passive = phrase.isPassive();
 		if(!passive && !InterrogativeType.isObject(phrase.getFeature(Feature.INTERROGATIVE_TYPE))) {
 			realisedElement.addComponents(directs.getChildren());
 		}
@@ -836,7 +838,7 @@ public class VerbPhraseHelper extends simplenlg.syntax.english.nonstatic.VerbPhr
 	 * @param realisedElement	complements realisation
 	 */
 	protected void addUnknownComplements(ListElement unknowns, PhraseElement phrase, ListElement realisedElement) {
-		if(!phrase.getFeatureAsBoolean(Feature.PASSIVE)) {
+		if(!phrase.isPassive()) {
 			realisedElement.addComponents(unknowns.getChildren());
 		}
 	}